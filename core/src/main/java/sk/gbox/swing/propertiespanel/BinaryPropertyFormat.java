@@ -0,0 +1,688 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+import sk.gbox.swing.propertiespanel.XmlPropertyBuilder.PropertyTypeResolver;
+
+/**
+ * Versioned binary format of property trees. The format stores structure of a
+ * property tree, descriptors of property types with their parameters, labels,
+ * hints and values. Files are read using memory-mapped I/O. Each distinct
+ * string is stored once in a string table and decoded at most once when a
+ * file is read, the decoded string is shared by all properties using it.
+ * 
+ * The file starts with a header (magic number, version of format and a stamp
+ * of the source the tree was built from) followed by a string table, a table
+ * of type descriptors and properties in the pre-order.
+ */
+public class BinaryPropertyFormat {
+
+    /**
+     * Interface for describers of property types. A description consists of
+     * the name and parameters of a property type that are accepted by a
+     * {@link PropertyTypeResolver} to resolve an equivalent property type.
+     */
+    public interface PropertyTypeDescriber {
+	/**
+	 * Describes a property type.
+	 * 
+	 * @param type
+	 *            the property type.
+	 * @param parameters
+	 *            the map to which parameters of property type are
+	 *            stored.
+	 * @return the name of property type or null, if the property type
+	 *         cannot be described.
+	 */
+	public String describePropertyType(PropertyType type, Map<String, Object> parameters);
+    }
+
+    /**
+     * String table of a read file. Strings are decoded on their first access.
+     */
+    private static class StringTable {
+
+	/**
+	 * Buffer with encoded strings.
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * Position of the first encoded string in the buffer.
+	 */
+	private final int dataStart;
+
+	/**
+	 * End offsets of encoded strings relative to the data start.
+	 */
+	private final int[] endOffsets;
+
+	/**
+	 * Already decoded strings.
+	 */
+	private final String[] strings;
+
+	/**
+	 * Reads the string table at the current position of the buffer.
+	 */
+	StringTable(ByteBuffer buffer) {
+	    this.buffer = buffer;
+	    int count = buffer.getInt();
+	    endOffsets = new int[count];
+	    for (int i = 0; i < count; i++) {
+		endOffsets[i] = buffer.getInt();
+	    }
+	    strings = new String[count];
+	    dataStart = buffer.position();
+	    buffer.position(dataStart + ((count > 0) ? endOffsets[count - 1] : 0));
+	}
+
+	/**
+	 * Returns the string with given index.
+	 */
+	String get(int index) {
+	    if (index < 0) {
+		return null;
+	    }
+
+	    String result = strings[index];
+	    if (result == null) {
+		int start = (index > 0) ? endOffsets[index - 1] : 0;
+		byte[] bytes = new byte[endOffsets[index] - start];
+		ByteBuffer data = buffer.duplicate();
+		data.position(dataStart + start);
+		data.get(bytes);
+		result = new String(bytes, StandardCharsets.UTF_8);
+		strings[index] = result;
+	    }
+
+	    return result;
+	}
+    }
+
+    /**
+     * Magic number identifying files in this format.
+     */
+    private static final int MAGIC = 0x50504246;
+
+    /**
+     * Version of the format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Flag of composed properties.
+     */
+    private static final int COMPOSED = 1;
+
+    /**
+     * Flag of important properties.
+     */
+    private static final int IMPORTANT = 2;
+
+    /**
+     * Flag of read-only properties.
+     */
+    private static final int READ_ONLY = 4;
+
+    /**
+     * Flag of properties with stored value.
+     */
+    private static final int HAS_VALUE = 8;
+
+    /**
+     * Tag of null values.
+     */
+    private static final int NULL_VALUE = 0;
+
+    /**
+     * Tag of string values.
+     */
+    private static final int STRING_VALUE = 1;
+
+    /**
+     * Tag of true boolean values.
+     */
+    private static final int TRUE_VALUE = 2;
+
+    /**
+     * Tag of false boolean values.
+     */
+    private static final int FALSE_VALUE = 3;
+
+    /**
+     * Tag of integer values.
+     */
+    private static final int INTEGER_VALUE = 4;
+
+    /**
+     * Tag of long values.
+     */
+    private static final int LONG_VALUE = 5;
+
+    /**
+     * Tag of double values.
+     */
+    private static final int DOUBLE_VALUE = 6;
+
+    /**
+     * Tag of map values.
+     */
+    private static final int MAP_VALUE = 7;
+
+    /**
+     * Tag of list values.
+     */
+    private static final int LIST_VALUE = 8;
+
+    /**
+     * Resolver of property types used when a file is read.
+     */
+    private final PropertyTypeResolver propertyTypeResolver;
+
+    /**
+     * Describer of property types used when a file is written.
+     */
+    private final PropertyTypeDescriber propertyTypeDescriber;
+
+    /**
+     * Stamp of configuration that affects built property trees and that is
+     * not reflected by classes of resolvers.
+     */
+    private volatile long configurationStamp = 0;
+
+    /**
+     * Constructs the binary format.
+     * 
+     * @param propertyTypeResolver
+     *            the resolver of property types used when a file is read.
+     * @param propertyTypeDescriber
+     *            the describer of property types used when a file is
+     *            written.
+     */
+    public BinaryPropertyFormat(PropertyTypeResolver propertyTypeResolver,
+	    PropertyTypeDescriber propertyTypeDescriber) {
+	this.propertyTypeResolver = propertyTypeResolver;
+	this.propertyTypeDescriber = propertyTypeDescriber;
+    }
+
+    /**
+     * Loads a property tree from a binary cache file. If the cache file does
+     * not exist, cannot be read or is stale with respect to the xml file or to
+     * the configuration (see {@link #createSourceStamp(File, XmlPropertyBuilder)}),
+     * the property tree is built from the xml file and the cache file is
+     * replaced.
+     * 
+     * @param xmlFile
+     *            the xml file with configuration of properties.
+     * @param cacheFile
+     *            the binary cache file.
+     * @param builder
+     *            the builder used when the property tree is built from the xml
+     *            file.
+     * @return the property tree.
+     * @throws IOException
+     *             if the xml file cannot be read or the cache file cannot be
+     *             written.
+     */
+    public Property load(File xmlFile, File cacheFile, XmlPropertyBuilder builder)
+	    throws IOException {
+	long sourceStamp = createSourceStamp(xmlFile, builder);
+
+	if (cacheFile.isFile()) {
+	    try {
+		Property result = read(cacheFile, sourceStamp);
+		if (result != null) {
+		    return result;
+		}
+	    } catch (IOException | RuntimeException ignore) {
+		// Damaged cache is stale, it is replaced below.
+	    }
+	}
+
+	Property result;
+	try (InputStream xmlStream = new BufferedInputStream(new FileInputStream(xmlFile))) {
+	    result = builder.createProperties(xmlStream);
+	}
+
+	write(result, sourceStamp, cacheFile);
+	return result;
+    }
+
+    /**
+     * Computes the stamp of an xml file built by a builder. The stamp combines
+     * modification time and length of the xml file with a fingerprint of the
+     * configuration: classes of resolvers of the builder, classes of resolver
+     * and describer of this format and the configuration stamp.
+     * 
+     * @param xmlFile
+     *            the xml file with configuration of properties.
+     * @param builder
+     *            the builder used when the property tree is built from the xml
+     *            file.
+     * @return the stamp.
+     */
+    public long createSourceStamp(File xmlFile, XmlPropertyBuilder builder) {
+	long result = xmlFile.lastModified();
+	result = result * 31 + xmlFile.length();
+	result = result * 31 + configurationStamp;
+
+	List<PropertyTypeResolver> resolvers = builder.getPropertyTypeResolvers();
+	result = result * 31 + resolvers.size();
+	for (PropertyTypeResolver resolver : resolvers) {
+	    result = result * 31 + classNameHash(resolver);
+	}
+	result = result * 31 + classNameHash(builder.getDefaultPropertyTypeResolver());
+	result = result * 31 + classNameHash(propertyTypeResolver);
+	result = result * 31 + classNameHash(propertyTypeDescriber);
+
+	return result;
+    }
+
+    /**
+     * Returns the stamp of configuration that is included in stamps of xml
+     * files.
+     * 
+     * @return the configuration stamp.
+     */
+    public long getConfigurationStamp() {
+	return configurationStamp;
+    }
+
+    /**
+     * Sets the stamp of configuration that is included in stamps of xml files.
+     * The stamp should change whenever configuration that is not reflected by
+     * classes of resolvers changes, e.g., factories registered in a registry
+     * of property types, so that cache files written with the former
+     * configuration are stale.
+     * 
+     * @param configurationStamp
+     *            the desired configuration stamp.
+     */
+    public void setConfigurationStamp(long configurationStamp) {
+	this.configurationStamp = configurationStamp;
+    }
+
+    /**
+     * Writes a property tree to a file. The tree is written to a temporary
+     * file in the directory of the output file that replaces the output file
+     * when writing is completed. Readers of the output file, including those
+     * that mapped the file to memory, never see a partially written file.
+     * 
+     * @param property
+     *            the root of property tree.
+     * @param sourceStamp
+     *            the stamp identifying version of the source of property
+     *            tree.
+     * @param file
+     *            the output file.
+     * @throws IOException
+     *             if writing failed.
+     */
+    public void write(Property property, long sourceStamp, File file) throws IOException {
+	Path target = file.getAbsoluteFile().toPath();
+	Path temporary = Files.createTempFile(target.getParent(), file.getName() + ".", ".tmp");
+	boolean moved = false;
+	try {
+	    try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+		write(property, sourceStamp, output);
+	    }
+
+	    try {
+		Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+	    } catch (AtomicMoveNotSupportedException e) {
+		Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+	    }
+	    moved = true;
+	} finally {
+	    if (!moved) {
+		try {
+		    Files.deleteIfExists(temporary);
+		} catch (IOException e) {
+		    temporary.toFile().deleteOnExit();
+		}
+	    }
+	}
+    }
+
+    /**
+     * Writes a property tree to a stream. The stream is not closed.
+     * 
+     * @param property
+     *            the root of property tree.
+     * @param sourceStamp
+     *            the stamp identifying version of the source of property
+     *            tree.
+     * @param output
+     *            the output stream.
+     * @throws IOException
+     *             if writing failed.
+     */
+    public void write(Property property, long sourceStamp, OutputStream output)
+	    throws IOException {
+	Map<String, Integer> strings = new LinkedHashMap<String, Integer>();
+	Map<PropertyType, Integer> types = new LinkedHashMap<PropertyType, Integer>();
+
+	// Encode properties, strings and types are collected.
+	ByteArrayOutputStream propertyBytes = new ByteArrayOutputStream();
+	DataOutputStream propertyOutput = new DataOutputStream(propertyBytes);
+	writeProperty(property, propertyOutput, strings, types);
+	propertyOutput.flush();
+
+	// Encode type descriptors.
+	ByteArrayOutputStream typeBytes = new ByteArrayOutputStream();
+	DataOutputStream typeOutput = new DataOutputStream(typeBytes);
+	typeOutput.writeInt(types.size());
+	for (PropertyType type : types.keySet()) {
+	    Map<String, Object> parameters = new TreeMap<String, Object>();
+	    String typeName = (propertyTypeDescriber != null) ? propertyTypeDescriber
+		    .describePropertyType(type, parameters) : null;
+	    if (typeName == null) {
+		throw new RuntimeException("Property type " + type.getClass().getName()
+			+ " cannot be described.");
+	    }
+
+	    typeOutput.writeInt(indexOf(typeName, strings));
+	    typeOutput.writeInt(parameters.size());
+	    for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+		typeOutput.writeInt(indexOf(parameter.getKey(), strings));
+		writeValue(parameter.getValue(), typeOutput, strings);
+	    }
+	}
+	typeOutput.flush();
+
+	// Write header and string table followed by encoded types and
+	// properties.
+	DataOutputStream dataOutput = new DataOutputStream(output);
+	dataOutput.writeInt(MAGIC);
+	dataOutput.writeInt(VERSION);
+	dataOutput.writeLong(sourceStamp);
+
+	List<byte[]> encodedStrings = new ArrayList<byte[]>(strings.size());
+	for (String string : strings.keySet()) {
+	    encodedStrings.add(string.getBytes(StandardCharsets.UTF_8));
+	}
+
+	dataOutput.writeInt(encodedStrings.size());
+	int endOffset = 0;
+	for (byte[] encodedString : encodedStrings) {
+	    endOffset += encodedString.length;
+	    dataOutput.writeInt(endOffset);
+	}
+	for (byte[] encodedString : encodedStrings) {
+	    dataOutput.write(encodedString);
+	}
+
+	typeBytes.writeTo(dataOutput);
+	propertyBytes.writeTo(dataOutput);
+	dataOutput.flush();
+    }
+
+    /**
+     * Reads a property tree from a file. The file is memory-mapped.
+     * 
+     * @param file
+     *            the input file.
+     * @param sourceStamp
+     *            the expected stamp of the source of property tree.
+     * @return the root of property tree or null, if the file is stale, i.e.,
+     *         it was written by a different version of the format or from a
+     *         source with different stamp.
+     * @throws IOException
+     *             if reading failed or the file is not in the binary format.
+     */
+    public Property read(File file, long sourceStamp) throws IOException {
+	ByteBuffer buffer;
+	try (FileInputStream input = new FileInputStream(file)) {
+	    FileChannel channel = input.getChannel();
+	    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+	}
+
+	return read(buffer, sourceStamp);
+    }
+
+    /**
+     * Reads a property tree from a buffer.
+     * 
+     * @param buffer
+     *            the buffer with encoded property tree, reading starts at its
+     *            current position.
+     * @param sourceStamp
+     *            the expected stamp of the source of property tree.
+     * @return the root of property tree or null, if the encoded tree is stale.
+     * @throws IOException
+     *             if the content of buffer is not in the binary format.
+     */
+    public Property read(ByteBuffer buffer, long sourceStamp) throws IOException {
+	buffer = buffer.duplicate();
+	if ((buffer.remaining() < 16) || (buffer.getInt() != MAGIC)) {
+	    throw new IOException("Invalid format of binary properties.");
+	}
+
+	if ((buffer.getInt() != VERSION) || (buffer.getLong() != sourceStamp)) {
+	    return null;
+	}
+
+	StringTable strings = new StringTable(buffer);
+
+	// Resolve property types
+	PropertyType[] types = new PropertyType[buffer.getInt()];
+	for (int i = 0; i < types.length; i++) {
+	    String typeName = strings.get(buffer.getInt());
+	    int parameterCount = buffer.getInt();
+	    Map<String, Object> parameters = new HashMap<String, Object>();
+	    for (int j = 0; j < parameterCount; j++) {
+		String parameterName = strings.get(buffer.getInt());
+		parameters.put(parameterName, readValue(buffer, strings));
+	    }
+
+	    types[i] = (propertyTypeResolver != null) ? propertyTypeResolver
+		    .resolvePropertyType(typeName, parameters) : null;
+	    if (types[i] == null) {
+		throw new IOException("Property type \"" + typeName + "\" cannot be resolved.");
+	    }
+	}
+
+	return readProperty(buffer, strings, types);
+    }
+
+    /**
+     * Writes a property and its subproperties.
+     */
+    private void writeProperty(Property property, DataOutputStream output,
+	    Map<String, Integer> strings, Map<PropertyType, Integer> types) throws IOException {
+	PropertyType type = property.getType();
+	boolean composed = property instanceof ComposedProperty;
+
+	int flags = 0;
+	if (composed) {
+	    flags |= COMPOSED;
+	}
+	if (property.isImportant()) {
+	    flags |= IMPORTANT;
+	}
+	if (property.isReadOnly()) {
+	    flags |= READ_ONLY;
+	}
+	if (type != null) {
+	    flags |= HAS_VALUE;
+	}
+
+	int typeIndex = -1;
+	if (type != null) {
+	    Integer index = types.get(type);
+	    if (index == null) {
+		index = types.size();
+		types.put(type, index);
+	    }
+	    typeIndex = index;
+	}
+
+	output.writeByte(flags);
+	output.writeInt(typeIndex);
+	output.writeInt(indexOf(property.getName(), strings));
+	output.writeInt(indexOf(property.getLabel(), strings));
+	output.writeInt(indexOf(property.getHint(), strings));
+	output.writeInt(indexOf(property.getHintTitle(), strings));
+	if (type != null) {
+	    writeValue(property.getValue(), output, strings);
+	}
+
+	if (composed) {
+	    List<Property> subproperties = ((ComposedProperty) property).getSubproperties();
+	    output.writeInt(subproperties.size());
+	    for (Property subproperty : subproperties) {
+		writeProperty(subproperty, output, strings, types);
+	    }
+	}
+    }
+
+    /**
+     * Reads a property and its subproperties.
+     */
+    private Property readProperty(ByteBuffer buffer, StringTable strings, PropertyType[] types) {
+	int flags = buffer.get();
+	int typeIndex = buffer.getInt();
+	PropertyType type = (typeIndex >= 0) ? types[typeIndex] : null;
+
+	Property result;
+	if ((flags & COMPOSED) != 0) {
+	    result = (type == null) ? new ComposedProperty() : new ComposedProperty(
+		    (ComposedPropertyType) type);
+	} else {
+	    result = new SimpleProperty((SimplePropertyType) type, type.getDefaultValue());
+	}
+
+	result.setName(strings.get(buffer.getInt()));
+	result.setLabel(strings.get(buffer.getInt()));
+	result.setHint(strings.get(buffer.getInt()));
+	result.setHintTitle(strings.get(buffer.getInt()));
+	result.setImportant((flags & IMPORTANT) != 0);
+	result.setReadOnly((flags & READ_ONLY) != 0);
+	if ((flags & HAS_VALUE) != 0) {
+	    result.setValue(readValue(buffer, strings));
+	}
+
+	if ((flags & COMPOSED) != 0) {
+	    int subpropertyCount = buffer.getInt();
+	    List<Property> subproperties = ((ComposedProperty) result).getSubproperties();
+	    for (int i = 0; i < subpropertyCount; i++) {
+		subproperties.add(readProperty(buffer, strings, types));
+	    }
+	}
+
+	return result;
+    }
+
+    /**
+     * Writes a tagged value.
+     */
+    private void writeValue(Object value, DataOutputStream output, Map<String, Integer> strings)
+	    throws IOException {
+	if (value == null) {
+	    output.writeByte(NULL_VALUE);
+	} else if (value instanceof String) {
+	    output.writeByte(STRING_VALUE);
+	    output.writeInt(indexOf((String) value, strings));
+	} else if (value instanceof Boolean) {
+	    output.writeByte(((Boolean) value) ? TRUE_VALUE : FALSE_VALUE);
+	} else if (value instanceof Integer) {
+	    output.writeByte(INTEGER_VALUE);
+	    output.writeInt((Integer) value);
+	} else if (value instanceof Long) {
+	    output.writeByte(LONG_VALUE);
+	    output.writeLong((Long) value);
+	} else if (value instanceof Double) {
+	    output.writeByte(DOUBLE_VALUE);
+	    output.writeDouble((Double) value);
+	} else if (value instanceof Map) {
+	    Map<?, ?> map = (Map<?, ?>) value;
+	    output.writeByte(MAP_VALUE);
+	    output.writeInt(map.size());
+	    for (Map.Entry<?, ?> entry : map.entrySet()) {
+		writeValue(entry.getKey(), output, strings);
+		writeValue(entry.getValue(), output, strings);
+	    }
+	} else if (value instanceof List) {
+	    List<?> list = (List<?>) value;
+	    output.writeByte(LIST_VALUE);
+	    output.writeInt(list.size());
+	    for (Object item : list) {
+		writeValue(item, output, strings);
+	    }
+	} else {
+	    throw new RuntimeException("Value of type " + value.getClass().getName()
+		    + " cannot be written.");
+	}
+    }
+
+    /**
+     * Reads a tagged value.
+     */
+    private Object readValue(ByteBuffer buffer, StringTable strings) {
+	int tag = buffer.get();
+	switch (tag) {
+	case NULL_VALUE:
+	    return null;
+	case STRING_VALUE:
+	    return strings.get(buffer.getInt());
+	case TRUE_VALUE:
+	    return Boolean.TRUE;
+	case FALSE_VALUE:
+	    return Boolean.FALSE;
+	case INTEGER_VALUE:
+	    return buffer.getInt();
+	case LONG_VALUE:
+	    return buffer.getLong();
+	case DOUBLE_VALUE:
+	    return buffer.getDouble();
+	case MAP_VALUE:
+	    int entryCount = buffer.getInt();
+	    Map<Object, Object> map = new LinkedHashMap<Object, Object>();
+	    for (int i = 0; i < entryCount; i++) {
+		Object key = readValue(buffer, strings);
+		map.put(key, readValue(buffer, strings));
+	    }
+	    return map;
+	case LIST_VALUE:
+	    int itemCount = buffer.getInt();
+	    List<Object> list = new ArrayList<Object>(itemCount);
+	    for (int i = 0; i < itemCount; i++) {
+		list.add(readValue(buffer, strings));
+	    }
+	    return list;
+	default:
+	    throw new RuntimeException("Unknown tag of value: " + tag);
+	}
+    }
+
+    /**
+     * Returns hash code of the class name of an object or 0 for null objects.
+     */
+    private static int classNameHash(Object object) {
+	return (object != null) ? object.getClass().getName().hashCode() : 0;
+    }
+
+    /**
+     * Returns index of a string in the string table. Null strings are encoded
+     * as -1.
+     */
+    private static int indexOf(String string, Map<String, Integer> strings) {
+	if (string == null) {
+	    return -1;
+	}
+
+	Integer result = strings.get(string);
+	if (result == null) {
+	    result = strings.size();
+	    strings.put(string, result);
+	}
+
+	return result;
+    }
+}
@@ -62,8 +62,18 @@ public abstract class Property {
      */
     Property(PropertyType type) {
 	this.type = type;
-	this.readOnly = ((this.type == null) || ((this.type != null) && (this.type
-		.getValueEditor(null) == null)));
+	this.readOnly = isReadOnlyByDefault(type);
+    }
+
+    /**
+     * Returns whether properties of given type are read-only by default.
+     * 
+     * @param type
+     *            the type of property.
+     * @return true, if properties of given type are read-only by default.
+     */
+    static boolean isReadOnlyByDefault(PropertyType type) {
+	return (type == null) || type.isReadOnly();
     }
 
     public PropertyType getType() {
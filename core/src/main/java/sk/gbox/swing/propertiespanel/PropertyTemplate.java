@@ -0,0 +1,330 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable template of a property tree. The template consists of resolved
+ * property types and a flat list of instructions in post-order (subproperties
+ * precede their composed property). Instantiation creates a fresh tree of
+ * properties without any access to the source of the template.
+ * 
+ * @see XmlPropertyBuilder#compileTemplate(org.w3c.dom.Document)
+ */
+public final class PropertyTemplate {
+
+    /**
+     * Builder of templates.
+     */
+    static class Builder {
+
+	/**
+	 * Property types of instructions.
+	 */
+	private final List<PropertyType> types = new ArrayList<PropertyType>();
+
+	/**
+	 * Initial values of properties.
+	 */
+	private final List<Object> initialValues = new ArrayList<Object>();
+
+	/**
+	 * Names of properties.
+	 */
+	private final List<String> names = new ArrayList<String>();
+
+	/**
+	 * Labels of properties.
+	 */
+	private final List<String> labels = new ArrayList<String>();
+
+	/**
+	 * Hints of properties.
+	 */
+	private final List<String> hints = new ArrayList<String>();
+
+	/**
+	 * Titles of hints.
+	 */
+	private final List<String> hintTitles = new ArrayList<String>();
+
+	/**
+	 * Flags of properties.
+	 */
+	private final List<Byte> flags = new ArrayList<Byte>();
+
+	/**
+	 * Number of subproperties of composed properties, -1 for simple
+	 * properties.
+	 */
+	private final List<Integer> subpropertyCounts = new ArrayList<Integer>();
+
+	/**
+	 * Number of properties on the stack after executing added
+	 * instructions.
+	 */
+	private int stackSize;
+
+	/**
+	 * Maximal number of properties on the stack.
+	 */
+	private int maxStackSize;
+
+	/**
+	 * Adds instruction creating a property. If the property is composed,
+	 * the last subpropertyCount created properties become its
+	 * subproperties.
+	 * 
+	 * @param type
+	 *            the type of property.
+	 * @param subpropertyCount
+	 *            the number of subproperties or -1 for simple properties.
+	 * @param initialValue
+	 *            the initial value of property.
+	 * @param name
+	 *            the name of property.
+	 * @param label
+	 *            the label of property.
+	 * @param hint
+	 *            the hint of property.
+	 * @param hintTitle
+	 *            the title of hint.
+	 * @param important
+	 *            true, if the property is important.
+	 * @param readOnly
+	 *            the read-only flag or null, if the flag is determined by
+	 *            the type.
+	 */
+	void addProperty(PropertyType type, int subpropertyCount, Object initialValue, String name,
+		String label, String hint, String hintTitle, boolean important, Boolean readOnly) {
+	    if (subpropertyCount > stackSize) {
+		throw new IllegalStateException("Missing subproperties.");
+	    }
+
+	    byte propertyFlags = 0;
+	    if (important) {
+		propertyFlags |= IMPORTANT;
+	    }
+
+	    if (readOnly != null) {
+		propertyFlags |= READ_ONLY_SET;
+		if (readOnly) {
+		    propertyFlags |= READ_ONLY;
+		}
+	    }
+
+	    types.add(type);
+	    initialValues.add(initialValue);
+	    names.add(name);
+	    labels.add(label);
+	    hints.add(hint);
+	    hintTitles.add(hintTitle);
+	    flags.add(propertyFlags);
+	    subpropertyCounts.add(subpropertyCount);
+
+	    stackSize = stackSize - Math.max(subpropertyCount, 0) + 1;
+	    maxStackSize = Math.max(maxStackSize, stackSize);
+	}
+
+	/**
+	 * Adds instructions of a template creating a single property. Selected
+	 * attributes of the created property can be overridden.
+	 * 
+	 * @param template
+	 *            the template.
+	 * @param nameOverridden
+	 *            true, if the name of property is overridden.
+	 * @param name
+	 *            the overriding name of property.
+	 * @param label
+	 *            the overriding label or null, if the label is not
+	 *            overridden.
+	 * @param hint
+	 *            the overriding hint or null, if the hint is not overridden.
+	 * @param hintTitle
+	 *            the overriding title of hint or null, if the title is not
+	 *            overridden.
+	 */
+	void addTemplate(PropertyTemplate template, boolean nameOverridden, String name,
+		String label, String hint, String hintTitle) {
+	    int first = types.size();
+	    for (int i = 0; i < template.types.length; i++) {
+		types.add(template.types[i]);
+		initialValues.add(template.initialValues[i]);
+		names.add(template.names[i]);
+		labels.add(template.labels[i]);
+		hints.add(template.hints[i]);
+		hintTitles.add(template.hintTitles[i]);
+		flags.add(template.flags[i]);
+		subpropertyCounts.add(template.subpropertyCounts[i]);
+	    }
+
+	    // The root property is created by the last instruction.
+	    int root = first + template.types.length - 1;
+	    if (nameOverridden) {
+		names.set(root, name);
+	    }
+	    if (label != null) {
+		labels.set(root, label);
+	    }
+	    if (hint != null) {
+		hints.set(root, hint);
+	    }
+	    if (hintTitle != null) {
+		hintTitles.set(root, hintTitle);
+	    }
+
+	    maxStackSize = Math.max(maxStackSize, stackSize + template.maxStackSize);
+	    stackSize++;
+	    maxStackSize = Math.max(maxStackSize, stackSize);
+	}
+
+	/**
+	 * Creates the template. Instructions must create exactly one root
+	 * property.
+	 * 
+	 * @return the template.
+	 */
+	PropertyTemplate build() {
+	    if (stackSize != 1) {
+		throw new IllegalStateException("Template must define exactly one root property.");
+	    }
+
+	    return new PropertyTemplate(this);
+	}
+    }
+
+    /**
+     * Flag of important properties.
+     */
+    private static final byte IMPORTANT = 1;
+
+    /**
+     * Flag indicating that the read-only flag is explicitly set.
+     */
+    private static final byte READ_ONLY_SET = 2;
+
+    /**
+     * Flag of read-only properties.
+     */
+    private static final byte READ_ONLY = 4;
+
+    /**
+     * Property types of instructions.
+     */
+    private final PropertyType[] types;
+
+    /**
+     * Initial values of properties.
+     */
+    private final Object[] initialValues;
+
+    /**
+     * Names of properties.
+     */
+    private final String[] names;
+
+    /**
+     * Labels of properties.
+     */
+    private final String[] labels;
+
+    /**
+     * Hints of properties.
+     */
+    private final String[] hints;
+
+    /**
+     * Titles of hints.
+     */
+    private final String[] hintTitles;
+
+    /**
+     * Flags of properties.
+     */
+    private final byte[] flags;
+
+    /**
+     * Number of subproperties of composed properties, -1 for simple
+     * properties.
+     */
+    private final int[] subpropertyCounts;
+
+    /**
+     * Size of the stack required for instantiation.
+     */
+    private final int maxStackSize;
+
+    /**
+     * Constructs the template from a builder.
+     */
+    private PropertyTemplate(Builder builder) {
+	int size = builder.types.size();
+	types = builder.types.toArray(new PropertyType[size]);
+	initialValues = builder.initialValues.toArray();
+	names = builder.names.toArray(new String[size]);
+	labels = builder.labels.toArray(new String[size]);
+	hints = builder.hints.toArray(new String[size]);
+	hintTitles = builder.hintTitles.toArray(new String[size]);
+	flags = new byte[size];
+	subpropertyCounts = new int[size];
+	for (int i = 0; i < size; i++) {
+	    flags[i] = builder.flags.get(i);
+	    subpropertyCounts[i] = builder.subpropertyCounts.get(i);
+	}
+	maxStackSize = builder.maxStackSize;
+    }
+
+    /**
+     * Creates a new tree of properties according to the template.
+     * 
+     * @return the root property.
+     */
+    public Property instantiate() {
+	Property[] stack = new Property[maxStackSize];
+	int stackSize = 0;
+	for (int i = 0; i < types.length; i++) {
+	    PropertyType type = types[i];
+	    int subpropertyCount = subpropertyCounts[i];
+
+	    Property property;
+	    if (subpropertyCount < 0) {
+		property = new SimpleProperty((SimplePropertyType) type, initialValues[i]);
+	    } else {
+		ComposedProperty composedProperty = (type == null) ? new ComposedProperty()
+			: new ComposedProperty((ComposedPropertyType) type, initialValues[i]);
+
+		List<Property> subproperties = composedProperty.getSubproperties();
+		for (int j = stackSize - subpropertyCount; j < stackSize; j++) {
+		    subproperties.add(stack[j]);
+		    stack[j] = null;
+		}
+		stackSize -= subpropertyCount;
+		property = composedProperty;
+	    }
+
+	    property.setName(names[i]);
+	    property.setImportant((flags[i] & IMPORTANT) != 0);
+	    if ((flags[i] & READ_ONLY_SET) != 0) {
+		property.setReadOnly((flags[i] & READ_ONLY) != 0);
+	    }
+	    property.setLabel(labels[i]);
+	    property.setHint(hints[i]);
+	    property.setHintTitle(hintTitles[i]);
+
+	    stack[stackSize] = property;
+	    stackSize++;
+	}
+
+	return stack[0];
+    }
+
+    /**
+     * Returns the number of properties created by each instantiation.
+     * 
+     * @return the number of properties.
+     */
+    public int getPropertyCount() {
+	return types.length;
+    }
+}
@@ -0,0 +1,200 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.util.*;
+
+import sk.gbox.swing.propertiespanel.BinaryPropertyFormat.PropertyTypeDescriber;
+
+/**
+ * Merges a new definition of a property tree into a live property tree.
+ * Properties are matched by their name paths, siblings with the same name and
+ * unnamed siblings are matched by their order. A matched property is kept if its
+ * type is unchanged and only its metadata are updated. Types are unchanged if
+ * they are equal or, if a {@link PropertyTypeDescriber} is given, if they are
+ * of the same class and have equal descriptions. Otherwise the property is
+ * replaced by the property from the new definition and the current value is
+ * transferred to the new property, if it is assignable to the new type.
+ * Subproperties of a replaced composed property are merged into subproperties
+ * of its replacement.
+ */
+public final class PropertyTreeMerger {
+
+    private PropertyTreeMerger() {
+
+    }
+
+    /**
+     * Merges a new definition of a property tree into a live property tree.
+     * Properties of the new definition that are used in the live tree are
+     * detached from the definition.
+     * 
+     * @param target
+     *            the live composed property.
+     * @param definition
+     *            the composed property with the new definition.
+     * @return true, if the structure of the live tree changed, i.e., a
+     *         property was added, removed, replaced or moved.
+     */
+    public static boolean merge(ComposedProperty target, ComposedProperty definition) {
+	return merge(target, definition, null);
+    }
+
+    /**
+     * Merges a new definition of a property tree into a live property tree.
+     * Properties of the new definition that are used in the live tree are
+     * detached from the definition.
+     * 
+     * @param target
+     *            the live composed property.
+     * @param definition
+     *            the composed property with the new definition.
+     * @param describer
+     *            the describer used to compare property types that are not
+     *            equal or null, if only equal types are unchanged.
+     * @return true, if the structure of the live tree changed, i.e., a
+     *         property was added, removed, replaced or moved.
+     */
+    public static boolean merge(ComposedProperty target, ComposedProperty definition,
+	    PropertyTypeDescriber describer) {
+	copyMetadata(definition, target);
+	return mergeSubproperties(target, definition, describer);
+    }
+
+    /**
+     * Merges subproperties of a composed property.
+     */
+    private static boolean mergeSubproperties(ComposedProperty target,
+	    ComposedProperty definition, PropertyTypeDescriber describer) {
+	// Index current subproperties by their names, siblings with the same
+	// name (or without name) are kept in their order
+	Map<String, Deque<Property>> currentProperties = new HashMap<String, Deque<Property>>();
+	for (Property subproperty : target.getSubproperties()) {
+	    Deque<Property> namesakes = currentProperties.get(subproperty.getName());
+	    if (namesakes == null) {
+		namesakes = new ArrayDeque<Property>();
+		currentProperties.put(subproperty.getName(), namesakes);
+	    }
+	    namesakes.add(subproperty);
+	}
+
+	// Create merged list of subproperties, each current subproperty is
+	// matched at most once
+	boolean structureChanged = false;
+	List<Property> mergedProperties = new ArrayList<Property>();
+	for (Property newProperty : new ArrayList<Property>(definition.getSubproperties())) {
+	    Deque<Property> namesakes = currentProperties.get(newProperty.getName());
+	    Property currentProperty = (namesakes != null) ? namesakes.poll() : null;
+	    if ((currentProperty != null) && isKeepable(currentProperty, newProperty, describer)) {
+		copyMetadata(newProperty, currentProperty);
+		if (currentProperty instanceof ComposedProperty) {
+		    structureChanged |= mergeSubproperties((ComposedProperty) currentProperty,
+			    (ComposedProperty) newProperty, describer);
+		}
+		mergedProperties.add(currentProperty);
+	    } else {
+		if (currentProperty != null) {
+		    transferValue(currentProperty, newProperty);
+		    if ((currentProperty instanceof ComposedProperty)
+			    && (newProperty instanceof ComposedProperty)) {
+			// Merge live subproperties and move them to the
+			// replacement
+			ComposedProperty replaced = (ComposedProperty) currentProperty;
+			mergeSubproperties(replaced, (ComposedProperty) newProperty, describer);
+			replaceSubproperties((ComposedProperty) newProperty,
+				new ArrayList<Property>(replaced.getSubproperties()));
+		    }
+		}
+		mergedProperties.add(newProperty);
+	    }
+	}
+
+	// Replace subproperties if the list changed
+	if (!mergedProperties.equals(target.getSubproperties())) {
+	    replaceSubproperties(target, mergedProperties);
+	    structureChanged = true;
+	}
+
+	return structureChanged;
+    }
+
+    /**
+     * Replaces subproperties of a composed property. Subproperties are removed
+     * from the end to avoid shifting of the remaining ones.
+     */
+    private static void replaceSubproperties(ComposedProperty target, List<Property> properties) {
+	List<Property> subproperties = target.getSubproperties();
+	for (int i = subproperties.size() - 1; i >= 0; i--) {
+	    subproperties.remove(i);
+	}
+	subproperties.addAll(properties);
+    }
+
+    /**
+     * Returns whether a live property can be kept for a new definition of the
+     * property.
+     */
+    private static boolean isKeepable(Property currentProperty, Property newProperty,
+	    PropertyTypeDescriber describer) {
+	if (currentProperty.getClass() != newProperty.getClass()) {
+	    return false;
+	}
+
+	PropertyType currentType = currentProperty.getType();
+	PropertyType newType = newProperty.getType();
+	if (currentType == newType) {
+	    return true;
+	}
+
+	if ((currentType == null) || (newType == null)
+		|| (currentType.getClass() != newType.getClass())) {
+	    return false;
+	}
+
+	if (currentType.equals(newType)) {
+	    return true;
+	}
+
+	if (describer == null) {
+	    return false;
+	}
+
+	Map<String, Object> currentParameters = new HashMap<String, Object>();
+	Map<String, Object> newParameters = new HashMap<String, Object>();
+	String currentName = describer.describePropertyType(currentType, currentParameters);
+	String newName = describer.describePropertyType(newType, newParameters);
+	return (currentName != null) && currentName.equals(newName)
+		&& currentParameters.equals(newParameters);
+    }
+
+    /**
+     * Copies metadata (all attributes except name, type and value) of a
+     * property. The read-only flag is cleared only if the type of target
+     * property allows editing.
+     */
+    private static void copyMetadata(Property source, Property target) {
+	target.setLabel(source.getLabel());
+	target.setHint(source.getHint());
+	target.setHintTitle(source.getHintTitle());
+	target.setImportant(source.isImportant());
+
+	PropertyType type = target.getType();
+	if (source.isReadOnly() || ((type != null) && !type.isReadOnly())) {
+	    target.setReadOnly(source.isReadOnly());
+	}
+    }
+
+    /**
+     * Transfers value of a replaced property to its replacement, if the value
+     * is assignable to the type of replacement.
+     */
+    private static void transferValue(Property currentProperty, Property newProperty) {
+	PropertyType newType = newProperty.getType();
+	if ((currentProperty.getType() == null) || (newType == null)) {
+	    return;
+	}
+
+	Object value = currentProperty.getValue();
+	if (newType.isAssignableValue(value)) {
+	    newProperty.setValue(value);
+	}
+    }
+}
@@ -0,0 +1,52 @@
+package sk.gbox.swing.propertiespanel;
+
+/**
+ * Base class for property types. Any subclass of the property type is
+ * recommended to be immutable. Property types define semantics of values only,
+ * cell renderers and editors of values are provided by the user interface (see
+ * PropertyTypeUI in the properties panel module).
+ */
+public abstract class PropertyType {
+
+    /**
+     * Returns whether values of this property type are read-only.
+     * 
+     * @return true, if values of this property type are read-only. If the
+     *         property type is not read-only, the user interface must provide
+     *         value editor for the property type.
+     */
+    public abstract boolean isReadOnly();
+
+    /**
+     * Returns whether given value is assignable value for the property type.
+     * 
+     * @param value
+     *            the value to be checked.
+     * @return true, if the value is assignable for the property type, false
+     *         otherwise.
+     */
+    public abstract boolean isAssignableValue(Object value);
+
+    /**
+     * Converts assignable value to value that is internally valid for the
+     * property type. For instance, string value can be assignable, but
+     * internally invalid. The method is not required to check, whether the
+     * value is assignable.
+     * 
+     * @param value
+     *            the assignable value.
+     * @return the internally valid value.
+     */
+    public Object convertAssignableToValidValue(Object value) {
+	return value;
+    }
+
+    /**
+     * Returns default value for property type.
+     * 
+     * @return the default value for properties of this type.
+     */
+    public Object getDefaultValue() {
+	return null;
+    }
+}
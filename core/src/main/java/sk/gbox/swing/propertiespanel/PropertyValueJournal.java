@@ -0,0 +1,577 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Persistence of property values based on an append-only journal. Value
+ * changes of properties in a model are appended to the journal file by a
+ * background writer. The journal is periodically compacted to a snapshot file
+ * with the latest value of each changed property. When the journal is opened,
+ * values stored in the snapshot and in the journal are replayed to the model.
+ * 
+ * Properties are identified by paths of their names from the model. Unnamed
+ * properties are identified by their index in the parent property prefixed by
+ * '#'. Only values of types String, Boolean, Integer, Long and Double
+ * (including null) are stored, changes of values of other types are ignored.
+ */
+public class PropertyValueJournal {
+
+    /**
+     * Magic number identifying the snapshot and journal files.
+     */
+    private static final int MAGIC = 0x50504A4E;
+
+    /**
+     * Version of the format of files.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Tag of null values.
+     */
+    private static final int NULL_VALUE = 0;
+
+    /**
+     * Tag of string values.
+     */
+    private static final int STRING_VALUE = 1;
+
+    /**
+     * Tag of true boolean values.
+     */
+    private static final int TRUE_VALUE = 2;
+
+    /**
+     * Tag of false boolean values.
+     */
+    private static final int FALSE_VALUE = 3;
+
+    /**
+     * Tag of integer values.
+     */
+    private static final int INTEGER_VALUE = 4;
+
+    /**
+     * Tag of long values.
+     */
+    private static final int LONG_VALUE = 5;
+
+    /**
+     * Tag of double values.
+     */
+    private static final int DOUBLE_VALUE = 6;
+
+    /**
+     * Model whose values are persisted.
+     */
+    private final ComposedProperty model;
+
+    /**
+     * File with snapshot of values.
+     */
+    private final File snapshotFile;
+
+    /**
+     * File with journal of value changes.
+     */
+    private final File journalFile;
+
+    /**
+     * Number of journal records after which the journal is compacted.
+     */
+    private volatile int compactionThreshold = 1000;
+
+    /**
+     * Latest values of changed properties mapped by paths of properties. The
+     * map is accessed only by the writer.
+     */
+    private final Map<List<String>, Object> values = new LinkedHashMap<List<String>, Object>();
+
+    /**
+     * Number of records in the journal file.
+     */
+    private int journalRecordCount;
+
+    /**
+     * Output stream of the journal file or null, if the journal is not open.
+     */
+    private DataOutputStream journalOutput;
+
+    /**
+     * Executor of the background writer or null, if the journal is not open.
+     */
+    private ExecutorService writer;
+
+    /**
+     * The first failure of the background writer.
+     */
+    private volatile IOException writeFailure;
+
+    /**
+     * Listener appending value changes to the journal.
+     */
+    private final PropertyListener valueListener = new PropertyAdapter() {
+	@Override
+	public void propertyValueChanged(Property property) {
+	    if ((property.getType() == null) || (!isStorableValue(property.getValue()))) {
+		return;
+	    }
+
+	    List<String> path = getPath(property);
+	    if (path != null) {
+		appendRecord(path, property.getValue());
+	    }
+	}
+    };
+
+    /**
+     * Constructs the journal of values of a model.
+     * 
+     * @param model
+     *            the model whose values are persisted.
+     * @param snapshotFile
+     *            the file with snapshot of values.
+     * @param journalFile
+     *            the file with journal of value changes.
+     */
+    public PropertyValueJournal(ComposedProperty model, File snapshotFile, File journalFile) {
+	if ((model == null) || (snapshotFile == null) || (journalFile == null)) {
+	    throw new NullPointerException("Model and files must be set.");
+	}
+
+	this.model = model;
+	this.snapshotFile = snapshotFile;
+	this.journalFile = journalFile;
+    }
+
+    /**
+     * Opens the journal. Values stored in the snapshot and journal files are
+     * replayed to the model and subsequent value changes are appended to the
+     * journal.
+     * 
+     * @throws IOException
+     *             if the files cannot be read or the journal cannot be opened
+     *             for writing.
+     */
+    public synchronized void open() throws IOException {
+	if (writer != null) {
+	    throw new IllegalStateException("The journal is already open.");
+	}
+
+	values.clear();
+	writeFailure = null;
+	boolean complete = replay(snapshotFile) & replay(journalFile);
+
+	// Files with incomplete or corrupted records or records of other format
+	// are compacted, otherwise new records are appended.
+	if (complete && journalFile.isFile()) {
+	    journalOutput = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(
+		    journalFile, true)));
+	} else {
+	    writeSnapshot();
+	    journalOutput = createJournal();
+	}
+
+	writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+	    @Override
+	    public Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, "PropertyValueJournal writer");
+		thread.setDaemon(true);
+		return thread;
+	    }
+	});
+
+	model.addPropertyListener(valueListener);
+    }
+
+    /**
+     * Closes the journal. Pending records are written and the journal is
+     * compacted to the snapshot.
+     * 
+     * @throws IOException
+     *             if writing of records or compaction failed.
+     */
+    public synchronized void close() throws IOException {
+	if (writer == null) {
+	    return;
+	}
+
+	model.removePropertyListener(valueListener);
+	ExecutorService closedWriter = writer;
+	writer = null;
+	closedWriter.execute(new Runnable() {
+	    @Override
+	    public void run() {
+		try {
+		    compactJournal();
+		} catch (IOException e) {
+		    handleWriteFailure(e);
+		} finally {
+		    try {
+			if (journalOutput != null) {
+			    journalOutput.close();
+			}
+		    } catch (IOException e) {
+			handleWriteFailure(e);
+		    }
+		    journalOutput = null;
+		}
+	    }
+	});
+	closedWriter.shutdown();
+
+	try {
+	    closedWriter.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    throw new InterruptedIOException("Closing of journal was interrupted.");
+	}
+
+	if (writeFailure != null) {
+	    throw writeFailure;
+	}
+    }
+
+    /**
+     * Requests compaction of the journal to the snapshot. The compaction is
+     * executed by the background writer.
+     */
+    public synchronized void compact() {
+	if (writer == null) {
+	    return;
+	}
+
+	writer.execute(new Runnable() {
+	    @Override
+	    public void run() {
+		try {
+		    compactJournal();
+		} catch (IOException e) {
+		    handleWriteFailure(e);
+		}
+	    }
+	});
+    }
+
+    /**
+     * Returns the number of journal records after which the journal is
+     * compacted.
+     * 
+     * @return the number of records.
+     */
+    public int getCompactionThreshold() {
+	return compactionThreshold;
+    }
+
+    /**
+     * Sets the number of journal records after which the journal is compacted.
+     * 
+     * @param compactionThreshold
+     *            the desired number of records.
+     */
+    public void setCompactionThreshold(int compactionThreshold) {
+	if (compactionThreshold < 1) {
+	    throw new IllegalArgumentException("Compaction threshold must be positive.");
+	}
+
+	this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Returns the first failure of the background writer.
+     * 
+     * @return the failure or null, if all records were written successfully.
+     */
+    public IOException getWriteFailure() {
+	return writeFailure;
+    }
+
+    // -----------------------------------------------------------------
+    // Writer
+    // -----------------------------------------------------------------
+
+    /**
+     * Schedules appending of a record to the journal.
+     */
+    private synchronized void appendRecord(final List<String> path, final Object value) {
+	if (writer == null) {
+	    return;
+	}
+
+	writer.execute(new Runnable() {
+	    @Override
+	    public void run() {
+		try {
+		    values.remove(path);
+		    values.put(path, value);
+		    if (journalOutput == null) {
+			return;
+		    }
+
+		    writeRecord(journalOutput, path, value);
+		    journalRecordCount++;
+		    if (journalRecordCount >= compactionThreshold) {
+			compactJournal();
+		    } else {
+			journalOutput.flush();
+		    }
+		} catch (IOException e) {
+		    handleWriteFailure(e);
+		}
+	    }
+	});
+    }
+
+    /**
+     * Writes the latest values to the snapshot and truncates the journal.
+     */
+    private void compactJournal() throws IOException {
+	if (journalOutput != null) {
+	    journalOutput.close();
+	    journalOutput = null;
+	}
+
+	writeSnapshot();
+	journalOutput = createJournal();
+    }
+
+    /**
+     * Writes the latest values to the snapshot file. The snapshot is written
+     * to a temporary file that replaces the snapshot file.
+     */
+    private void writeSnapshot() throws IOException {
+	File tmpFile = new File(snapshotFile.getPath() + ".tmp");
+	try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+		new FileOutputStream(tmpFile)))) {
+	    output.writeInt(MAGIC);
+	    output.writeInt(VERSION);
+	    for (Map.Entry<List<String>, Object> entry : values.entrySet()) {
+		writeRecord(output, entry.getKey(), entry.getValue());
+	    }
+	}
+
+	try {
+	    Files.move(tmpFile.toPath(), snapshotFile.toPath(),
+		    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	} catch (AtomicMoveNotSupportedException e) {
+	    Files.move(tmpFile.toPath(), snapshotFile.toPath(),
+		    StandardCopyOption.REPLACE_EXISTING);
+	}
+    }
+
+    /**
+     * Creates an empty journal file.
+     */
+    private DataOutputStream createJournal() throws IOException {
+	DataOutputStream result = new DataOutputStream(new BufferedOutputStream(
+		new FileOutputStream(journalFile)));
+	result.writeInt(MAGIC);
+	result.writeInt(VERSION);
+	result.flush();
+	journalRecordCount = 0;
+	return result;
+    }
+
+    /**
+     * Stores the first failure of the background writer.
+     */
+    private void handleWriteFailure(IOException e) {
+	if (writeFailure == null) {
+	    writeFailure = e;
+	}
+    }
+
+    /**
+     * Writes a record with value of a property.
+     */
+    private static void writeRecord(DataOutputStream output, List<String> path, Object value)
+	    throws IOException {
+	output.writeShort(path.size());
+	for (String segment : path) {
+	    output.writeUTF(segment);
+	}
+
+	if (value == null) {
+	    output.writeByte(NULL_VALUE);
+	} else if (value instanceof String) {
+	    output.writeByte(STRING_VALUE);
+	    output.writeUTF((String) value);
+	} else if (value instanceof Boolean) {
+	    output.writeByte(((Boolean) value) ? TRUE_VALUE : FALSE_VALUE);
+	} else if (value instanceof Integer) {
+	    output.writeByte(INTEGER_VALUE);
+	    output.writeInt((Integer) value);
+	} else if (value instanceof Long) {
+	    output.writeByte(LONG_VALUE);
+	    output.writeLong((Long) value);
+	} else {
+	    output.writeByte(DOUBLE_VALUE);
+	    output.writeDouble((Double) value);
+	}
+    }
+
+    // -----------------------------------------------------------------
+    // Replay
+    // -----------------------------------------------------------------
+
+    /**
+     * Replays records of a file to the model.
+     * 
+     * @return true, if the file does not exist or all its records were read,
+     *         false, if the file contains an incomplete or corrupted record.
+     *         Records following such a record are not replayed.
+     */
+    private boolean replay(File file) throws IOException {
+	if (!file.isFile()) {
+	    return true;
+	}
+
+	try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+		new FileInputStream(file)))) {
+	    if ((input.readInt() != MAGIC) || (input.readInt() != VERSION)) {
+		return false;
+	    }
+
+	    while (true) {
+		int segmentCount;
+		try {
+		    segmentCount = input.readUnsignedShort();
+		} catch (EOFException e) {
+		    return true;
+		}
+
+		List<String> path = new ArrayList<String>(segmentCount);
+		for (int i = 0; i < segmentCount; i++) {
+		    path.add(input.readUTF());
+		}
+
+		Object value = readValue(input);
+		Property property = findProperty(path);
+		if (property == null) {
+		    continue;
+		}
+
+		try {
+		    property.setValue(value);
+		    values.remove(path);
+		    values.put(path, value);
+		} catch (RuntimeException ignore) {
+		    // Values that are not valid for the current model are
+		    // dropped.
+		}
+	    }
+	} catch (EOFException | StreamCorruptedException | UTFDataFormatException e) {
+	    return false;
+	}
+    }
+
+    /**
+     * Reads a tagged value.
+     */
+    private static Object readValue(DataInputStream input) throws IOException {
+	int tag = input.readByte();
+	switch (tag) {
+	case NULL_VALUE:
+	    return null;
+	case STRING_VALUE:
+	    return input.readUTF();
+	case TRUE_VALUE:
+	    return Boolean.TRUE;
+	case FALSE_VALUE:
+	    return Boolean.FALSE;
+	case INTEGER_VALUE:
+	    return input.readInt();
+	case LONG_VALUE:
+	    return input.readLong();
+	case DOUBLE_VALUE:
+	    return input.readDouble();
+	default:
+	    throw new StreamCorruptedException("Unknown tag of value: " + tag);
+	}
+    }
+
+    // -----------------------------------------------------------------
+    // Paths of properties
+    // -----------------------------------------------------------------
+
+    /**
+     * Returns path of a property in the model.
+     * 
+     * @return the path or null, if the property is not a descendant of the
+     *         model.
+     */
+    private List<String> getPath(Property property) {
+	LinkedList<String> result = new LinkedList<String>();
+	while (property != model) {
+	    ComposedProperty parent = property.getParent();
+	    if (parent == null) {
+		return null;
+	    }
+
+	    String name = property.getName();
+	    if (name == null) {
+		name = "#" + parent.getSubproperties().indexOf(property);
+	    }
+
+	    result.addFirst(name);
+	    property = parent;
+	}
+
+	return new ArrayList<String>(result);
+    }
+
+    /**
+     * Returns the property with given path in the model.
+     * 
+     * @return the property or null, if there is no such property.
+     */
+    private Property findProperty(List<String> path) {
+	Property result = model;
+	for (String segment : path) {
+	    if (!(result instanceof ComposedProperty)) {
+		return null;
+	    }
+
+	    List<Property> subproperties = ((ComposedProperty) result).getSubproperties();
+	    result = null;
+	    if (segment.startsWith("#")) {
+		try {
+		    int index = Integer.parseInt(segment.substring(1));
+		    if ((index >= 0) && (index < subproperties.size())
+			    && (subproperties.get(index).getName() == null)) {
+			result = subproperties.get(index);
+		    }
+		} catch (NumberFormatException ignore) {
+		    // Invalid index, property not found.
+		}
+	    }
+
+	    if (result == null) {
+		for (Property subproperty : subproperties) {
+		    if (segment.equals(subproperty.getName())) {
+			result = subproperty;
+			break;
+		    }
+		}
+	    }
+
+	    if (result == null) {
+		return null;
+	    }
+	}
+
+	return result;
+    }
+
+    /**
+     * Returns whether a value can be stored in the journal.
+     */
+    private static boolean isStorableValue(Object value) {
+	return (value == null) || (value instanceof String) || (value instanceof Boolean)
+		|| (value instanceof Integer) || (value instanceof Long)
+		|| (value instanceof Double);
+    }
+}
@@ -0,0 +1,1629 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.*;
+
+import org.w3c.dom.*;
+
+/**
+ * Simple builder of properties from an xml configuration.
+ */
+public class XmlPropertyBuilder {
+
+    @SuppressWarnings("serial")
+    public static class InvalidConfigurationException extends RuntimeException {
+
+	public InvalidConfigurationException(String message, Throwable cause) {
+	    super(message, cause);
+	}
+
+	public InvalidConfigurationException(String message) {
+	    this(message, null);
+	}
+    }
+
+    /**
+     * Interface for resolvers of property types.
+     */
+    public interface PropertyTypeResolver {
+
+	/**
+	 * Returns instance of property type identified by given name and
+	 * constructed with respect to given configuration parameters.
+	 * 
+	 * @param name
+	 *            the name of property type.
+	 * @param parameters
+	 *            the parameters of property type.
+	 * @return the property type, or null, if the specified property type
+	 *         cannot be resolved.
+	 */
+	public PropertyType resolvePropertyType(String name, Map<String, Object> parameters);
+    }
+
+    /**
+     * Declaration of a property read from an xml configuration.
+     */
+    private static class PropertyDeclaration {
+
+	/**
+	 * Name of the property.
+	 */
+	String name = "";
+
+	/**
+	 * Name of the property type.
+	 */
+	String typeName = "";
+
+	/**
+	 * Parameters of the property type.
+	 */
+	Map<String, Object> typeParameters = Collections.emptyMap();
+
+	/**
+	 * Indicates whether the property has subproperties.
+	 */
+	boolean composed;
+
+	/**
+	 * Indicates whether the property is important.
+	 */
+	boolean important;
+
+	/**
+	 * Indicates whether the property is read-only, null if not specified.
+	 */
+	Boolean readOnly;
+
+	/**
+	 * Label of the property.
+	 */
+	String label = "";
+
+	/**
+	 * Hint of the property.
+	 */
+	String hint = "";
+
+	/**
+	 * Title of the hint.
+	 */
+	String hintTitle;
+
+	/**
+	 * Indicates whether the initial value of property is declared.
+	 */
+	boolean valueDeclared;
+
+	/**
+	 * Declared initial value of the property.
+	 */
+	String value;
+
+	/**
+	 * Creates declaration of a composed property that serves as a container
+	 * of properties.
+	 * 
+	 * @param label
+	 *            the label of container or null.
+	 * @param hint
+	 *            the hint of container or null.
+	 * @return the declaration.
+	 */
+	static PropertyDeclaration createContainer(String label, String hint) {
+	    PropertyDeclaration result = new PropertyDeclaration();
+	    result.composed = true;
+	    result.label = label;
+	    result.hint = hint;
+	    return result;
+	}
+    }
+
+    /**
+     * Assembler of properties or their representations from declarations.
+     * Declarations are passed in the post-order, i.e., when all subproperties
+     * of the declared property are assembled.
+     * 
+     * @param <T>
+     *            the type of assembled objects.
+     */
+    private abstract class PropertyAssembler<T> {
+
+	/**
+	 * Compiled definitions of shared fragments mapped by their identifiers.
+	 */
+	final Map<String, PropertyTemplate> definitions;
+
+	/**
+	 * Constructs assembler with empty set of definitions.
+	 */
+	PropertyAssembler() {
+	    this(new HashMap<String, PropertyTemplate>());
+	}
+
+	/**
+	 * Constructs assembler sharing definitions of fragments.
+	 */
+	PropertyAssembler(Map<String, PropertyTemplate> definitions) {
+	    this.definitions = definitions;
+	}
+
+	/**
+	 * Assembles a property.
+	 * 
+	 * @param declaration
+	 *            the declaration of property.
+	 * @param subproperties
+	 *            the assembled subproperties in the document order or null,
+	 *            if the property is a simple property.
+	 * @return the assembled property.
+	 */
+	abstract T assemble(PropertyDeclaration declaration, List<T> subproperties);
+
+	/**
+	 * Assembles a property referencing a definition of shared fragment.
+	 * 
+	 * @param definition
+	 *            the compiled definition.
+	 * @param overrides
+	 *            the declaration with overridden name, label, hint and title
+	 *            of hint, null values are not overridden.
+	 * @return the assembled property.
+	 */
+	abstract T assembleReference(PropertyTemplate definition, PropertyDeclaration overrides);
+    }
+
+    /**
+     * Assembler of properties.
+     */
+    private class PropertyInstanceAssembler extends PropertyAssembler<Property> {
+
+	@Override
+	Property assemble(PropertyDeclaration declaration, List<Property> subproperties) {
+	    Property result = instantiateProperty(declaration);
+	    if (subproperties != null) {
+		((ComposedProperty) result).getSubproperties().addAll(subproperties);
+	    }
+
+	    return result;
+	}
+
+	@Override
+	Property assembleReference(PropertyTemplate definition, PropertyDeclaration overrides) {
+	    Property result = definition.instantiate();
+	    if (overrides.name != null) {
+		result.setName(overrides.name.isEmpty() ? null : overrides.name);
+	    }
+	    if (overrides.label != null) {
+		result.setLabel(overrides.label);
+	    }
+	    if (overrides.hint != null) {
+		result.setHint(overrides.hint);
+	    }
+	    if (overrides.hintTitle != null) {
+		result.setHintTitle(overrides.hintTitle);
+	    }
+
+	    return result;
+	}
+    }
+
+    /**
+     * Assembler of templates.
+     */
+    private class TemplateAssembler extends PropertyAssembler<Void> {
+
+	/**
+	 * Builder of the template.
+	 */
+	final PropertyTemplate.Builder templateBuilder = new PropertyTemplate.Builder();
+
+	/**
+	 * Constructs assembler with empty set of definitions.
+	 */
+	TemplateAssembler() {
+	}
+
+	/**
+	 * Constructs assembler sharing definitions of fragments.
+	 */
+	TemplateAssembler(Map<String, PropertyTemplate> definitions) {
+	    super(definitions);
+	}
+
+	@Override
+	Void assemble(PropertyDeclaration declaration, List<Void> subproperties) {
+	    PropertyType propertyType = resolveDeclaredType(declaration);
+	    String propertyName = declaration.name.isEmpty() ? null : declaration.name;
+	    templateBuilder.addProperty(propertyType, (subproperties != null) ? subproperties
+		    .size() : -1, getInitialValue(declaration, propertyType), propertyName,
+		    declaration.label, declaration.hint, declaration.hintTitle,
+		    declaration.important, declaration.readOnly);
+	    return null;
+	}
+
+	@Override
+	Void assembleReference(PropertyTemplate definition, PropertyDeclaration overrides) {
+	    String propertyName = overrides.name;
+	    if ((propertyName != null) && propertyName.isEmpty()) {
+		propertyName = null;
+	    }
+
+	    templateBuilder.addTemplate(definition, overrides.name != null, propertyName,
+		    overrides.label, overrides.hint, overrides.hintTitle);
+	    return null;
+	}
+    }
+
+    /**
+     * Assembler collecting property declarations to a tree.
+     */
+    private class DeclarationCollector extends PropertyAssembler<DeclarationNode> {
+
+	@Override
+	DeclarationNode assemble(PropertyDeclaration declaration,
+		List<DeclarationNode> subproperties) {
+	    return new DeclarationNode(declaration, subproperties, null);
+	}
+
+	@Override
+	DeclarationNode assembleReference(PropertyTemplate definition,
+		PropertyDeclaration overrides) {
+	    return new DeclarationNode(overrides, null, definition);
+	}
+    }
+
+    /**
+     * Node of a tree of property declarations.
+     */
+    private static class DeclarationNode {
+
+	/**
+	 * The declaration of property.
+	 */
+	final PropertyDeclaration declaration;
+
+	/**
+	 * Nodes of subproperties in the document order or null, if the property
+	 * is a simple property.
+	 */
+	final List<DeclarationNode> subnodes;
+
+	/**
+	 * Referenced definition of shared fragment or null, if the node does
+	 * not represent a reference. The declaration of referencing node
+	 * contains overridden attributes.
+	 */
+	final PropertyTemplate reference;
+
+	/**
+	 * Number of nodes in the subtree rooted in this node.
+	 */
+	final int size;
+
+	DeclarationNode(PropertyDeclaration declaration, List<DeclarationNode> subnodes,
+		PropertyTemplate reference) {
+	    this.declaration = declaration;
+	    this.subnodes = subnodes;
+	    this.reference = reference;
+
+	    int subtreeSize = 1;
+	    if (subnodes != null) {
+		for (DeclarationNode subnode : subnodes) {
+		    subtreeSize += subnode.size;
+		}
+	    }
+	    this.size = subtreeSize;
+	}
+    }
+
+    /**
+     * Task constructing a subtree of properties. Composed subproperties are
+     * constructed by forked tasks and attached in the document order. Subtrees
+     * smaller than {@link #SEQUENTIAL_THRESHOLD} are constructed sequentially.
+     */
+    @SuppressWarnings("serial")
+    private class SubtreeTask extends RecursiveTask<Property> {
+
+	/**
+	 * The root node of constructed subtree.
+	 */
+	private final DeclarationNode node;
+
+	/**
+	 * Assembler of properties.
+	 */
+	private final PropertyInstanceAssembler assembler;
+
+	SubtreeTask(DeclarationNode node, PropertyInstanceAssembler assembler) {
+	    this.node = node;
+	    this.assembler = assembler;
+	}
+
+	@Override
+	protected Property compute() {
+	    if (node.size < SEQUENTIAL_THRESHOLD) {
+		return assembleSequentially(node, assembler);
+	    }
+
+	    // Fork tasks for large composed subproperties
+	    List<SubtreeTask> tasks = new ArrayList<SubtreeTask>();
+	    for (DeclarationNode subnode : node.subnodes) {
+		if (isForked(subnode)) {
+		    SubtreeTask task = new SubtreeTask(subnode, assembler);
+		    task.fork();
+		    tasks.add(task);
+		}
+	    }
+
+	    // Construct simple subproperties and join forked tasks in the
+	    // document order
+	    List<Property> subproperties = new ArrayList<Property>(node.subnodes.size());
+	    int taskIndex = 0;
+	    for (DeclarationNode subnode : node.subnodes) {
+		if (isForked(subnode)) {
+		    subproperties.add(tasks.get(taskIndex).join());
+		    taskIndex++;
+		} else {
+		    subproperties.add(assembleSequentially(subnode, assembler));
+		}
+	    }
+
+	    return assembler.assemble(node.declaration, subproperties);
+	}
+
+	/**
+	 * Returns whether a subproperty is constructed by a forked task.
+	 */
+	private boolean isForked(DeclarationNode subnode) {
+	    return (subnode.subnodes != null) && (subnode.size >= SEQUENTIAL_THRESHOLD);
+	}
+    }
+
+    /**
+     * Minimal number of declarations in a subtree that is constructed by a
+     * separate task of the parallel build. Smaller subtrees are constructed
+     * sequentially, since the overhead of tasks exceeds the gain.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 256;
+
+    /**
+     * Chain of resolvers of property types consulted in the order of their
+     * registration.
+     */
+    private final List<PropertyTypeResolver> propertyTypeResolvers = new CopyOnWriteArrayList<PropertyTypeResolver>();
+
+    /**
+     * Default resolver of property types used in the case when all other
+     * methods for resolving property type failed.
+     */
+    private PropertyTypeResolver defaultPropertyTypeResolver = null;
+
+    /**
+     * Factory of streaming xml readers, created when the first stream is
+     * processed.
+     */
+    private XMLInputFactory xmlInputFactory;
+
+    /**
+     * Pool used to construct sibling subtrees in parallel or null, if
+     * properties are constructed sequentially.
+     */
+    private ForkJoinPool parallelBuildPool = null;
+
+    /**
+     * Creates factory of DOM parsers suitable for parsing of xml
+     * configurations. Parsers created by the factory do not process document
+     * type declarations and do not resolve external entities, so that a
+     * parsed configuration cannot read local files or access the network.
+     * 
+     * @return the factory of DOM parsers.
+     */
+    public static DocumentBuilderFactory createDocumentBuilderFactory() {
+	DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+	try {
+	    factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+	    factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+	    factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+	    factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+	    factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd",
+		    false);
+	} catch (ParserConfigurationException e) {
+	    throw new IllegalStateException("Xml parser does not support secure processing.", e);
+	}
+	factory.setXIncludeAware(false);
+	factory.setExpandEntityReferences(false);
+	return factory;
+    }
+
+    /**
+     * Creates composed or simple property according to content of an xml
+     * document specifying a property. Documents from untrusted sources should
+     * be parsed by a parser created by {@link #createDocumentBuilderFactory()}.
+     * 
+     * @param xmlDocument
+     *            the parsed xml document.
+     * @return the composed property.
+     */
+    public Property createProperties(Document xmlDocument) {
+	if (parallelBuildPool != null) {
+	    return buildInParallel(readProperties(xmlDocument, new DeclarationCollector()));
+	}
+
+	return readProperties(xmlDocument, new PropertyInstanceAssembler());
+    }
+
+    /**
+     * Creates composed property - a container for properties defined as
+     * children of given xml element. The method does not check name of the
+     * referenced container element.
+     * 
+     * @param xmlProperties
+     *            the xml element containing child elements specifying
+     *            properties.
+     * @return the composed property.
+     */
+    public ComposedProperty createProperties(Element xmlProperties) {
+	if (xmlProperties == null) {
+	    throw new NullPointerException("Container elemenent is null.");
+	}
+
+	if (parallelBuildPool != null) {
+	    return (ComposedProperty) buildInParallel(readContainer(xmlProperties,
+		    new DeclarationCollector()));
+	}
+
+	return (ComposedProperty) readContainer(xmlProperties, new PropertyInstanceAssembler());
+    }
+
+    /**
+     * Creates a property according to an xml configuration. The name of element
+     * must be "property".
+     * 
+     * @param propertyElement
+     *            the xml element with property configuration.
+     * @return the constructed property.
+     */
+    public Property createProperty(Element propertyElement) {
+	if (!"property".equals(propertyElement.getNodeName())) {
+	    throw new InvalidConfigurationException(
+		    "An element with name \"property\" expected as a parameter.");
+	}
+
+	if (parallelBuildPool != null) {
+	    return buildInParallel(readProperty(propertyElement, new DeclarationCollector()));
+	}
+
+	return readProperty(propertyElement, new PropertyInstanceAssembler());
+    }
+
+    /**
+     * Creates composed or simple property according to an xml document read
+     * from a stream. The document is processed in a single pass without
+     * constructing its DOM representation. The stream is not closed.
+     * 
+     * @param xmlStream
+     *            the stream with xml document.
+     * @return the composed property.
+     */
+    public Property createProperties(InputStream xmlStream) {
+	try {
+	    XMLStreamReader reader = getXmlInputFactory().createXMLStreamReader(xmlStream);
+	    try {
+		if (parallelBuildPool != null) {
+		    return buildInParallel(readProperties(reader, new DeclarationCollector()));
+		}
+
+		return readProperties(reader, new PropertyInstanceAssembler());
+	    } finally {
+		reader.close();
+	    }
+	} catch (XMLStreamException e) {
+	    throw new InvalidConfigurationException("Xml configuration could not be parsed.", e);
+	}
+    }
+
+    /**
+     * Creates composed or simple property according to an xml document read
+     * from a reader. The document is processed in a single pass without
+     * constructing its DOM representation. The reader is not closed.
+     * 
+     * @param xmlReader
+     *            the reader of xml document.
+     * @return the composed property.
+     */
+    public Property createProperties(Reader xmlReader) {
+	try {
+	    XMLStreamReader reader = getXmlInputFactory().createXMLStreamReader(xmlReader);
+	    try {
+		if (parallelBuildPool != null) {
+		    return buildInParallel(readProperties(reader, new DeclarationCollector()));
+		}
+
+		return readProperties(reader, new PropertyInstanceAssembler());
+	    } finally {
+		reader.close();
+	    }
+	} catch (XMLStreamException e) {
+	    throw new InvalidConfigurationException("Xml configuration could not be parsed.", e);
+	}
+    }
+
+    /**
+     * Compiles an xml document specifying a property to a template. Property
+     * types are resolved during compilation and shared by all instantiated
+     * properties.
+     * 
+     * @param xmlDocument
+     *            the parsed xml document.
+     * @return the template of composed or simple property.
+     */
+    public PropertyTemplate compileTemplate(Document xmlDocument) {
+	TemplateAssembler assembler = new TemplateAssembler();
+	readProperties(xmlDocument, assembler);
+	return assembler.templateBuilder.build();
+    }
+
+    /**
+     * Compiles an xml document read from a stream to a template. The stream is
+     * not closed.
+     * 
+     * @param xmlStream
+     *            the stream with xml document.
+     * @return the template of composed or simple property.
+     * @see #compileTemplate(Document)
+     */
+    public PropertyTemplate compileTemplate(InputStream xmlStream) {
+	TemplateAssembler assembler = new TemplateAssembler();
+	try {
+	    XMLStreamReader reader = getXmlInputFactory().createXMLStreamReader(xmlStream);
+	    try {
+		readProperties(reader, assembler);
+	    } finally {
+		reader.close();
+	    }
+	} catch (XMLStreamException e) {
+	    throw new InvalidConfigurationException("Xml configuration could not be parsed.", e);
+	}
+
+	return assembler.templateBuilder.build();
+    }
+
+    /**
+     * Compiles an xml document read from a reader to a template. The reader is
+     * not closed.
+     * 
+     * @param xmlReader
+     *            the reader of xml document.
+     * @return the template of composed or simple property.
+     * @see #compileTemplate(Document)
+     */
+    public PropertyTemplate compileTemplate(Reader xmlReader) {
+	TemplateAssembler assembler = new TemplateAssembler();
+	try {
+	    XMLStreamReader reader = getXmlInputFactory().createXMLStreamReader(xmlReader);
+	    try {
+		readProperties(reader, assembler);
+	    } finally {
+		reader.close();
+	    }
+	} catch (XMLStreamException e) {
+	    throw new InvalidConfigurationException("Xml configuration could not be parsed.", e);
+	}
+
+	return assembler.templateBuilder.build();
+    }
+
+    // -----------------------------------------------------------------
+    // Assembling of properties
+    // -----------------------------------------------------------------
+
+    /**
+     * Constructs a tree of properties using the pool for parallel construction.
+     * 
+     * @param root
+     *            the root node of the tree of property declarations.
+     * @return the root property.
+     */
+    private Property buildInParallel(DeclarationNode root) {
+	PropertyInstanceAssembler assembler = new PropertyInstanceAssembler();
+	if (root.size < SEQUENTIAL_THRESHOLD) {
+	    return assembleSequentially(root, assembler);
+	}
+
+	return parallelBuildPool.invoke(new SubtreeTask(root, assembler));
+    }
+
+    /**
+     * Constructs a subtree of properties in the current thread.
+     * 
+     * @param node
+     *            the root node of subtree.
+     * @param assembler
+     *            the assembler of properties.
+     * @return the root property of subtree.
+     */
+    private static Property assembleSequentially(DeclarationNode node,
+	    PropertyInstanceAssembler assembler) {
+	if (node.reference != null) {
+	    return assembler.assembleReference(node.reference, node.declaration);
+	}
+
+	if (node.subnodes == null) {
+	    return assembler.assemble(node.declaration, null);
+	}
+
+	List<Property> subproperties = new ArrayList<Property>(node.subnodes.size());
+	for (DeclarationNode subnode : node.subnodes) {
+	    subproperties.add(assembleSequentially(subnode, assembler));
+	}
+
+	return assembler.assemble(node.declaration, subproperties);
+    }
+
+    /**
+     * Instantiates a property according to its declaration. Subproperties are
+     * not created.
+     * 
+     * @param declaration
+     *            the declaration of property.
+     * @return the constructed property.
+     */
+    private Property instantiateProperty(PropertyDeclaration declaration) {
+	PropertyType propertyType = resolveDeclaredType(declaration);
+
+	// Instantiate property
+	Property result = null;
+	if (declaration.composed) {
+	    if (propertyType == null) {
+		result = new ComposedProperty();
+	    } else {
+		result = new ComposedProperty((ComposedPropertyType) propertyType,
+			getInitialValue(declaration, propertyType));
+	    }
+	} else {
+	    result = new SimpleProperty((SimplePropertyType) propertyType, getInitialValue(
+		    declaration, propertyType));
+	}
+
+	// Set property attributes
+	result.setName(declaration.name.isEmpty() ? null : declaration.name);
+	result.setImportant(declaration.important);
+	if (declaration.readOnly != null) {
+	    result.setReadOnly(declaration.readOnly);
+	}
+	result.setLabel(declaration.label);
+	result.setHint(declaration.hint);
+	result.setHintTitle(declaration.hintTitle);
+
+	return result;
+    }
+
+    /**
+     * Returns the initial value of a declared property. The declared value is
+     * converted by the property type, if the value is not declared, the
+     * default value of property type is returned.
+     * 
+     * @param declaration
+     *            the declaration of property.
+     * @param propertyType
+     *            the resolved type of property.
+     * @return the initial value.
+     */
+    private Object getInitialValue(PropertyDeclaration declaration, PropertyType propertyType) {
+	if (propertyType == null) {
+	    if (declaration.valueDeclared) {
+		throw new InvalidConfigurationException(
+			"Value cannot be declared for untyped property \"" + declaration.name
+				+ "\".");
+	    }
+
+	    return null;
+	}
+
+	if (!declaration.valueDeclared) {
+	    return propertyType.getDefaultValue();
+	}
+
+	if (!propertyType.isAssignableValue(declaration.value)) {
+	    throw new InvalidConfigurationException("Invalid value of property \""
+		    + declaration.name + "\".");
+	}
+
+	return propertyType.convertAssignableToValidValue(declaration.value);
+    }
+
+    /**
+     * Resolves and checks property type of a declared property.
+     * 
+     * @param declaration
+     *            the declaration of property.
+     * @return the property type or null, if the declared property is an untyped
+     *         composed property.
+     */
+    private PropertyType resolveDeclaredType(PropertyDeclaration declaration) {
+	String propertyName = declaration.name;
+
+	// Normalize name of type.
+	String typeName = declaration.typeName;
+	if (typeName != null) {
+	    typeName = typeName.trim();
+	    if (typeName.isEmpty()) {
+		typeName = null;
+	    }
+	}
+
+	// Check presence of name of property type for simple properties
+	// (without subproperties)
+	if ((!declaration.composed) && (typeName == null)) {
+	    throw new InvalidConfigurationException(
+		    "Name of property type is missing for a simple property \"" + propertyName
+			    + "\".");
+	}
+
+	// Construct property type
+	PropertyType propertyType = null;
+	try {
+	    if (typeName != null) {
+		propertyType = resolvePropertyType(typeName, declaration.typeParameters);
+	    }
+	} catch (Exception e) {
+	    throw new InvalidConfigurationException("Property type \"" + typeName
+		    + "\" of property \"" + propertyName + "\" could not be resolved.", e);
+	}
+
+	if ((typeName != null) && (propertyType == null)) {
+	    throw new InvalidConfigurationException("Property type \"" + typeName
+		    + "\" of property \"" + propertyName + "\" could not be resolved.");
+	}
+
+	// Check kind of property type
+	if (declaration.composed) {
+	    if ((propertyType != null) && !(propertyType instanceof ComposedPropertyType)) {
+		throw new InvalidConfigurationException("Property type \"" + typeName
+			+ "\" of composed property \"" + propertyName + "\" is not composed.");
+	    }
+	} else {
+	    if (!(propertyType instanceof SimplePropertyType)) {
+		throw new InvalidConfigurationException("Property type \"" + typeName
+			+ "\" of composed property \"" + propertyName + "\" is not simple.");
+	    }
+	}
+
+	// Check that editable property has an editable type
+	if (Boolean.FALSE.equals(declaration.readOnly)
+		&& ((propertyType == null) || propertyType.isReadOnly())) {
+	    throw new InvalidConfigurationException("Property \"" + propertyName
+		    + "\" cannot be editable.");
+	}
+
+	return propertyType;
+    }
+
+    // -----------------------------------------------------------------
+    // DOM processing
+    // -----------------------------------------------------------------
+
+    /**
+     * Reads the root element of an xml document.
+     * 
+     * @param xmlDocument
+     *            the parsed xml document.
+     * @param assembler
+     *            the assembler of properties.
+     * @return the assembled root property.
+     */
+    private <T> T readProperties(Document xmlDocument, PropertyAssembler<T> assembler) {
+	Element rootElement = xmlDocument.getDocumentElement();
+	if ("property".equals(rootElement.getNodeName())) {
+	    return readProperty(rootElement, assembler);
+	}
+
+	if ("properties".equals(rootElement.getNodeName())) {
+	    return readContainer(rootElement, assembler);
+	}
+
+	throw new InvalidConfigurationException(
+		"Only \"properties\" and \"property\" are supported as root elements.");
+    }
+
+    /**
+     * Reads an element containing properties and assembles an untyped
+     * composed property containing the properties.
+     * 
+     * @param containerElement
+     *            the xml element containing child elements specifying
+     *            properties.
+     * @param assembler
+     *            the assembler of properties.
+     * @return the assembled composed property.
+     */
+    private <T> T readContainer(Element containerElement, PropertyAssembler<T> assembler) {
+	List<T> subproperties = readSubproperties(containerElement, assembler);
+	PropertyDeclaration declaration = PropertyDeclaration.createContainer(
+		containerElement.hasAttribute("label") ? containerElement.getAttribute("label")
+			: null,
+		containerElement.hasAttribute("hint") ? containerElement.getAttribute("hint")
+			: null);
+
+	return assembler.assemble(declaration, subproperties);
+    }
+
+    /**
+     * Reads the "property" element and assembles the property including its
+     * subproperties.
+     * 
+     * @param propertyElement
+     *            the xml element with property configuration.
+     * @param assembler
+     *            the assembler of properties.
+     * @return the assembled property.
+     */
+    private <T> T readProperty(Element propertyElement, PropertyAssembler<T> assembler) {
+	PropertyDeclaration declaration = new PropertyDeclaration();
+	declaration.name = propertyElement.getAttribute("name");
+
+	// Check subproperties
+	Element subpropertiesElement = getChildElementWithName(propertyElement, "subproperties");
+	declaration.composed = (subpropertiesElement != null);
+
+	// Find name and parameters of property type.
+	declaration.typeName = propertyElement.getAttribute("type");
+	Element typeElement = getChildElementWithName(propertyElement, "type");
+	if (typeElement != null) {
+	    declaration.typeName = typeElement.getAttribute("name");
+	    declaration.typeParameters = readTypeParameters(typeElement);
+	}
+
+	// Read property attributes
+	declaration.important = readBooleanAttribute(propertyElement, "important", false);
+	if (propertyElement.hasAttribute("readonly")) {
+	    declaration.readOnly = readBooleanAttribute(propertyElement, "readonly", false);
+	}
+
+	declaration.label = propertyElement.getAttribute("label");
+	Element labelElement = getChildElementWithName(propertyElement, "label");
+	if (labelElement != null) {
+	    declaration.label = labelElement.getTextContent();
+	}
+
+	declaration.hint = propertyElement.getAttribute("hint");
+	Element hintElement = getChildElementWithName(propertyElement, "hint");
+	if (hintElement != null) {
+	    declaration.hint = hintElement.getTextContent();
+	    if (hintElement.hasAttribute("title")) {
+		declaration.hintTitle = hintElement.getAttribute("title");
+	    }
+	}
+
+	Element valueElement = getChildElementWithName(propertyElement, "value");
+	if (valueElement != null) {
+	    declaration.valueDeclared = true;
+	    if (!readBooleanAttribute(valueElement, "null", false)) {
+		declaration.value = valueElement.getTextContent();
+	    }
+	}
+
+	// Process subproperties
+	List<T> subproperties = null;
+	if (subpropertiesElement != null) {
+	    subproperties = readSubproperties(subpropertiesElement, assembler);
+	}
+
+	return assembler.assemble(declaration, subproperties);
+    }
+
+    /**
+     * Reads xml element containing list of properties and assembles the
+     * properties.
+     * 
+     * @param subpropertiesElement
+     *            the xml element containing subproperties.
+     * @param assembler
+     *            the assembler of properties.
+     * @return the list of assembled properties in the document order.
+     */
+    private <T> List<T> readSubproperties(Element subpropertiesElement,
+	    PropertyAssembler<T> assembler) {
+	List<T> result = new ArrayList<T>();
+	NodeList children = subpropertiesElement.getChildNodes();
+	for (int i = 0; i < children.getLength(); i++) {
+	    Node child = children.item(i);
+	    if (!(child instanceof Element)) {
+		continue;
+	    }
+
+	    if ("property".equals(child.getNodeName())) {
+		result.add(readProperty((Element) child, assembler));
+	    } else if ("use".equals(child.getNodeName())) {
+		result.add(readReference((Element) child, assembler));
+	    } else if ("define".equals(child.getNodeName())) {
+		readDefinition((Element) child, assembler);
+	    }
+	}
+
+	return result;
+    }
+
+    /**
+     * Reads the "define" element with definition of a shared fragment. The
+     * fragment is a single property defined by the "property" child element.
+     * The definition is compiled once and it can be referenced by "use"
+     * elements that follow the definition in the document order.
+     * 
+     * @param defineElement
+     *            the xml element with definition.
+     * @param assembler
+     *            the assembler of properties that stores the definition.
+     */
+    private void readDefinition(Element defineElement, PropertyAssembler<?> assembler) {
+	String id = defineElement.getAttribute("id");
+	checkDefinitionId(id, assembler);
+
+	Element propertyElement = getChildElementWithName(defineElement, "property");
+	if (propertyElement == null) {
+	    throw new InvalidConfigurationException("Definition \"" + id
+		    + "\" does not contain a property.");
+	}
+
+	TemplateAssembler templateAssembler = new TemplateAssembler(assembler.definitions);
+	readProperty(propertyElement, templateAssembler);
+	assembler.definitions.put(id, templateAssembler.templateBuilder.build());
+    }
+
+    /**
+     * Reads the "use" element referencing a shared fragment and assembles the
+     * property according to the referenced definition. Attributes "name",
+     * "label", "hint" and "hintTitle" of the element override the attributes of
+     * the defined property.
+     * 
+     * @param useElement
+     *            the xml element with reference.
+     * @param assembler
+     *            the assembler of properties.
+     * @return the assembled property.
+     */
+    private <T> T readReference(Element useElement, PropertyAssembler<T> assembler) {
+	PropertyDeclaration overrides = new PropertyDeclaration();
+	overrides.name = useElement.hasAttribute("name") ? useElement.getAttribute("name") : null;
+	overrides.label = useElement.hasAttribute("label") ? useElement.getAttribute("label")
+		: null;
+	overrides.hint = useElement.hasAttribute("hint") ? useElement.getAttribute("hint") : null;
+	overrides.hintTitle = useElement.hasAttribute("hintTitle") ? useElement
+		.getAttribute("hintTitle") : null;
+
+	return assembler.assembleReference(
+		getDefinition(useElement.getAttribute("ref"), assembler), overrides);
+    }
+
+    /**
+     * Checks that identifier of a new definition is valid and unique.
+     */
+    private void checkDefinitionId(String id, PropertyAssembler<?> assembler) {
+	if (id.isEmpty()) {
+	    throw new InvalidConfigurationException("Identifier of definition is missing.");
+	}
+
+	if (assembler.definitions.containsKey(id)) {
+	    throw new InvalidConfigurationException("Duplicated definition \"" + id + "\".");
+	}
+    }
+
+    /**
+     * Returns compiled definition with given identifier.
+     */
+    private PropertyTemplate getDefinition(String id, PropertyAssembler<?> assembler) {
+	PropertyTemplate result = assembler.definitions.get(id);
+	if (result == null) {
+	    throw new InvalidConfigurationException("Reference to undefined fragment \"" + id
+		    + "\".");
+	}
+
+	return result;
+    }
+
+    /**
+     * Reads parameters of a property type.
+     * 
+     * @param propertyTypeElement
+     *            the xml element with configuration of property type.
+     * @return the map with parameters of property type.
+     */
+    private Map<String, Object> readTypeParameters(Element propertyTypeElement) {
+	Map<String, Object> parameters = new HashMap<String, Object>();
+	NodeList children = propertyTypeElement.getChildNodes();
+	for (int i = 0; i < children.getLength(); i++) {
+	    Node child = children.item(i);
+	    if (child instanceof Element) {
+		Element childElement = (Element) child;
+		if ("parameter".equals(childElement.getNodeName())) {
+		    parameters.put(childElement.getAttribute("name"),
+			    childElement.getAttribute("value"));
+		} else if ("map".equals(childElement.getNodeName())) {
+		    parameters.put(childElement.getAttribute("name"), readMap(childElement));
+		} else if ("list".equals(childElement.getNodeName())) {
+		    parameters.put(childElement.getAttribute("name"), readList(childElement));
+		}
+	    }
+	}
+
+	return parameters;
+    }
+
+    /**
+     * Executes resolving of property type by the chain of resolvers followed
+     * by the default resolver.
+     * 
+     * @param name
+     *            the name of property type.
+     * @param parameters
+     *            the map with parameters of property type.
+     * @return the property type, or null, if no resolver resolved the
+     *         property type.
+     */
+    private PropertyType resolvePropertyType(String name, Map<String, Object> parameters) {
+	for (PropertyTypeResolver resolver : propertyTypeResolvers) {
+	    PropertyType result = resolver.resolvePropertyType(name, parameters);
+	    if (result != null) {
+		return result;
+	    }
+	}
+
+	if (defaultPropertyTypeResolver == null) {
+	    return null;
+	}
+
+	return defaultPropertyTypeResolver.resolvePropertyType(name, parameters);
+    }
+
+    /**
+     * Returns the first child element with given name.
+     * 
+     * @param element
+     *            the element whose children are scanned.
+     * @param name
+     *            the name of child element.
+     * @return the element or null, if the specified child element is not found.
+     */
+    private Element getChildElementWithName(Element element, String name) {
+	if (element == null) {
+	    return null;
+	}
+
+	NodeList children = element.getChildNodes();
+	for (int i = 0; i < children.getLength(); i++) {
+	    Node child = children.item(i);
+	    if ((child instanceof Element) && name.equals(child.getNodeName())) {
+		return (Element) child;
+	    }
+	}
+
+	return null;
+    }
+
+    /**
+     * Reads element containing items of a map.
+     * 
+     * @param element
+     *            the element containing map items.
+     * @return the map with items in the document order.
+     */
+    private Map<String, String> readMap(Element element) {
+	Map<String, String> result = new LinkedHashMap<String, String>();
+	NodeList children = element.getChildNodes();
+	for (int i = 0; i < children.getLength(); i++) {
+	    Node child = children.item(i);
+	    if ((child instanceof Element) && ("item".equals(child.getNodeName()))) {
+		Element itemElement = (Element) child;
+		result.put(itemElement.getAttribute("key"), itemElement.getTextContent());
+	    }
+	}
+
+	return result;
+    }
+
+    /**
+     * Reads element containing items of a list.
+     * 
+     * @param element
+     *            the element containing list items.
+     * @return the list.
+     */
+    private List<String> readList(Element element) {
+	List<String> result = new ArrayList<String>();
+	NodeList children = element.getChildNodes();
+	for (int i = 0; i < children.getLength(); i++) {
+	    Node child = children.item(i);
+	    if ((child instanceof Element) && ("item".equals(child.getNodeName()))) {
+		Element itemElement = (Element) child;
+		result.add(itemElement.getTextContent());
+	    }
+	}
+
+	return result;
+    }
+
+    /**
+     * Reads boolean attribute (true/false value).
+     * 
+     * @param element
+     *            the element containing the attribute.
+     * @param name
+     *            the name of the attribute.
+     * @param defaultValue
+     *            the default value of the attribute, if it is not present.
+     * @return the boolean value.
+     */
+    private boolean readBooleanAttribute(Element element, String name, boolean defaultValue) {
+	if (!element.hasAttribute(name)) {
+	    return defaultValue;
+	}
+
+	return parseBooleanAttribute(element.getAttribute(name), name, element.getNodeName());
+    }
+
+    /**
+     * Parses value of a boolean attribute (true/false value).
+     * 
+     * @param attrValue
+     *            the value of the attribute.
+     * @param name
+     *            the name of the attribute.
+     * @param elementName
+     *            the name of element containing the attribute.
+     * @return the boolean value.
+     */
+    private boolean parseBooleanAttribute(String attrValue, String name, String elementName) {
+	if ("true".equals(attrValue)) {
+	    return true;
+	}
+
+	if ("false".equals(attrValue)) {
+	    return false;
+	}
+
+	throw new InvalidConfigurationException(
+		"Only \"true\" and \"false\" are allowed for attribute (\"" + name
+			+ "\") of element \"" + elementName + "\".");
+    }
+
+    // -----------------------------------------------------------------
+    // Streaming (StAX) processing
+    // -----------------------------------------------------------------
+
+    /**
+     * Returns factory of streaming xml readers.
+     * 
+     * @return the factory.
+     */
+    private XMLInputFactory getXmlInputFactory() {
+	if (xmlInputFactory == null) {
+	    XMLInputFactory factory = XMLInputFactory.newInstance();
+	    factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+	    // Document type declarations and external entities are not
+	    // processed, so a configuration cannot read local files or access
+	    // the network.
+	    factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+	    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+	    xmlInputFactory = factory;
+	}
+
+	return xmlInputFactory;
+    }
+
+    /**
+     * Reads the root element of an xml document and assembles the property
+     * configured by the document.
+     * 
+     * @param reader
+     *            the reader positioned before the root element.
+     * @param assembler
+     *            the assembler of properties.
+     * @return the assembled composed or simple property.
+     */
+    private <T> T readProperties(XMLStreamReader reader, PropertyAssembler<T> assembler)
+	    throws XMLStreamException {
+	while (reader.next() != XMLStreamConstants.START_ELEMENT) {
+	    if (reader.getEventType() == XMLStreamConstants.END_DOCUMENT) {
+		throw new InvalidConfigurationException("Root element is missing.");
+	    }
+	}
+
+	if ("property".equals(reader.getLocalName())) {
+	    return readProperty(reader, assembler);
+	}
+
+	if ("properties".equals(reader.getLocalName())) {
+	    PropertyDeclaration declaration = PropertyDeclaration.createContainer(
+		    reader.getAttributeValue(null, "label"), reader.getAttributeValue(null, "hint"));
+	    return assembler.assemble(declaration, readSubproperties(reader, assembler));
+	}
+
+	throw new InvalidConfigurationException(
+		"Only \"properties\" and \"property\" are supported as root elements.");
+    }
+
+    /**
+     * Reads the "property" element and assembles the property including its
+     * subproperties. The property is assembled when its end element is
+     * reached, so the order of child elements is not significant.
+     * 
+     * @param reader
+     *            the reader positioned at start of the "property" element.
+     * @param assembler
+     *            the assembler of properties.
+     * @return the assembled property.
+     */
+    private <T> T readProperty(XMLStreamReader reader, PropertyAssembler<T> assembler)
+	    throws XMLStreamException {
+	PropertyDeclaration declaration = new PropertyDeclaration();
+	declaration.name = getAttributeValue(reader, "name");
+	declaration.typeName = getAttributeValue(reader, "type");
+	declaration.label = getAttributeValue(reader, "label");
+	declaration.hint = getAttributeValue(reader, "hint");
+	declaration.important = readBooleanAttribute(reader, "important", false);
+	if (reader.getAttributeValue(null, "readonly") != null) {
+	    declaration.readOnly = readBooleanAttribute(reader, "readonly", false);
+	}
+
+	List<T> subproperties = null;
+	boolean typeRead = false;
+	boolean labelRead = false;
+	boolean hintRead = false;
+	boolean valueRead = false;
+	while (reader.next() != XMLStreamConstants.END_ELEMENT) {
+	    if (reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+		continue;
+	    }
+
+	    // Only the first child element with given name is considered.
+	    String elementName = reader.getLocalName();
+	    if ("subproperties".equals(elementName) && (subproperties == null)) {
+		subproperties = readSubproperties(reader, assembler);
+	    } else if ("type".equals(elementName) && !typeRead) {
+		typeRead = true;
+		declaration.typeName = getAttributeValue(reader, "name");
+		declaration.typeParameters = readTypeParameters(reader);
+	    } else if ("label".equals(elementName) && !labelRead) {
+		labelRead = true;
+		declaration.label = readTextContent(reader);
+	    } else if ("hint".equals(elementName) && !hintRead) {
+		hintRead = true;
+		declaration.hintTitle = reader.getAttributeValue(null, "title");
+		declaration.hint = readTextContent(reader);
+	    } else if ("value".equals(elementName) && !valueRead) {
+		valueRead = true;
+		declaration.valueDeclared = true;
+		if (readBooleanAttribute(reader, "null", false)) {
+		    skipElement(reader);
+		} else {
+		    declaration.value = readTextContent(reader);
+		}
+	    } else {
+		skipElement(reader);
+	    }
+	}
+
+	declaration.composed = (subproperties != null);
+	return assembler.assemble(declaration, subproperties);
+    }
+
+    /**
+     * Reads properties defined by "property" child elements of the current
+     * element.
+     * 
+     * @param reader
+     *            the reader positioned at start of the element containing
+     *            properties.
+     * @param assembler
+     *            the assembler of properties.
+     * @return the list of assembled properties in the document order.
+     */
+    private <T> List<T> readSubproperties(XMLStreamReader reader, PropertyAssembler<T> assembler)
+	    throws XMLStreamException {
+	List<T> result = new ArrayList<T>();
+	while (reader.next() != XMLStreamConstants.END_ELEMENT) {
+	    if (reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+		continue;
+	    }
+
+	    if ("property".equals(reader.getLocalName())) {
+		result.add(readProperty(reader, assembler));
+	    } else if ("use".equals(reader.getLocalName())) {
+		result.add(readReference(reader, assembler));
+	    } else if ("define".equals(reader.getLocalName())) {
+		readDefinition(reader, assembler);
+	    } else {
+		skipElement(reader);
+	    }
+	}
+
+	return result;
+    }
+
+    /**
+     * Reads the "define" element with definition of a shared fragment.
+     * 
+     * @param reader
+     *            the reader positioned at start of the "define" element.
+     * @param assembler
+     *            the assembler of properties that stores the definition.
+     */
+    private void readDefinition(XMLStreamReader reader, PropertyAssembler<?> assembler)
+	    throws XMLStreamException {
+	String id = getAttributeValue(reader, "id");
+	checkDefinitionId(id, assembler);
+
+	TemplateAssembler templateAssembler = null;
+	while (reader.next() != XMLStreamConstants.END_ELEMENT) {
+	    if (reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+		continue;
+	    }
+
+	    // Only the first property element is considered.
+	    if ("property".equals(reader.getLocalName()) && (templateAssembler == null)) {
+		templateAssembler = new TemplateAssembler(assembler.definitions);
+		readProperty(reader, templateAssembler);
+	    } else {
+		skipElement(reader);
+	    }
+	}
+
+	if (templateAssembler == null) {
+	    throw new InvalidConfigurationException("Definition \"" + id
+		    + "\" does not contain a property.");
+	}
+
+	assembler.definitions.put(id, templateAssembler.templateBuilder.build());
+    }
+
+    /**
+     * Reads the "use" element referencing a shared fragment and assembles the
+     * property according to the referenced definition.
+     * 
+     * @param reader
+     *            the reader positioned at start of the "use" element.
+     * @param assembler
+     *            the assembler of properties.
+     * @return the assembled property.
+     */
+    private <T> T readReference(XMLStreamReader reader, PropertyAssembler<T> assembler)
+	    throws XMLStreamException {
+	PropertyDeclaration overrides = new PropertyDeclaration();
+	overrides.name = reader.getAttributeValue(null, "name");
+	overrides.label = reader.getAttributeValue(null, "label");
+	overrides.hint = reader.getAttributeValue(null, "hint");
+	overrides.hintTitle = reader.getAttributeValue(null, "hintTitle");
+	PropertyTemplate definition = getDefinition(getAttributeValue(reader, "ref"), assembler);
+	skipElement(reader);
+
+	return assembler.assembleReference(definition, overrides);
+    }
+
+    /**
+     * Reads parameters of a property type.
+     * 
+     * @param reader
+     *            the reader positioned at start of the "type" element.
+     * @return the map with parameters of property type.
+     */
+    private Map<String, Object> readTypeParameters(XMLStreamReader reader)
+	    throws XMLStreamException {
+	Map<String, Object> parameters = new HashMap<String, Object>();
+	while (reader.next() != XMLStreamConstants.END_ELEMENT) {
+	    if (reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+		continue;
+	    }
+
+	    String elementName = reader.getLocalName();
+	    String parameterName = getAttributeValue(reader, "name");
+	    if ("parameter".equals(elementName)) {
+		parameters.put(parameterName, getAttributeValue(reader, "value"));
+		skipElement(reader);
+	    } else if ("map".equals(elementName)) {
+		Map<String, String> map = new LinkedHashMap<String, String>();
+		while (reader.next() != XMLStreamConstants.END_ELEMENT) {
+		    if (reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+			continue;
+		    }
+
+		    if ("item".equals(reader.getLocalName())) {
+			String key = getAttributeValue(reader, "key");
+			map.put(key, readTextContent(reader));
+		    } else {
+			skipElement(reader);
+		    }
+		}
+		parameters.put(parameterName, map);
+	    } else if ("list".equals(elementName)) {
+		List<String> list = new ArrayList<String>();
+		while (reader.next() != XMLStreamConstants.END_ELEMENT) {
+		    if (reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+			continue;
+		    }
+
+		    if ("item".equals(reader.getLocalName())) {
+			list.add(readTextContent(reader));
+		    } else {
+			skipElement(reader);
+		    }
+		}
+		parameters.put(parameterName, list);
+	    } else {
+		skipElement(reader);
+	    }
+	}
+
+	return parameters;
+    }
+
+    /**
+     * Reads text content of the current element and its descendants.
+     * 
+     * @param reader
+     *            the reader positioned at start of the element.
+     * @return the text content.
+     */
+    private String readTextContent(XMLStreamReader reader) throws XMLStreamException {
+	StringBuilder result = new StringBuilder();
+	int depth = 1;
+	while (depth > 0) {
+	    switch (reader.next()) {
+	    case XMLStreamConstants.START_ELEMENT:
+		depth++;
+		break;
+	    case XMLStreamConstants.END_ELEMENT:
+		depth--;
+		break;
+	    case XMLStreamConstants.CHARACTERS:
+	    case XMLStreamConstants.CDATA:
+	    case XMLStreamConstants.SPACE:
+		result.append(reader.getTextCharacters(), reader.getTextStart(),
+			reader.getTextLength());
+		break;
+	    }
+	}
+
+	return result.toString();
+    }
+
+    /**
+     * Skips the current element including its content.
+     * 
+     * @param reader
+     *            the reader positioned at start of the element.
+     */
+    private void skipElement(XMLStreamReader reader) throws XMLStreamException {
+	int depth = 1;
+	while (depth > 0) {
+	    switch (reader.next()) {
+	    case XMLStreamConstants.START_ELEMENT:
+		depth++;
+		break;
+	    case XMLStreamConstants.END_ELEMENT:
+		depth--;
+		break;
+	    }
+	}
+    }
+
+    /**
+     * Returns value of an attribute of the current element.
+     * 
+     * @param reader
+     *            the reader positioned at start of an element.
+     * @param name
+     *            the name of the attribute.
+     * @return the value of attribute or empty string, if the attribute is not
+     *         present.
+     */
+    private String getAttributeValue(XMLStreamReader reader, String name) {
+	String value = reader.getAttributeValue(null, name);
+	return (value != null) ? value : "";
+    }
+
+    /**
+     * Reads boolean attribute (true/false value) of the current element.
+     * 
+     * @param reader
+     *            the reader positioned at start of an element.
+     * @param name
+     *            the name of the attribute.
+     * @param defaultValue
+     *            the default value of the attribute, if it is not present.
+     * @return the boolean value.
+     */
+    private boolean readBooleanAttribute(XMLStreamReader reader, String name, boolean defaultValue) {
+	String attrValue = reader.getAttributeValue(null, name);
+	if (attrValue == null) {
+	    return defaultValue;
+	}
+
+	return parseBooleanAttribute(attrValue, name, reader.getLocalName());
+    }
+
+    /**
+     * Appends a resolver of property types to the chain of resolvers. Resolvers
+     * in the chain are consulted in the order of their registration before the
+     * default resolver.
+     * 
+     * @param resolver
+     *            the resolver.
+     */
+    public void addPropertyTypeResolver(PropertyTypeResolver resolver) {
+	if (resolver == null) {
+	    throw new NullPointerException("Resolver cannot be null.");
+	}
+
+	propertyTypeResolvers.add(resolver);
+    }
+
+    /**
+     * Removes a resolver of property types from the chain of resolvers.
+     * 
+     * @param resolver
+     *            the resolver.
+     */
+    public void removePropertyTypeResolver(PropertyTypeResolver resolver) {
+	propertyTypeResolvers.remove(resolver);
+    }
+
+    /**
+     * Returns the chain of resolvers of property types.
+     * 
+     * @return the unmodifiable list of resolvers in the order of their
+     *         registration.
+     */
+    List<PropertyTypeResolver> getPropertyTypeResolvers() {
+	return Collections.unmodifiableList(propertyTypeResolvers);
+    }
+
+    /**
+     * Returns the default resolver of property types.
+     * 
+     * @return the resolver.
+     */
+    public PropertyTypeResolver getDefaultPropertyTypeResolver() {
+	return defaultPropertyTypeResolver;
+    }
+
+    /**
+     * Sets the default resolver of property types.
+     * 
+     * @param defaultPropertyTypeResolver
+     *            the desired resolver.
+     */
+    public void setDefaultPropertyTypeResolver(PropertyTypeResolver defaultPropertyTypeResolver) {
+	this.defaultPropertyTypeResolver = defaultPropertyTypeResolver;
+    }
+
+    /**
+     * Returns the pool used to construct sibling subtrees in parallel.
+     * 
+     * @return the pool or null, if properties are constructed sequentially.
+     */
+    public ForkJoinPool getParallelBuildPool() {
+	return parallelBuildPool;
+    }
+
+    /**
+     * Sets the pool used to construct sibling subtrees in parallel. The xml
+     * configuration is read sequentially, construction of properties including
+     * resolving of their types is distributed to the pool. Resolvers of
+     * property types must be thread-safe when a pool is set.
+     * 
+     * @param parallelBuildPool
+     *            the pool or null, if properties should be constructed
+     *            sequentially.
+     */
+    public void setParallelBuildPool(ForkJoinPool parallelBuildPool) {
+	this.parallelBuildPool = parallelBuildPool;
+    }
+}
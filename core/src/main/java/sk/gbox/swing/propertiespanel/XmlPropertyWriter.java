@@ -0,0 +1,256 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.io.*;
+import java.util.*;
+
+import javax.xml.stream.*;
+
+import sk.gbox.swing.propertiespanel.BinaryPropertyFormat.PropertyTypeDescriber;
+import sk.gbox.swing.propertiespanel.XmlPropertyBuilder.InvalidConfigurationException;
+
+/**
+ * Streaming writer of property trees to xml configurations in the format
+ * accepted by {@link XmlPropertyBuilder}. The tree is written directly to the
+ * output without constructing a DOM representation. Property types are written
+ * by their names and parameters provided by a describer of property types,
+ * current values of simple properties are written as "value" elements. Values
+ * of composed properties are given by values of their subproperties.
+ */
+public class XmlPropertyWriter {
+
+    /**
+     * Describer of property types.
+     */
+    private final PropertyTypeDescriber propertyTypeDescriber;
+
+    /**
+     * Factory of streaming xml writers, created when the first tree is
+     * written.
+     */
+    private XMLOutputFactory xmlOutputFactory;
+
+    /**
+     * Constructs the writer.
+     * 
+     * @param propertyTypeDescriber
+     *            the describer of property types.
+     */
+    public XmlPropertyWriter(PropertyTypeDescriber propertyTypeDescriber) {
+	if (propertyTypeDescriber == null) {
+	    throw new NullPointerException("Describer of property types must be set.");
+	}
+
+	this.propertyTypeDescriber = propertyTypeDescriber;
+    }
+
+    /**
+     * Writes a property tree as an xml document to a stream. The document is
+     * encoded in UTF-8, the stream is not closed.
+     * 
+     * @param property
+     *            the root of property tree.
+     * @param xmlStream
+     *            the output stream.
+     */
+    public void write(Property property, OutputStream xmlStream) {
+	try {
+	    XMLStreamWriter writer = getXmlOutputFactory().createXMLStreamWriter(xmlStream,
+		    "UTF-8");
+	    try {
+		writer.writeStartDocument("UTF-8", "1.0");
+		write(property, writer);
+		writer.writeEndDocument();
+		writer.flush();
+	    } finally {
+		writer.close();
+	    }
+	} catch (XMLStreamException e) {
+	    throw new InvalidConfigurationException("Xml configuration could not be written.", e);
+	}
+    }
+
+    /**
+     * Writes a property tree as an xml document to a writer. The writer is not
+     * closed.
+     * 
+     * @param property
+     *            the root of property tree.
+     * @param xmlWriter
+     *            the output writer.
+     */
+    public void write(Property property, Writer xmlWriter) {
+	try {
+	    XMLStreamWriter writer = getXmlOutputFactory().createXMLStreamWriter(xmlWriter);
+	    try {
+		writer.writeStartDocument();
+		write(property, writer);
+		writer.writeEndDocument();
+		writer.flush();
+	    } finally {
+		writer.close();
+	    }
+	} catch (XMLStreamException e) {
+	    throw new InvalidConfigurationException("Xml configuration could not be written.", e);
+	}
+    }
+
+    /**
+     * Writes a property tree as the root element. An untyped composed property
+     * is written as the "properties" container element, other properties as
+     * the "property" element.
+     * 
+     * @param property
+     *            the root of property tree.
+     * @param writer
+     *            the streaming xml writer.
+     * @throws XMLStreamException
+     *             if writing failed.
+     */
+    public void write(Property property, XMLStreamWriter writer) throws XMLStreamException {
+	if ((property instanceof ComposedProperty) && (property.getType() == null)) {
+	    writer.writeStartElement("properties");
+	    writeOptionalAttribute(writer, "label", property.getLabel());
+	    writeOptionalAttribute(writer, "hint", property.getHint());
+	    for (Property subproperty : ((ComposedProperty) property).getSubproperties()) {
+		writeProperty(subproperty, writer);
+	    }
+	    writer.writeEndElement();
+	} else {
+	    writeProperty(property, writer);
+	}
+    }
+
+    /**
+     * Writes the "property" element.
+     */
+    private void writeProperty(Property property, XMLStreamWriter writer)
+	    throws XMLStreamException {
+	PropertyType type = property.getType();
+
+	writer.writeStartElement("property");
+	writeOptionalAttribute(writer, "name", property.getName());
+	if (property.isImportant()) {
+	    writer.writeAttribute("important", "true");
+	}
+	if (property.isReadOnly() != Property.isReadOnlyByDefault(type)) {
+	    writer.writeAttribute("readonly", Boolean.toString(property.isReadOnly()));
+	}
+
+	if (property.getLabel() != null) {
+	    writer.writeStartElement("label");
+	    writer.writeCharacters(property.getLabel());
+	    writer.writeEndElement();
+	}
+
+	if ((property.getHint() != null) || (property.getHintTitle() != null)) {
+	    writer.writeStartElement("hint");
+	    writeOptionalAttribute(writer, "title", property.getHintTitle());
+	    if (property.getHint() != null) {
+		writer.writeCharacters(property.getHint());
+	    }
+	    writer.writeEndElement();
+	}
+
+	if (type != null) {
+	    writeType(type, writer);
+	    if (!(property instanceof ComposedProperty)) {
+		writeValue(property, writer);
+	    }
+	}
+
+	if (property instanceof ComposedProperty) {
+	    writer.writeStartElement("subproperties");
+	    for (Property subproperty : ((ComposedProperty) property).getSubproperties()) {
+		writeProperty(subproperty, writer);
+	    }
+	    writer.writeEndElement();
+	}
+
+	writer.writeEndElement();
+    }
+
+    /**
+     * Writes the "type" element with name and parameters of a property type.
+     */
+    private void writeType(PropertyType type, XMLStreamWriter writer) throws XMLStreamException {
+	Map<String, Object> parameters = new LinkedHashMap<String, Object>();
+	String typeName = propertyTypeDescriber.describePropertyType(type, parameters);
+	if (typeName == null) {
+	    throw new InvalidConfigurationException("Property type " + type.getClass().getName()
+		    + " cannot be described.");
+	}
+
+	writer.writeStartElement("type");
+	writer.writeAttribute("name", typeName);
+	for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+	    Object value = parameter.getValue();
+	    if (value instanceof Map) {
+		writer.writeStartElement("map");
+		writer.writeAttribute("name", parameter.getKey());
+		for (Map.Entry<?, ?> item : ((Map<?, ?>) value).entrySet()) {
+		    writer.writeStartElement("item");
+		    writer.writeAttribute("key", String.valueOf(item.getKey()));
+		    writer.writeCharacters(String.valueOf(item.getValue()));
+		    writer.writeEndElement();
+		}
+		writer.writeEndElement();
+	    } else if (value instanceof List) {
+		writer.writeStartElement("list");
+		writer.writeAttribute("name", parameter.getKey());
+		for (Object item : (List<?>) value) {
+		    writer.writeStartElement("item");
+		    writer.writeCharacters(String.valueOf(item));
+		    writer.writeEndElement();
+		}
+		writer.writeEndElement();
+	    } else {
+		writer.writeEmptyElement("parameter");
+		writer.writeAttribute("name", parameter.getKey());
+		writer.writeAttribute("value", String.valueOf(value));
+	    }
+	}
+	writer.writeEndElement();
+    }
+
+    /**
+     * Writes the "value" element with value of a property. Only null values
+     * and values of types String, Boolean and Number can be written.
+     */
+    private void writeValue(Property property, XMLStreamWriter writer)
+	    throws XMLStreamException {
+	Object value = property.getValue();
+	if (value == null) {
+	    writer.writeEmptyElement("value");
+	    writer.writeAttribute("null", "true");
+	} else if ((value instanceof String) || (value instanceof Boolean)
+		|| (value instanceof Number)) {
+	    writer.writeStartElement("value");
+	    writer.writeCharacters(value.toString());
+	    writer.writeEndElement();
+	} else {
+	    throw new InvalidConfigurationException("Value of property \"" + property.getName()
+		    + "\" of class " + value.getClass().getName() + " cannot be written.");
+	}
+    }
+
+    /**
+     * Writes an attribute, if its value is not null.
+     */
+    private void writeOptionalAttribute(XMLStreamWriter writer, String name, String value)
+	    throws XMLStreamException {
+	if (value != null) {
+	    writer.writeAttribute(name, value);
+	}
+    }
+
+    /**
+     * Returns the factory of streaming xml writers.
+     */
+    private XMLOutputFactory getXmlOutputFactory() {
+	if (xmlOutputFactory == null) {
+	    xmlOutputFactory = XMLOutputFactory.newInstance();
+	}
+
+	return xmlOutputFactory;
+    }
+}
@@ -0,0 +1,28 @@
+package sk.gbox.swing.propertiespanel.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Configures parameters of the Decimal type of a property defined by a floating
+ * point field.
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface DecimalRange {
+
+    /**
+     * The minimal allowed value.
+     */
+    double min() default -Double.MAX_VALUE;
+
+    /**
+     * The maximal allowed value.
+     */
+    double max() default Double.MAX_VALUE;
+
+    /**
+     * Indicates whether null value is allowed.
+     */
+    boolean nullable() default false;
+}
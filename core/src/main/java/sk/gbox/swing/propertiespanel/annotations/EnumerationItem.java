@@ -0,0 +1,22 @@
+package sk.gbox.swing.propertiespanel.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Item of an enumeration configured by {@link EnumerationItems}.
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target({})
+public @interface EnumerationItem {
+
+    /**
+     * Key (value) of the item.
+     */
+    String key();
+
+    /**
+     * Label of the item, if empty, the key is used.
+     */
+    String label() default "";
+}
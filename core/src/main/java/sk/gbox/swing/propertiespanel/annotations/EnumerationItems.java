@@ -0,0 +1,19 @@
+package sk.gbox.swing.propertiespanel.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Configures items of the Enumeration type of a property defined by a String
+ * or an enum field. For enum fields, keys are names of enum constants and only
+ * the listed constants are offered.
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface EnumerationItems {
+
+    /**
+     * Items of the enumeration in the order of presentation.
+     */
+    EnumerationItem[] value();
+}
@@ -0,0 +1,28 @@
+package sk.gbox.swing.propertiespanel.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Configures parameters of the Integer type of a property defined by an integer
+ * field.
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface IntegerRange {
+
+    /**
+     * The minimal allowed value.
+     */
+    long min() default Long.MIN_VALUE;
+
+    /**
+     * The maximal allowed value.
+     */
+    long max() default Long.MAX_VALUE;
+
+    /**
+     * Indicates whether null value is allowed.
+     */
+    boolean nullable() default false;
+}
@@ -0,0 +1,56 @@
+package sk.gbox.swing.propertiespanel.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a field of a class annotated with {@link PropertyModel} that is
+ * presented as a property. The property type is derived from the type of the
+ * field:
+ * <ul>
+ * <li>String - String type, or enumeration type, if the field is annotated
+ * with {@link EnumerationItems},</li>
+ * <li>boolean, Boolean - Boolean type,</li>
+ * <li>byte, short, int, long and their wrappers - Integer type with range of
+ * the field type or the range given by {@link IntegerRange},</li>
+ * <li>float, double and their wrappers - Decimal type with range given by
+ * {@link DecimalRange},</li>
+ * <li>enum - Enumeration type with constants of the enum,</li>
+ * <li>class annotated with {@link PropertyModel} - composed property with
+ * properties of the class.</li>
+ * </ul>
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface ModelProperty {
+
+    /**
+     * Name of the property, if empty, the name of the field is used.
+     */
+    String name() default "";
+
+    /**
+     * Label of the property, if empty, the name of the property is used.
+     */
+    String label() default "";
+
+    /**
+     * Hint of the property, if empty, no hint is set.
+     */
+    String hint() default "";
+
+    /**
+     * Title of the hint, if empty, no title is set.
+     */
+    String hintTitle() default "";
+
+    /**
+     * Indicates whether the property is important.
+     */
+    boolean important() default false;
+
+    /**
+     * Indicates whether the property is read-only.
+     */
+    boolean readOnly() default false;
+}
@@ -0,0 +1,28 @@
+package sk.gbox.swing.propertiespanel.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a configuration class whose fields annotated with {@link ModelProperty}
+ * form a property model. For each such class, the {@link PropertyModelProcessor}
+ * generates a class named after the annotated class with the suffix
+ * "PropertyModel" (nested classes are prefixed by names of their enclosing
+ * classes separated by "_"). The generated class provides the static method
+ * <code>createProperties()</code> that builds the composed property without
+ * reflection or xml parsing.
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface PropertyModel {
+
+    /**
+     * Label of the composed property, if empty, no label is set.
+     */
+    String label() default "";
+
+    /**
+     * Hint of the composed property, if empty, no hint is set.
+     */
+    String hint() default "";
+}
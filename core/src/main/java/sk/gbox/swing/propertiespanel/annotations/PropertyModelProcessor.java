@@ -0,0 +1,691 @@
+package sk.gbox.swing.propertiespanel.annotations;
+
+import java.io.*;
+import java.util.*;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Annotation processor generating builders of property models for classes
+ * annotated with {@link PropertyModel}. The generated code constructs property
+ * types and properties directly, i.e., no reflection or xml parsing is
+ * required at runtime. Property types with equal parameters are shared by all
+ * properties of the generated model.
+ */
+@SupportedAnnotationTypes("sk.gbox.swing.propertiespanel.annotations.PropertyModel")
+public class PropertyModelProcessor extends AbstractProcessor {
+
+    /**
+     * Suffix of names of generated classes.
+     */
+    private static final String CLASS_NAME_SUFFIX = "PropertyModel";
+
+    /**
+     * Package of the property model classes.
+     */
+    private static final String MODEL_PACKAGE = "sk.gbox.swing.propertiespanel";
+
+    /**
+     * Package of the built-in property types.
+     */
+    private static final String TYPES_PACKAGE = "sk.gbox.swing.propertiespanel.types";
+
+    /**
+     * Generator of source code for a single annotated class.
+     */
+    private class ModelGenerator {
+
+	/**
+	 * The annotated class.
+	 */
+	private final TypeElement modelClass;
+
+	/**
+	 * Declarations of shared property types mapped to names of static
+	 * fields.
+	 */
+	private final Map<String, String> typeFields = new LinkedHashMap<String, String>();
+
+	/**
+	 * Declared types of static fields with property types.
+	 */
+	private final Map<String, String> typeFieldTypes = new HashMap<String, String>();
+
+	/**
+	 * Classes imported by the generated class.
+	 */
+	private final Set<String> imports = new TreeSet<String>();
+
+	/**
+	 * Code of the method creating properties.
+	 */
+	private final StringBuilder body = new StringBuilder();
+
+	/**
+	 * Indicates whether the helper method for creating maps of enumeration
+	 * items is used.
+	 */
+	private boolean itemsHelperRequired;
+
+	/**
+	 * Indicates whether the local variable for created properties is
+	 * declared.
+	 */
+	private boolean propertyDeclared;
+
+	/**
+	 * Indicates whether an error was reported.
+	 */
+	private boolean failed;
+
+	/**
+	 * Constructs the generator.
+	 * 
+	 * @param modelClass
+	 *            the annotated class.
+	 */
+	ModelGenerator(TypeElement modelClass) {
+	    this.modelClass = modelClass;
+	}
+
+	/**
+	 * Generates the source file.
+	 */
+	void generate() {
+	    PropertyModel model = modelClass.getAnnotation(PropertyModel.class);
+	    appendLine(use(MODEL_PACKAGE, "ComposedProperty") + " result = new ComposedProperty();");
+	    if (!model.label().isEmpty()) {
+		appendLine("result.setLabel(" + literal(model.label()) + ");");
+	    }
+	    if (!model.hint().isEmpty()) {
+		appendLine("result.setHint(" + literal(model.hint()) + ");");
+	    }
+
+	    for (VariableElement field : ElementFilter.fieldsIn(modelClass.getEnclosedElements())) {
+		ModelProperty annotation = field.getAnnotation(ModelProperty.class);
+		if (annotation != null) {
+		    processField(field, annotation);
+		}
+	    }
+	    appendLine("return result;");
+
+	    if (failed) {
+		return;
+	    }
+
+	    String packageName = processingEnv.getElementUtils().getPackageOf(modelClass)
+		    .getQualifiedName().toString();
+	    String className = getGeneratedSimpleName(modelClass);
+	    String qualifiedName = packageName.isEmpty() ? className : packageName + "."
+		    + className;
+
+	    try {
+		JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(
+			qualifiedName, modelClass);
+		try (Writer writer = sourceFile.openWriter()) {
+		    writeSource(writer, packageName, className);
+		}
+	    } catch (IOException e) {
+		error(modelClass, "Generating " + qualifiedName + " failed: " + e.getMessage());
+	    }
+	}
+
+	/**
+	 * Generates code creating property for an annotated field.
+	 * 
+	 * @param field
+	 *            the annotated field.
+	 * @param annotation
+	 *            the property annotation of the field.
+	 */
+	private void processField(VariableElement field, ModelProperty annotation) {
+	    String name = annotation.name().isEmpty() ? field.getSimpleName().toString()
+		    : annotation.name();
+	    String label = annotation.label().isEmpty() ? name : annotation.label();
+
+	    TypeElement nestedModel = getNestedModel(field.asType());
+	    if (nestedModel != null) {
+		List<TypeElement> cycle = findCycle(nestedModel, modelClass,
+			new ArrayList<TypeElement>(), new HashSet<TypeElement>());
+		if (cycle != null) {
+		    StringBuilder path = new StringBuilder(modelClass.getQualifiedName());
+		    for (TypeElement element : cycle) {
+			path.append(" -> ").append(element.getQualifiedName());
+		    }
+		    error(field, "Property model references itself: " + path + ".");
+		    return;
+		}
+
+		declareProperty();
+		appendLine("property = " + getGeneratedName(nestedModel) + ".createProperties();");
+	    } else {
+		String typeField = resolveTypeField(field);
+		if (typeField == null) {
+		    return;
+		}
+		declareProperty();
+		appendLine("property = new " + use(MODEL_PACKAGE, "SimpleProperty") + "("
+			+ typeField + ", " + typeField + ".getDefaultValue());");
+	    }
+
+	    appendLine("property.setName(" + literal(name) + ");");
+	    appendLine("property.setLabel(" + literal(label) + ");");
+	    if (!annotation.hint().isEmpty()) {
+		appendLine("property.setHint(" + literal(annotation.hint()) + ");");
+	    }
+	    if (!annotation.hintTitle().isEmpty()) {
+		appendLine("property.setHintTitle(" + literal(annotation.hintTitle()) + ");");
+	    }
+	    if (annotation.important()) {
+		appendLine("property.setImportant(true);");
+	    }
+	    if (annotation.readOnly()) {
+		appendLine("property.setReadOnly(true);");
+	    }
+	    appendLine("result.getSubproperties().add(property);");
+	}
+
+	/**
+	 * Returns name of static field with property type for given field. The
+	 * field with property type is declared, if necessary.
+	 * 
+	 * @param field
+	 *            the annotated field.
+	 * @return the name of field with property type or null, if the property
+	 *         type cannot be determined.
+	 */
+	private String resolveTypeField(VariableElement field) {
+	    TypeMirror fieldType = field.asType();
+	    EnumerationItems enumerationItems = field.getAnnotation(EnumerationItems.class);
+
+	    String typeKind = getTypeKind(fieldType);
+	    if (typeKind == null) {
+		error(field, "Property type for fields of type " + fieldType
+			+ " cannot be determined.");
+		return null;
+	    }
+
+	    switch (typeKind) {
+	    case "String":
+		if (enumerationItems != null) {
+		    return declareEnumerationType(field, "String", enumerationItems);
+		}
+		return declareType(use(TYPES_PACKAGE, "StringType"), "new StringType()");
+	    case "Boolean":
+		return declareType(use(TYPES_PACKAGE, "BooleanType"), "new BooleanType()");
+	    case "Integer":
+		return declareIntegerType(field, fieldType);
+	    case "Decimal":
+		return declareDecimalType(field);
+	    case "Enum":
+		String enumName = ((TypeElement) ((DeclaredType) fieldType).asElement())
+			.getQualifiedName().toString();
+		if (enumerationItems != null) {
+		    return declareEnumerationType(field, enumName, enumerationItems);
+		}
+		use("java.util", "Arrays");
+		return declareType(use(TYPES_PACKAGE, "EnumerationType") + "<" + enumName + ">",
+			"new EnumerationType<" + enumName + ">(Arrays.asList(" + enumName
+				+ ".values()))");
+	    }
+
+	    return null;
+	}
+
+	/**
+	 * Declares Integer type for given field.
+	 */
+	private String declareIntegerType(VariableElement field, TypeMirror fieldType) {
+	    long min;
+	    long max;
+	    switch (getUnboxedKind(fieldType)) {
+	    case BYTE:
+		min = Byte.MIN_VALUE;
+		max = Byte.MAX_VALUE;
+		break;
+	    case SHORT:
+		min = Short.MIN_VALUE;
+		max = Short.MAX_VALUE;
+		break;
+	    case INT:
+		min = Integer.MIN_VALUE;
+		max = Integer.MAX_VALUE;
+		break;
+	    default:
+		min = Long.MIN_VALUE;
+		max = Long.MAX_VALUE;
+	    }
+
+	    boolean nullable = false;
+	    IntegerRange range = field.getAnnotation(IntegerRange.class);
+	    if (range != null) {
+		min = Math.max(min, range.min());
+		max = Math.min(max, range.max());
+		nullable = range.nullable();
+	    }
+
+	    if (min > max) {
+		error(field, "Range of the integer property is empty.");
+		return null;
+	    }
+
+	    return declareType(use(TYPES_PACKAGE, "IntegerType"), "new IntegerType(" + longLiteral(min) + ", "
+		    + longLiteral(max) + ", " + nullable + ")");
+	}
+
+	/**
+	 * Declares Decimal type for given field.
+	 */
+	private String declareDecimalType(VariableElement field) {
+	    double min = -Double.MAX_VALUE;
+	    double max = Double.MAX_VALUE;
+	    boolean nullable = false;
+	    DecimalRange range = field.getAnnotation(DecimalRange.class);
+	    if (range != null) {
+		min = range.min();
+		max = range.max();
+		nullable = range.nullable();
+	    }
+
+	    if (!(min <= max)) {
+		error(field, "Range of the decimal property is empty.");
+		return null;
+	    }
+
+	    return declareType(use(TYPES_PACKAGE, "DecimalType"), "new DecimalType(" + doubleLiteral(min) + ", "
+		    + doubleLiteral(max) + ", " + nullable + ")");
+	}
+
+	/**
+	 * Declares Enumeration type with explicitly listed items.
+	 */
+	private String declareEnumerationType(VariableElement field, String keyType,
+		EnumerationItems enumerationItems) {
+	    boolean enumKeys = !"String".equals(keyType);
+	    Set<String> enumConstants = new HashSet<String>();
+	    if (enumKeys) {
+		TypeElement enumElement = (TypeElement) ((DeclaredType) field.asType()).asElement();
+		for (Element element : enumElement.getEnclosedElements()) {
+		    if (element.getKind() == ElementKind.ENUM_CONSTANT) {
+			enumConstants.add(element.getSimpleName().toString());
+		    }
+		}
+	    }
+
+	    if (enumerationItems.value().length == 0) {
+		error(field, "Empty enumeration is not allowed.");
+		return null;
+	    }
+
+	    StringBuilder items = new StringBuilder();
+	    Set<String> keys = new HashSet<String>();
+	    for (EnumerationItem item : enumerationItems.value()) {
+		if (!keys.add(item.key())) {
+		    error(field, "Duplicate enumeration item \"" + item.key() + "\".");
+		    return null;
+		}
+
+		String key = literal(item.key());
+		if (enumKeys) {
+		    if (!enumConstants.contains(item.key())) {
+			error(field, "\"" + item.key() + "\" is not a constant of " + keyType + ".");
+			return null;
+		    }
+		    key = keyType + "." + item.key();
+		}
+
+		String label = item.label().isEmpty() ? item.key() : item.label();
+		items.append(", ").append(key).append(", ").append(literal(label));
+	    }
+
+	    itemsHelperRequired = true;
+	    use("java.util", "LinkedHashMap");
+	    use("java.util", "Map");
+	    return declareType(use(TYPES_PACKAGE, "EnumerationType") + "<" + keyType + ">",
+		    "new EnumerationType<" + keyType + ">(items(new LinkedHashMap<" + keyType
+			    + ", String>()" + items + "))");
+	}
+
+	/**
+	 * Declares a static field with property type, if an equal declaration
+	 * does not exist.
+	 * 
+	 * @param declaredType
+	 *            the type of field.
+	 * @param initializer
+	 *            the expression creating the property type.
+	 * @return the name of field.
+	 */
+	private String declareType(String declaredType, String initializer) {
+	    String fieldName = typeFields.get(initializer);
+	    if (fieldName == null) {
+		fieldName = "TYPE_" + typeFields.size();
+		typeFields.put(initializer, fieldName);
+		typeFieldTypes.put(fieldName, declaredType);
+	    }
+
+	    return fieldName;
+	}
+
+	/**
+	 * Declares the local variable for created properties, if it is not
+	 * declared.
+	 */
+	private void declareProperty() {
+	    if (!propertyDeclared) {
+		propertyDeclared = true;
+		appendLine(use(MODEL_PACKAGE, "Property") + " property;");
+	    }
+	}
+
+	/**
+	 * Registers import of a class used by the generated code.
+	 * 
+	 * @param packageName
+	 *            the package of class.
+	 * @param simpleName
+	 *            the simple name of class.
+	 * @return the simple name of class.
+	 */
+	private String use(String packageName, String simpleName) {
+	    imports.add(packageName + "." + simpleName);
+	    return simpleName;
+	}
+
+	/**
+	 * Writes the generated class.
+	 */
+	private void writeSource(Writer writer, String packageName, String className)
+		throws IOException {
+	    PrintWriter out = new PrintWriter(writer);
+	    if (!packageName.isEmpty()) {
+		out.println("package " + packageName + ";");
+		out.println();
+	    }
+	    for (String importedClass : imports) {
+		out.println("import " + importedClass + ";");
+	    }
+	    out.println();
+	    out.println("/**");
+	    out.println(" * Builder of the property model of {@link "
+		    + modelClass.getQualifiedName() + "}.");
+	    out.println(" * Generated by " + PropertyModelProcessor.class.getName()
+		    + ", do not edit.");
+	    out.println(" */");
+	    out.println("public final class " + className + " {");
+	    out.println();
+	    for (Map.Entry<String, String> entry : typeFields.entrySet()) {
+		out.println("    private static final " + typeFieldTypes.get(entry.getValue()) + " "
+			+ entry.getValue() + " = " + entry.getKey() + ";");
+	    }
+	    out.println();
+	    out.println("    private " + className + "() {");
+	    out.println("    }");
+	    out.println();
+	    out.println("    /**");
+	    out.println("     * Creates a new instance of the property model.");
+	    out.println("     *");
+	    out.println("     * @return the composed property.");
+	    out.println("     */");
+	    out.println("    public static ComposedProperty createProperties() {");
+	    out.print(body);
+	    out.println("    }");
+	    if (itemsHelperRequired) {
+		writeItemsHelper(out);
+	    }
+	    out.println("}");
+	    out.flush();
+	}
+
+	/**
+	 * Writes helper method for creating maps with enumeration items.
+	 */
+	private void writeItemsHelper(PrintWriter out) {
+	    out.println();
+	    out.println("    private static <T> Map<T, String> items(Map<T, String> map, Object... keysAndLabels) {");
+	    out.println("        for (int i = 0; i < keysAndLabels.length; i += 2) {");
+	    out.println("            @SuppressWarnings(\"unchecked\")");
+	    out.println("            T key = (T) keysAndLabels[i];");
+	    out.println("            map.put(key, (String) keysAndLabels[i + 1]);");
+	    out.println("        }");
+	    out.println("        return map;");
+	    out.println("    }");
+	}
+
+	/**
+	 * Appends a statement to the body of the method creating properties.
+	 */
+	private void appendLine(String statement) {
+	    body.append("        ").append(statement).append('\n');
+	}
+
+	/**
+	 * Reports an error.
+	 */
+	private void error(Element element, String message) {
+	    failed = true;
+	    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+	return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+	for (Element element : roundEnv.getElementsAnnotatedWith(PropertyModel.class)) {
+	    if (element.getKind() != ElementKind.CLASS) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+			"Only classes can be annotated as property models.", element);
+		continue;
+	    }
+
+	    new ModelGenerator((TypeElement) element).generate();
+	}
+
+	return true;
+    }
+
+    /**
+     * Returns kind of property type (name of built-in property type or "Enum")
+     * for a type of field.
+     * 
+     * @param type
+     *            the type of field.
+     * @return the kind of property type or null, if the type is not
+     *         supported.
+     */
+    private String getTypeKind(TypeMirror type) {
+	if (type.getKind() == TypeKind.DECLARED) {
+	    TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+	    if (element.getKind() == ElementKind.ENUM) {
+		return "Enum";
+	    }
+
+	    if ("java.lang.String".equals(element.getQualifiedName().toString())) {
+		return "String";
+	    }
+	}
+
+	switch (getUnboxedKind(type)) {
+	case BOOLEAN:
+	    return "Boolean";
+	case BYTE:
+	case SHORT:
+	case INT:
+	case LONG:
+	    return "Integer";
+	case FLOAT:
+	case DOUBLE:
+	    return "Decimal";
+	default:
+	    return null;
+	}
+    }
+
+    /**
+     * Returns kind of the primitive type or the primitive type corresponding to
+     * a wrapper type.
+     */
+    private TypeKind getUnboxedKind(TypeMirror type) {
+	if (type.getKind().isPrimitive()) {
+	    return type.getKind();
+	}
+
+	try {
+	    return processingEnv.getTypeUtils().unboxedType(type).getKind();
+	} catch (IllegalArgumentException e) {
+	    return TypeKind.NONE;
+	}
+    }
+
+    /**
+     * Returns the class annotated with {@link PropertyModel} declared by given
+     * type.
+     * 
+     * @param type
+     *            the type of field.
+     * @return the annotated class or null.
+     */
+    private TypeElement getNestedModel(TypeMirror type) {
+	if (type.getKind() != TypeKind.DECLARED) {
+	    return null;
+	}
+
+	TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+	if (element.getAnnotation(PropertyModel.class) != null) {
+	    return element;
+	}
+
+	return null;
+    }
+
+    /**
+     * Finds a path of nested property models that leads from a model to the
+     * target model.
+     * 
+     * @param model
+     *            the model where the search starts.
+     * @param target
+     *            the searched model.
+     * @param path
+     *            the models visited on the current path.
+     * @param visited
+     *            the models that were already searched.
+     * @return the path ending by the target model or null, if the target model
+     *         is not reachable.
+     */
+    private List<TypeElement> findCycle(TypeElement model, TypeElement target,
+	    List<TypeElement> path, Set<TypeElement> visited) {
+	path.add(model);
+	if (model.equals(target)) {
+	    return path;
+	}
+
+	if (visited.add(model)) {
+	    for (VariableElement field : ElementFilter.fieldsIn(model.getEnclosedElements())) {
+		if (field.getAnnotation(ModelProperty.class) == null) {
+		    continue;
+		}
+
+		TypeElement nestedModel = getNestedModel(field.asType());
+		if ((nestedModel != null)
+			&& (findCycle(nestedModel, target, path, visited) != null)) {
+		    return path;
+		}
+	    }
+	}
+
+	path.remove(path.size() - 1);
+	return null;
+    }
+
+    /**
+     * Returns simple name of class generated for an annotated class.
+     */
+    private static String getGeneratedSimpleName(TypeElement modelClass) {
+	StringBuilder result = new StringBuilder(modelClass.getSimpleName());
+	Element enclosing = modelClass.getEnclosingElement();
+	while ((enclosing != null) && (enclosing instanceof TypeElement)) {
+	    result.insert(0, '_').insert(0, enclosing.getSimpleName());
+	    enclosing = enclosing.getEnclosingElement();
+	}
+
+	return result.append(CLASS_NAME_SUFFIX).toString();
+    }
+
+    /**
+     * Returns qualified name of class generated for an annotated class.
+     */
+    private String getGeneratedName(TypeElement modelClass) {
+	String packageName = processingEnv.getElementUtils().getPackageOf(modelClass)
+		.getQualifiedName().toString();
+	String simpleName = getGeneratedSimpleName(modelClass);
+	return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+
+    /**
+     * Returns java literal of a long value.
+     */
+    private static String longLiteral(long value) {
+	if (value == Long.MIN_VALUE) {
+	    return "Long.MIN_VALUE";
+	}
+
+	return value + "L";
+    }
+
+    /**
+     * Returns java literal of a double value.
+     */
+    private static String doubleLiteral(double value) {
+	if (Double.isInfinite(value)) {
+	    return (value > 0) ? "Double.POSITIVE_INFINITY" : "Double.NEGATIVE_INFINITY";
+	}
+
+	return Double.toString(value);
+    }
+
+    /**
+     * Returns java literal of a string value.
+     */
+    private static String literal(String value) {
+	StringBuilder result = new StringBuilder("\"");
+	for (int i = 0; i < value.length(); i++) {
+	    char c = value.charAt(i);
+	    switch (c) {
+	    case '"':
+		result.append("\\\"");
+		break;
+	    case '\\':
+		result.append("\\\\");
+		break;
+	    case '\n':
+		result.append("\\n");
+		break;
+	    case '\r':
+		result.append("\\r");
+		break;
+	    case '\t':
+		result.append("\\t");
+		break;
+	    default:
+		if ((c < 0x20) || (c > 0x7e)) {
+		    result.append(String.format("\\u%04x", (int) c));
+		} else {
+		    result.append(c);
+		}
+	    }
+	}
+
+	return result.append('"').toString();
+    }
+}
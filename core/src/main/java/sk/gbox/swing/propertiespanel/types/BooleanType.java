@@ -0,0 +1,54 @@
+package sk.gbox.swing.propertiespanel.types;
+
+import sk.gbox.swing.propertiespanel.*;
+
+/**
+ * Property type for boolean values.
+ */
+public class BooleanType extends SimplePropertyType {
+
+    @Override
+    public Object getDefaultValue() {
+	return false;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+	return false;
+    }
+
+    @Override
+    public boolean isAssignableValue(Object value) {
+	try {
+	    if (value instanceof Boolean) {
+		return true;
+	    }
+
+	    if (value instanceof String) {
+		String stringValue = value.toString();
+		return "true".equals(stringValue) || "false".equals(stringValue);
+	    }
+
+	    return false;
+	} catch (Exception e) {
+	    return false;
+	}
+    }
+
+    @Override
+    public Object convertAssignableToValidValue(Object value) {
+	try {
+	    if (value instanceof Boolean) {
+		return value;
+	    }
+
+	    if (value instanceof String) {
+		return Boolean.valueOf(value.toString());
+	    }
+
+	    throw new RuntimeException("Invalid value.");
+	} catch (Exception e) {
+	    throw new RuntimeException("Invalid value.");
+	}
+    }
+}
@@ -0,0 +1,154 @@
+package sk.gbox.swing.propertiespanel.types;
+
+import sk.gbox.swing.propertiespanel.*;
+
+/**
+ * Property type for floating point number.
+ */
+public class DecimalType extends SimplePropertyType {
+
+    /**
+     * Default value.
+     */
+    private final Object defaultValue;
+
+    /**
+     * Indicates whether null is accepted as a value.
+     */
+    private final boolean nullable;
+
+    /**
+     * The minimal allowed value.
+     */
+    private final double minValue;
+
+    /**
+     * The maximal allowed value.
+     */
+    private final double maxValue;
+
+    /**
+     * Constructs new decimal type for floating point numbers in given range
+     * limit.
+     * 
+     * @param minValue
+     *            the minimal allowed value.
+     * @param maxValue
+     *            the maximal allowed value.
+     * @param nullable
+     *            indicates whether null value (empty string) are allowed.
+     */
+    public DecimalType(double minValue, double maxValue, boolean nullable) {
+	if (!(minValue <= maxValue)) {
+	    throw new RuntimeException("minValue is not equal or less than maxValue.");
+	}
+
+	this.nullable = nullable;
+	this.minValue = minValue;
+	this.maxValue = maxValue;
+
+	if (nullable) {
+	    defaultValue = null;
+	} else {
+	    if ((minValue <= 0) && (0 <= maxValue)) {
+		defaultValue = Double.valueOf(0);
+	    } else {
+		defaultValue = minValue;
+	    }
+	}
+    }
+
+    /**
+     * Constructs new decimal type for floating point numbers in given range
+     * limit.
+     * 
+     * @param minValue
+     *            the minimal allowed value.
+     * @param maxValue
+     *            the maximal allowed value.
+     */
+    public DecimalType(double minValue, double maxValue) {
+	this(minValue, maxValue, false);
+    }
+
+    /**
+     * Constructs new integer type for integer values in range limit for long
+     * values.
+     */
+    public DecimalType() {
+	this(-Double.MAX_VALUE, Double.MAX_VALUE);
+    }
+
+    /**
+     * Returns the minimal allowed value.
+     * 
+     * @return the minimal allowed value.
+     */
+    public double getMinValue() {
+	return minValue;
+    }
+
+    /**
+     * Returns the maximal allowed value.
+     * 
+     * @return the maximal allowed value.
+     */
+    public double getMaxValue() {
+	return maxValue;
+    }
+
+    /**
+     * Returns whether null is accepted as a value.
+     * 
+     * @return true, if null value is allowed, false otherwise.
+     */
+    public boolean isNullable() {
+	return nullable;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+	return false;
+    }
+
+    @Override
+    public Object getDefaultValue() {
+	return defaultValue;
+    }
+
+    @Override
+    public boolean isAssignableValue(Object value) {
+	if (value == null) {
+	    return nullable;
+	}
+
+	try {
+	    double doubleValue;
+	    if (value instanceof Number) {
+		doubleValue = ((Number) value).doubleValue();
+	    } else {
+		doubleValue = Double.valueOf(value.toString());
+	    }
+	    return (minValue <= doubleValue) && (doubleValue <= maxValue);
+	} catch (Exception e) {
+	    return false;
+	}
+    }
+
+    @Override
+    public Object convertAssignableToValidValue(Object value) {
+	if (value == null) {
+	    return null;
+	}
+
+	try {
+	    if (value instanceof Number) {
+		return ((Number) value).doubleValue();
+	    } else {
+		return Double.valueOf(value.toString());
+	    }
+	} catch (Exception e) {
+	    throw new RuntimeException("Invalid value");
+	}
+    }
+}
@@ -0,0 +1,263 @@
+package sk.gbox.swing.propertiespanel.types;
+
+import java.util.*;
+
+import sk.gbox.swing.propertiespanel.PropertyType;
+
+/**
+ * Property type resolver and describer for "build-in" property types. Custom
+ * property types are added by registering their factories.
+ */
+public class DefaultPropertyTypeResolver extends PropertyTypeRegistry {
+
+    /**
+     * Factory of string types.
+     */
+    private static class StringTypeFactory implements PropertyTypeFactory {
+
+	/**
+	 * Schema of parameters.
+	 */
+	private final ParameterSchema schema = new ParameterSchema();
+
+	@Override
+	public String getTypeName() {
+	    return "String";
+	}
+
+	@Override
+	public Class<? extends PropertyType> getTypeClass() {
+	    return StringType.class;
+	}
+
+	@Override
+	public ParameterSchema getParameterSchema() {
+	    return schema;
+	}
+
+	@Override
+	public PropertyType createPropertyType(ParameterSchema.Values parameters) {
+	    return new StringType();
+	}
+
+	@Override
+	public void describeParameters(PropertyType type, Map<String, Object> parameters) {
+
+	}
+    }
+
+    /**
+     * Factory of boolean types.
+     */
+    private static class BooleanTypeFactory implements PropertyTypeFactory {
+
+	/**
+	 * Schema of parameters.
+	 */
+	private final ParameterSchema schema = new ParameterSchema();
+
+	@Override
+	public String getTypeName() {
+	    return "Boolean";
+	}
+
+	@Override
+	public Class<? extends PropertyType> getTypeClass() {
+	    return BooleanType.class;
+	}
+
+	@Override
+	public ParameterSchema getParameterSchema() {
+	    return schema;
+	}
+
+	@Override
+	public PropertyType createPropertyType(ParameterSchema.Values parameters) {
+	    return new BooleanType();
+	}
+
+	@Override
+	public void describeParameters(PropertyType type, Map<String, Object> parameters) {
+
+	}
+    }
+
+    /**
+     * Factory of integer types.
+     */
+    private static class IntegerTypeFactory implements PropertyTypeFactory {
+
+	/**
+	 * Schema of parameters.
+	 */
+	private final ParameterSchema schema = new ParameterSchema()
+		.addLong("minValue", Long.MIN_VALUE).addLong("maxValue", Long.MAX_VALUE)
+		.addBoolean("nullable", false);
+
+	@Override
+	public String getTypeName() {
+	    return "Integer";
+	}
+
+	@Override
+	public Class<? extends PropertyType> getTypeClass() {
+	    return IntegerType.class;
+	}
+
+	@Override
+	public ParameterSchema getParameterSchema() {
+	    return schema;
+	}
+
+	@Override
+	public PropertyType createPropertyType(ParameterSchema.Values parameters) {
+	    return new IntegerType(parameters.getLong("minValue"), parameters.getLong("maxValue"),
+		    parameters.getBoolean("nullable"));
+	}
+
+	@Override
+	public void describeParameters(PropertyType type, Map<String, Object> parameters) {
+	    IntegerType integerType = (IntegerType) type;
+	    parameters.put("minValue", Long.toString(integerType.getMinValue()));
+	    parameters.put("maxValue", Long.toString(integerType.getMaxValue()));
+	    parameters.put("nullable", Boolean.toString(integerType.isNullable()));
+	}
+    }
+
+    /**
+     * Factory of decimal types.
+     */
+    private static class DecimalTypeFactory implements PropertyTypeFactory {
+
+	/**
+	 * Schema of parameters.
+	 */
+	private final ParameterSchema schema = new ParameterSchema()
+		.addDouble("minValue", -Double.MAX_VALUE).addDouble("maxValue", Double.MAX_VALUE)
+		.addBoolean("nullable", false);
+
+	@Override
+	public String getTypeName() {
+	    return "Decimal";
+	}
+
+	@Override
+	public Class<? extends PropertyType> getTypeClass() {
+	    return DecimalType.class;
+	}
+
+	@Override
+	public ParameterSchema getParameterSchema() {
+	    return schema;
+	}
+
+	@Override
+	public PropertyType createPropertyType(ParameterSchema.Values parameters) {
+	    return new DecimalType(parameters.getDouble("minValue"),
+		    parameters.getDouble("maxValue"), parameters.getBoolean("nullable"));
+	}
+
+	@Override
+	public void describeParameters(PropertyType type, Map<String, Object> parameters) {
+	    DecimalType decimalType = (DecimalType) type;
+	    parameters.put("minValue", Double.toString(decimalType.getMinValue()));
+	    parameters.put("maxValue", Double.toString(decimalType.getMaxValue()));
+	    parameters.put("nullable", Boolean.toString(decimalType.isNullable()));
+	}
+    }
+
+    /**
+     * Factory of enumeration types.
+     */
+    private static class EnumerationTypeFactory implements PropertyTypeFactory {
+
+	/**
+	 * Schema of parameters.
+	 */
+	private final ParameterSchema schema = new ParameterSchema().addMap("items", true);
+
+	@Override
+	public String getTypeName() {
+	    return "Enumeration";
+	}
+
+	@Override
+	public Class<? extends PropertyType> getTypeClass() {
+	    return EnumerationType.class;
+	}
+
+	@Override
+	public ParameterSchema getParameterSchema() {
+	    return schema;
+	}
+
+	@Override
+	public PropertyType createPropertyType(ParameterSchema.Values parameters) {
+	    return new EnumerationType<Object>(parameters.getMap("items"));
+	}
+
+	@Override
+	public void describeParameters(PropertyType type, Map<String, Object> parameters) {
+	    @SuppressWarnings("unchecked")
+	    EnumerationType<Object> enumerationType = (EnumerationType<Object>) type;
+	    Map<Object, String> items = new LinkedHashMap<Object, String>();
+	    for (Object item : enumerationType.getItems()) {
+		items.put(item, enumerationType.getItemLabel(item));
+	    }
+	    parameters.put("items", items);
+	}
+    }
+
+    /**
+     * Constructs the resolver with factories of "build-in" property types.
+     */
+    public DefaultPropertyTypeResolver() {
+	register(new StringTypeFactory());
+	register(new BooleanTypeFactory());
+	register(new IntegerTypeFactory());
+	register(new DecimalTypeFactory());
+	register(new EnumerationTypeFactory());
+    }
+
+    /**
+     * Reads parameter value as a long value.
+     * 
+     * @param parameter
+     *            the parameter.
+     * @param defaultValue
+     *            the default value.
+     * @return the value.
+     */
+    protected long readLong(Object parameter, long defaultValue) {
+	Long value = ParameterSchema.parseLong(parameter);
+	return (value != null) ? value : defaultValue;
+    }
+
+    /**
+     * Reads parameter value as a double value.
+     * 
+     * @param parameter
+     *            the parameter.
+     * @param defaultValue
+     *            the default value.
+     * @return the value.
+     */
+    protected double readDouble(Object parameter, double defaultValue) {
+	Double value = ParameterSchema.parseDouble(parameter);
+	return (value != null) ? value : defaultValue;
+    }
+
+    /**
+     * Reads parameter value as a boolean value.
+     * 
+     * @param parameter
+     *            the parameter.
+     * @param defaultValue
+     *            the default value.
+     * @return the value.
+     */
+    protected boolean readBoolean(Object parameter, boolean defaultValue) {
+	Boolean value = ParameterSchema.parseBoolean(parameter);
+	return (value != null) ? value : defaultValue;
+    }
+}
@@ -1,6 +1,5 @@
 package sk.gbox.swing.propertiespanel.types;
 
-import java.awt.Component;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -9,15 +8,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import javax.swing.*;
-import javax.swing.table.*;
-
 import sk.gbox.swing.propertiespanel.*;
 
 /**
  * Property type with enumerated values.
  */
-@SuppressWarnings("serial")
 public class EnumerationType<T> extends SimplePropertyType {
 
     /**
@@ -40,82 +35,11 @@ public class EnumerationType<T> extends SimplePropertyType {
 	}
     }
 
-    /**
-     * Cell editor for enumeration.
-     */
-    private static class CellEditor extends DefaultCellEditor {
-
-	/**
-	 * Search map for associating keys with labels.
-	 */
-	private Map<Object, Item> searchMap;
-
-	/**
-	 * Constructs cell editor.
-	 */
-	public CellEditor() {
-	    super(new JComboBox<Item>());
-	}
-
-	@SuppressWarnings("unchecked")
-	@Override
-	public Component getTableCellEditorComponent(JTable table, Object value,
-		boolean isSelected, int row, int column) {
-	    Item item = searchMap.get(value);
-	    JComboBox<Item> comboBox = (JComboBox<Item>) super.getTableCellEditorComponent(table,
-		    item, isSelected, row, column);
-	    return comboBox;
-	}
-
-	@Override
-	public Object getCellEditorValue() {
-	    Object selectedValue = super.getCellEditorValue();
-	    if (selectedValue instanceof Item) {
-		return ((Item) selectedValue).value;
-	    }
-
-	    return null;
-	}
-    }
-
-    /**
-     * Cell renderer for enumerations.
-     */
-    private static class CellRenderer extends DefaultTableCellRenderer {
-	/**
-	 * Search map for associating keys with labels.
-	 */
-	private Map<Object, Item> searchMap;
-
-	@Override
-	public Component getTableCellRendererComponent(JTable table, Object value,
-		boolean isSelected, boolean hasFocus, int row, int column) {
-	    Item item = searchMap.get(value);
-	    return super.getTableCellRendererComponent(table, (item != null) ? item.label : null,
-		    isSelected, false, row, column);
-	}
-    }
-
-    /**
-     * Renderer for string values.
-     */
-    private static final CellRenderer renderer = new CellRenderer();
-
-    /**
-     * Editor for string values.
-     */
-    private static final CellEditor editor = new CellEditor();
-
     /**
      * Items of the enumeration type.
      */
     private final Item[] items;
 
-    /**
-     * Model for combo-box.
-     */
-    private final DefaultComboBoxModel<Item> model;
-
     /**
      * Map for fast searching of item indices.
      */
@@ -184,9 +108,6 @@ public class EnumerationType<T> extends SimplePropertyType {
 	    idx++;
 	}
 
-	// Create model
-	model = new DefaultComboBoxModel<Item>(this.items);
-
 	// Create search map
 	searchMap = new HashMap<Object, Item>();
 	for (int i = 0; i < this.items.length; i++) {
@@ -194,19 +115,32 @@ public class EnumerationType<T> extends SimplePropertyType {
 	}
     }
 
-    @Override
-    public TableCellRenderer getValueRenderer(PropertiesPanel propertiesPanel) {
-	renderer.searchMap = searchMap;
-	return renderer;
+    /**
+     * Returns items of the enumeration.
+     * 
+     * @return the unmodifiable list of items.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> getItems() {
+	List<T> result = new ArrayList<T>(items.length);
+	for (Item item : items) {
+	    result.add((T) item.value);
+	}
+
+	return Collections.unmodifiableList(result);
     }
 
-    @Override
-    public TableCellEditor getValueEditor(PropertiesPanel propertiesPanel) {
-	@SuppressWarnings("unchecked")
-	JComboBox<Item> comboBox = (JComboBox<Item>) editor.getComponent();
-	comboBox.setModel(model);
-	editor.searchMap = searchMap;
-	return editor;
+    /**
+     * Returns label of an item.
+     * 
+     * @param item
+     *            the item of enumeration.
+     * @return the label of item or null, if the item is not an item of the
+     *         enumeration.
+     */
+    public String getItemLabel(T item) {
+	Item searchedItem = searchMap.get(item);
+	return (searchedItem != null) ? searchedItem.label : null;
     }
 
     @Override
@@ -0,0 +1,152 @@
+package sk.gbox.swing.propertiespanel.types;
+
+import sk.gbox.swing.propertiespanel.*;
+
+/**
+ * Property type for integer values.
+ */
+public class IntegerType extends SimplePropertyType {
+
+    /**
+     * Default value for this property type.
+     */
+    private final Object defaultValue;
+
+    /**
+     * Indicates whether null is accepted as a value.
+     */
+    private final boolean nullable;
+
+    /**
+     * The minimal allowed value.
+     */
+    private final long minValue;
+
+    /**
+     * The maximal allowed value.
+     */
+    private final long maxValue;
+
+    /**
+     * Constructs new integer type for integer values in given range limit.
+     * 
+     * @param minValue
+     *            the minimal allowed value.
+     * @param maxValue
+     *            the maximal allowed value.
+     * @param nullable
+     *            indicates wheter null value (empty string) are allowed.
+     */
+    public IntegerType(long minValue, long maxValue, boolean nullable) {
+	if (!(minValue <= maxValue)) {
+	    throw new RuntimeException("minValue is not equal or less than maxValue.");
+	}
+
+	this.nullable = nullable;
+	this.minValue = minValue;
+	this.maxValue = maxValue;
+
+	if (nullable) {
+	    defaultValue = null;
+	} else {
+	    if ((minValue <= 0) && (0 <= maxValue)) {
+		defaultValue = 0;
+	    } else {
+		defaultValue = minValue;
+	    }
+	}
+    }
+
+    /**
+     * Constructs new integer type for integer values in given range limit.
+     * 
+     * @param minValue
+     *            the minimal allowed value.
+     * @param maxValue
+     *            the maximal allowed value.
+     */
+    public IntegerType(long minValue, long maxValue) {
+	this(minValue, maxValue, false);
+    }
+
+    /**
+     * Constructs new integer type for integer values in range limit for long
+     * values.
+     */
+    public IntegerType() {
+	this(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the minimal allowed value.
+     * 
+     * @return the minimal allowed value.
+     */
+    public long getMinValue() {
+	return minValue;
+    }
+
+    /**
+     * Returns the maximal allowed value.
+     * 
+     * @return the maximal allowed value.
+     */
+    public long getMaxValue() {
+	return maxValue;
+    }
+
+    /**
+     * Returns whether null is accepted as a value.
+     * 
+     * @return true, if null value is allowed, false otherwise.
+     */
+    public boolean isNullable() {
+	return nullable;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+	return false;
+    }
+
+    @Override
+    public Object getDefaultValue() {
+	return defaultValue;
+    }
+
+    @Override
+    public boolean isAssignableValue(Object value) {
+	if (value == null) {
+	    return nullable;
+	}
+
+	try {
+	    long longValue;
+	    if (value instanceof Number) {
+		longValue = ((Number) value).longValue();
+	    } else {
+		longValue = Long.valueOf(value.toString());
+	    }
+	    return (minValue <= longValue) && (longValue <= maxValue);
+	} catch (Exception e) {
+	    return false;
+	}
+    }
+
+    @Override
+    public Object convertAssignableToValidValue(Object value) {
+	if (value == null) {
+	    return null;
+	}
+
+	try {
+	    if (value instanceof Number) {
+		return ((Number) value).longValue();
+	    } else {
+		return Long.valueOf(value.toString());
+	    }
+	} catch (Exception e) {
+	    throw new RuntimeException("Invalid value");
+	}
+    }
+}
@@ -0,0 +1,518 @@
+package sk.gbox.swing.propertiespanel.types;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Schema of configuration parameters of a property type. The schema declares
+ * names, kinds and default values of parameters and normalizes raw parameters
+ * read from an xml configuration to typed values. Parsing of parameters does
+ * not rely on exceptions, absent or malformed values are replaced by default
+ * values.
+ */
+public final class ParameterSchema {
+
+    /**
+     * Kinds of parameters.
+     */
+    public enum Kind {
+	STRING, LONG, DOUBLE, BOOLEAN, MAP, LIST
+    }
+
+    /**
+     * Declaration of a parameter.
+     */
+    private static class Parameter {
+
+	/**
+	 * Name of the parameter.
+	 */
+	final String name;
+
+	/**
+	 * Kind of the parameter.
+	 */
+	final Kind kind;
+
+	/**
+	 * Default value of the parameter.
+	 */
+	final Object defaultValue;
+
+	/**
+	 * Indicates whether the parameter is required.
+	 */
+	final boolean required;
+
+	Parameter(String name, Kind kind, Object defaultValue, boolean required) {
+	    this.name = name;
+	    this.kind = kind;
+	    this.defaultValue = defaultValue;
+	    this.required = required;
+	}
+    }
+
+    /**
+     * Normalized values of parameters conforming to a schema. Instances are
+     * immutable and equal, if they belong to the same schema and all values
+     * are equal including the order of items in maps and lists.
+     */
+    public static final class Values {
+
+	/**
+	 * Schema of parameters.
+	 */
+	private final ParameterSchema schema;
+
+	/**
+	 * Values of parameters in the order of their declaration in the schema.
+	 */
+	private final Object[] values;
+
+	/**
+	 * Hash code of values.
+	 */
+	private final int hashCode;
+
+	private Values(ParameterSchema schema, Object[] values) {
+	    this.schema = schema;
+	    this.values = values;
+	    this.hashCode = 31 * System.identityHashCode(schema) + Arrays.deepHashCode(values);
+	}
+
+	/**
+	 * Returns value of a parameter.
+	 * 
+	 * @param name
+	 *            the name of parameter.
+	 * @return the value.
+	 * @throws IllegalArgumentException
+	 *             if the parameter is not declared in the schema.
+	 */
+	public Object get(String name) {
+	    Integer index = schema.indices.get(name);
+	    if (index == null) {
+		throw new IllegalArgumentException("Parameter " + name + " is not declared.");
+	    }
+
+	    return values[index];
+	}
+
+	/**
+	 * Returns value of a string parameter.
+	 * 
+	 * @param name
+	 *            the name of parameter.
+	 * @return the value.
+	 */
+	public String getString(String name) {
+	    return (String) get(name);
+	}
+
+	/**
+	 * Returns value of a long parameter.
+	 * 
+	 * @param name
+	 *            the name of parameter.
+	 * @return the value.
+	 */
+	public long getLong(String name) {
+	    return (Long) get(name);
+	}
+
+	/**
+	 * Returns value of a double parameter.
+	 * 
+	 * @param name
+	 *            the name of parameter.
+	 * @return the value.
+	 */
+	public double getDouble(String name) {
+	    return (Double) get(name);
+	}
+
+	/**
+	 * Returns value of a boolean parameter.
+	 * 
+	 * @param name
+	 *            the name of parameter.
+	 * @return the value.
+	 */
+	public boolean getBoolean(String name) {
+	    return (Boolean) get(name);
+	}
+
+	/**
+	 * Returns value of a map parameter.
+	 * 
+	 * @param name
+	 *            the name of parameter.
+	 * @return the unmodifiable map preserving the order of items, or null,
+	 *         if an optional parameter is not set.
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<Object, String> getMap(String name) {
+	    ItemMap items = (ItemMap) get(name);
+	    return (items != null) ? (Map<Object, String>) (Map<?, ?>) items.map : null;
+	}
+
+	/**
+	 * Returns value of a list parameter.
+	 * 
+	 * @param name
+	 *            the name of parameter.
+	 * @return the unmodifiable list, or null, if an optional parameter is
+	 *         not set.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Object> getList(String name) {
+	    return (List<Object>) get(name);
+	}
+
+	@Override
+	public int hashCode() {
+	    return hashCode;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+	    if (this == obj) {
+		return true;
+	    }
+
+	    if (!(obj instanceof Values)) {
+		return false;
+	    }
+
+	    Values other = (Values) obj;
+	    return (schema == other.schema) && (hashCode == other.hashCode)
+		    && Arrays.deepEquals(values, other.values);
+	}
+    }
+
+    /**
+     * Normalized value of a map parameter. Unlike maps, equality of item maps
+     * respects the order of items.
+     */
+    private static final class ItemMap {
+
+	/**
+	 * Unmodifiable map with items.
+	 */
+	final Map<?, ?> map;
+
+	/**
+	 * Keys and values of items in the order of items.
+	 */
+	final List<Object> items;
+
+	ItemMap(Map<?, ?> map) {
+	    this.map = Collections.unmodifiableMap(new LinkedHashMap<Object, Object>(map));
+	    this.items = new ArrayList<Object>(2 * map.size());
+	    for (Map.Entry<?, ?> item : map.entrySet()) {
+		items.add(item.getKey());
+		items.add(item.getValue());
+	    }
+	}
+
+	@Override
+	public int hashCode() {
+	    return items.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+	    return (obj instanceof ItemMap) && items.equals(((ItemMap) obj).items);
+	}
+    }
+
+    /**
+     * Pattern of strings accepted by {@link Double#parseDouble(String)}
+     * except hexadecimal floating-point literals.
+     */
+    private static final Pattern DOUBLE_PATTERN = Pattern
+	    .compile("\\s*[+-]?(NaN|Infinity|((\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?)[fFdD]?)\\s*");
+
+    /**
+     * Declared parameters.
+     */
+    private final List<Parameter> parameters = new ArrayList<Parameter>();
+
+    /**
+     * Indices of declared parameters mapped by their names.
+     */
+    private final Map<String, Integer> indices = new HashMap<String, Integer>();
+
+    /**
+     * Declares a string parameter.
+     * 
+     * @param name
+     *            the name of parameter.
+     * @param defaultValue
+     *            the default value.
+     * @return this schema.
+     */
+    public ParameterSchema addString(String name, String defaultValue) {
+	return addParameter(new Parameter(name, Kind.STRING, defaultValue, false));
+    }
+
+    /**
+     * Declares a long parameter.
+     * 
+     * @param name
+     *            the name of parameter.
+     * @param defaultValue
+     *            the default value.
+     * @return this schema.
+     */
+    public ParameterSchema addLong(String name, long defaultValue) {
+	return addParameter(new Parameter(name, Kind.LONG, defaultValue, false));
+    }
+
+    /**
+     * Declares a double parameter.
+     * 
+     * @param name
+     *            the name of parameter.
+     * @param defaultValue
+     *            the default value.
+     * @return this schema.
+     */
+    public ParameterSchema addDouble(String name, double defaultValue) {
+	return addParameter(new Parameter(name, Kind.DOUBLE, defaultValue, false));
+    }
+
+    /**
+     * Declares a boolean parameter.
+     * 
+     * @param name
+     *            the name of parameter.
+     * @param defaultValue
+     *            the default value.
+     * @return this schema.
+     */
+    public ParameterSchema addBoolean(String name, boolean defaultValue) {
+	return addParameter(new Parameter(name, Kind.BOOLEAN, defaultValue, false));
+    }
+
+    /**
+     * Declares a map parameter.
+     * 
+     * @param name
+     *            the name of parameter.
+     * @param required
+     *            true, if the parameter is required, false otherwise.
+     * @return this schema.
+     */
+    public ParameterSchema addMap(String name, boolean required) {
+	return addParameter(new Parameter(name, Kind.MAP, null, required));
+    }
+
+    /**
+     * Declares a list parameter.
+     * 
+     * @param name
+     *            the name of parameter.
+     * @param required
+     *            true, if the parameter is required, false otherwise.
+     * @return this schema.
+     */
+    public ParameterSchema addList(String name, boolean required) {
+	return addParameter(new Parameter(name, Kind.LIST, null, required));
+    }
+
+    /**
+     * Adds a parameter declaration.
+     */
+    private ParameterSchema addParameter(Parameter parameter) {
+	if (indices.containsKey(parameter.name)) {
+	    throw new IllegalArgumentException("Parameter " + parameter.name
+		    + " is already declared.");
+	}
+
+	indices.put(parameter.name, parameters.size());
+	parameters.add(parameter);
+	return this;
+    }
+
+    /**
+     * Returns names of declared parameters in the order of their declaration.
+     * 
+     * @return the list of parameter names.
+     */
+    public List<String> getParameterNames() {
+	List<String> result = new ArrayList<String>(parameters.size());
+	for (Parameter parameter : parameters) {
+	    result.add(parameter.name);
+	}
+
+	return result;
+    }
+
+    /**
+     * Returns kind of a declared parameter.
+     * 
+     * @param name
+     *            the name of parameter.
+     * @return the kind of parameter or null, if the parameter is not declared.
+     */
+    public Kind getParameterKind(String name) {
+	Integer index = indices.get(name);
+	return (index != null) ? parameters.get(index).kind : null;
+    }
+
+    /**
+     * Normalizes raw parameters to typed values. Parameters not declared in
+     * the schema are ignored.
+     * 
+     * @param rawParameters
+     *            the raw parameters, e.g., read from an xml configuration.
+     * @return the normalized values, or null, if a required parameter is not
+     *         set.
+     */
+    public Values parse(Map<String, Object> rawParameters) {
+	Object[] values = new Object[parameters.size()];
+	for (int i = 0; i < values.length; i++) {
+	    Parameter parameter = parameters.get(i);
+	    Object rawValue = rawParameters.get(parameter.name);
+	    Object value = null;
+	    switch (parameter.kind) {
+	    case STRING:
+		value = (rawValue != null) ? rawValue.toString() : null;
+		break;
+	    case LONG:
+		value = parseLong(rawValue);
+		break;
+	    case DOUBLE:
+		value = parseDouble(rawValue);
+		break;
+	    case BOOLEAN:
+		value = parseBoolean(rawValue);
+		break;
+	    case MAP:
+		value = (rawValue instanceof Map) ? new ItemMap((Map<?, ?>) rawValue) : null;
+		break;
+	    case LIST:
+		value = (rawValue instanceof List) ? Collections
+			.unmodifiableList(new ArrayList<Object>((List<?>) rawValue)) : null;
+		break;
+	    }
+
+	    if (value == null) {
+		if (parameter.required) {
+		    return null;
+		}
+		value = parameter.defaultValue;
+	    }
+
+	    values[i] = value;
+	}
+
+	return new Values(this, values);
+    }
+
+    /**
+     * Parses a raw parameter value as a long value.
+     * 
+     * @param rawValue
+     *            the raw value.
+     * @return the value, or null, if the raw value is not set or it is not a
+     *         valid long value.
+     */
+    public static Long parseLong(Object rawValue) {
+	if (rawValue == null) {
+	    return null;
+	}
+
+	if (rawValue instanceof Long) {
+	    return (Long) rawValue;
+	}
+
+	String s = rawValue.toString();
+	int length = s.length();
+	if (length == 0) {
+	    return null;
+	}
+
+	int i = 0;
+	boolean negative = false;
+	char firstChar = s.charAt(0);
+	if ((firstChar == '-') || (firstChar == '+')) {
+	    negative = (firstChar == '-');
+	    i++;
+	    if (length == 1) {
+		return null;
+	    }
+	}
+
+	// Digits are accumulated negatively as in Long.parseLong
+	long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+	long multiplyLimit = limit / 10;
+	long result = 0;
+	for (; i < length; i++) {
+	    int digit = Character.digit(s.charAt(i), 10);
+	    if ((digit < 0) || (result < multiplyLimit)) {
+		return null;
+	    }
+	    result *= 10;
+	    if (result < limit + digit) {
+		return null;
+	    }
+	    result -= digit;
+	}
+
+	return negative ? result : -result;
+    }
+
+    /**
+     * Parses a raw parameter value as a double value.
+     * 
+     * @param rawValue
+     *            the raw value.
+     * @return the value, or null, if the raw value is not set or it is not a
+     *         valid double value.
+     */
+    public static Double parseDouble(Object rawValue) {
+	if (rawValue == null) {
+	    return null;
+	}
+
+	if (rawValue instanceof Double) {
+	    return (Double) rawValue;
+	}
+
+	String s = rawValue.toString();
+	if (!DOUBLE_PATTERN.matcher(s).matches()) {
+	    return null;
+	}
+
+	return Double.parseDouble(s);
+    }
+
+    /**
+     * Parses a raw parameter value as a boolean value.
+     * 
+     * @param rawValue
+     *            the raw value.
+     * @return the value, or null, if the raw value is neither "true" nor
+     *         "false".
+     */
+    public static Boolean parseBoolean(Object rawValue) {
+	if (rawValue == null) {
+	    return null;
+	}
+
+	if (rawValue instanceof Boolean) {
+	    return (Boolean) rawValue;
+	}
+
+	switch (rawValue.toString()) {
+	case "true":
+	    return Boolean.TRUE;
+	case "false":
+	    return Boolean.FALSE;
+	default:
+	    return null;
+	}
+    }
+}
@@ -0,0 +1,54 @@
+package sk.gbox.swing.propertiespanel.types;
+
+import java.util.Map;
+
+import sk.gbox.swing.propertiespanel.PropertyType;
+
+/**
+ * Factory of property types registered in a {@link PropertyTypeRegistry}.
+ */
+public interface PropertyTypeFactory {
+
+    /**
+     * Returns the name of created property types used in xml configurations.
+     * 
+     * @return the name of property type.
+     */
+    public String getTypeName();
+
+    /**
+     * Returns the class of created property types.
+     * 
+     * @return the class of property type.
+     */
+    public Class<? extends PropertyType> getTypeClass();
+
+    /**
+     * Returns the schema of configuration parameters.
+     * 
+     * @return the schema of parameters.
+     */
+    public ParameterSchema getParameterSchema();
+
+    /**
+     * Creates a new instance of property type.
+     * 
+     * @param parameters
+     *            the normalized parameters conforming to the schema of
+     *            parameters.
+     * @return the property type, or null, if the property type cannot be
+     *         created for given parameters.
+     */
+    public PropertyType createPropertyType(ParameterSchema.Values parameters);
+
+    /**
+     * Stores parameters of a property type created by this factory.
+     * 
+     * @param type
+     *            the property type.
+     * @param parameters
+     *            the map where parameters are stored in the form accepted
+     *            by xml configurations.
+     */
+    public void describeParameters(PropertyType type, Map<String, Object> parameters);
+}
@@ -0,0 +1,610 @@
+package sk.gbox.swing.propertiespanel.types;
+
+import java.lang.invoke.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import sk.gbox.swing.propertiespanel.BinaryPropertyFormat.PropertyTypeDescriber;
+import sk.gbox.swing.propertiespanel.PropertyType;
+import sk.gbox.swing.propertiespanel.XmlPropertyBuilder.InvalidConfigurationException;
+import sk.gbox.swing.propertiespanel.XmlPropertyBuilder.PropertyTypeResolver;
+
+/**
+ * Registry of property type factories mapped by type names. Raw parameters are
+ * normalized according to the parameter schema of factory. If interning of
+ * property types is enabled, resolved property types are memoized, i.e., equal
+ * normalized parameters resolve to the same instance of property type. The
+ * registry is thread-safe.
+ * 
+ * Factories can be registered lazily by class names or discovered by
+ * {@link ServiceLoader}. Classes of lazily registered factories are loaded
+ * when a property type with the registered name is resolved for the first
+ * time or when a property type of the class given at registration is
+ * described. If enabled (it is disabled by default), a type name that is not
+ * registered is interpreted as the fully qualified name of a factory class or
+ * of a property type class with a public no-argument constructor.
+ * Constructors of loaded classes are cached as method handles. Factories
+ * should not load classes of property types before the first property type is
+ * created, so that only types used by resolved configurations are loaded.
+ */
+public class PropertyTypeRegistry implements PropertyTypeResolver, PropertyTypeDescriber {
+
+    /**
+     * Factory registered by the class name.
+     */
+    private static class LazyFactory {
+
+	/**
+	 * Name of the factory class.
+	 */
+	final String className;
+
+	/**
+	 * Name of the class of created property types or null, if it is not
+	 * known.
+	 */
+	final String typeClassName;
+
+	/**
+	 * Class loader used to load the factory class.
+	 */
+	final ClassLoader classLoader;
+
+	LazyFactory(String className, String typeClassName, ClassLoader classLoader) {
+	    this.className = className;
+	    this.typeClassName = typeClassName;
+	    this.classLoader = classLoader;
+	}
+    }
+
+    /**
+     * Factory of property types without parameters given by a property type
+     * class.
+     */
+    private static class ClassPropertyTypeFactory implements PropertyTypeFactory {
+
+	/**
+	 * Empty schema of parameters.
+	 */
+	private static final ParameterSchema EMPTY_SCHEMA = new ParameterSchema();
+
+	/**
+	 * Class of property type.
+	 */
+	private final Class<? extends PropertyType> typeClass;
+
+	/**
+	 * Constructor of property type.
+	 */
+	private final MethodHandle constructor;
+
+	ClassPropertyTypeFactory(Class<? extends PropertyType> typeClass, MethodHandle constructor) {
+	    this.typeClass = typeClass;
+	    this.constructor = constructor;
+	}
+
+	@Override
+	public String getTypeName() {
+	    return typeClass.getName();
+	}
+
+	@Override
+	public Class<? extends PropertyType> getTypeClass() {
+	    return typeClass;
+	}
+
+	@Override
+	public ParameterSchema getParameterSchema() {
+	    return EMPTY_SCHEMA;
+	}
+
+	@Override
+	public PropertyType createPropertyType(ParameterSchema.Values parameters) {
+	    return (PropertyType) invokeConstructor(constructor, typeClass.getName());
+	}
+
+	@Override
+	public void describeParameters(PropertyType type, Map<String, Object> parameters) {
+
+	}
+    }
+
+    /**
+     * Instantiated factories mapped by type names.
+     */
+    private final ConcurrentMap<String, PropertyTypeFactory> factories = new ConcurrentHashMap<String, PropertyTypeFactory>();
+
+    /**
+     * Factories registered by class names mapped by type names. Entries are
+     * removed when the factories are instantiated.
+     */
+    private final ConcurrentMap<String, LazyFactory> lazyFactories = new ConcurrentHashMap<String, LazyFactory>();
+
+    /**
+     * Instantiated factories mapped by classes of created property types. The
+     * map is filled lazily when property types are created or described.
+     */
+    private final ConcurrentMap<Class<?>, PropertyTypeFactory> factoriesByTypeClass = new ConcurrentHashMap<Class<?>, PropertyTypeFactory>();
+
+    /**
+     * Canonical instances of resolved property types mapped by keys formed by
+     * type names and normalized parameters. Used only if interning of property
+     * types is enabled.
+     */
+    private final ConcurrentMap<List<Object>, PropertyType> canonicalTypes = new ConcurrentHashMap<List<Object>, PropertyType>();
+
+    /**
+     * Cached no-argument constructors of loaded classes.
+     */
+    private final ConcurrentMap<Class<?>, MethodHandle> constructors = new ConcurrentHashMap<Class<?>, MethodHandle>();
+
+    /**
+     * Type names that failed to resolve as class names.
+     */
+    private final Set<String> unresolvableClassNames = Collections
+	    .newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /**
+     * Indicates whether resolved property types are interned.
+     */
+    private volatile boolean typeInterning = false;
+
+    /**
+     * Indicates whether type names that are not registered are resolved as
+     * class names.
+     */
+    private volatile boolean classNameResolution = false;
+
+    /**
+     * Class loader used to load classes given by type names.
+     */
+    private volatile ClassLoader classLoader;
+
+    /**
+     * Constructs an empty registry.
+     */
+    public PropertyTypeRegistry() {
+	classLoader = PropertyTypeRegistry.class.getClassLoader();
+    }
+
+    /**
+     * Registers a factory of property types. A factory registered for the
+     * same type name is replaced.
+     * 
+     * @param factory
+     *            the factory.
+     */
+    public void register(PropertyTypeFactory factory) {
+	String typeName = factory.getTypeName();
+	lazyFactories.remove(typeName);
+	factories.put(typeName, factory);
+	invalidateCaches();
+    }
+
+    /**
+     * Registers a factory of property types given by the name of factory
+     * class. The class is loaded by the class loader of registry when the
+     * factory is used for the first time.
+     * 
+     * @param typeName
+     *            the name of property type.
+     * @param factoryClassName
+     *            the fully qualified name of factory class with a public
+     *            no-argument constructor.
+     */
+    public void register(String typeName, String factoryClassName) {
+	register(typeName, factoryClassName, classLoader);
+    }
+
+    /**
+     * Registers a factory of property types given by the name of factory
+     * class. The class is loaded when the factory is used for the first time.
+     * 
+     * @param typeName
+     *            the name of property type.
+     * @param factoryClassName
+     *            the fully qualified name of factory class with a public
+     *            no-argument constructor.
+     * @param classLoader
+     *            the class loader used to load the factory class.
+     */
+    public void register(String typeName, String factoryClassName, ClassLoader classLoader) {
+	register(typeName, factoryClassName, null, classLoader);
+    }
+
+    /**
+     * Registers a factory of property types given by the name of factory
+     * class. The class is loaded when the factory is used for the first time.
+     * The name of the class of created property types allows to describe
+     * property types without loading of other lazily registered factories.
+     * 
+     * @param typeName
+     *            the name of property type.
+     * @param factoryClassName
+     *            the fully qualified name of factory class with a public
+     *            no-argument constructor.
+     * @param typeClassName
+     *            the fully qualified name of the class of created property
+     *            types or null, if it is not known.
+     * @param classLoader
+     *            the class loader used to load the factory class.
+     */
+    public void register(String typeName, String factoryClassName, String typeClassName,
+	    ClassLoader classLoader) {
+	factories.remove(typeName);
+	lazyFactories.put(typeName, new LazyFactory(factoryClassName, typeClassName,
+		classLoader));
+	invalidateCaches();
+    }
+
+    /**
+     * Registers all factories of property types provided as services by
+     * {@link ServiceLoader}. Factories must be listed in resources
+     * META-INF/services/sk.gbox.swing.propertiespanel.types.PropertyTypeFactory.
+     * 
+     * @param classLoader
+     *            the class loader used to locate and load providers.
+     */
+    public void registerServices(ClassLoader classLoader) {
+	for (PropertyTypeFactory factory : ServiceLoader.load(PropertyTypeFactory.class,
+		classLoader)) {
+	    register(factory);
+	}
+    }
+
+    /**
+     * Unregisters the factory of property types with given name.
+     * 
+     * @param typeName
+     *            the name of property type.
+     */
+    public void unregister(String typeName) {
+	boolean removed = (factories.remove(typeName) != null);
+	removed |= (lazyFactories.remove(typeName) != null);
+	if (removed) {
+	    invalidateCaches();
+	}
+    }
+
+    /**
+     * Returns the factory registered for given type name. Factory registered
+     * by its class name is instantiated.
+     * 
+     * @param typeName
+     *            the name of property type.
+     * @return the factory or null, if no factory is registered.
+     */
+    public PropertyTypeFactory getFactory(String typeName) {
+	PropertyTypeFactory result = factories.get(typeName);
+	if (result != null) {
+	    return result;
+	}
+
+	LazyFactory lazyFactory = lazyFactories.get(typeName);
+	if (lazyFactory != null) {
+	    Class<?> factoryClass = loadClass(lazyFactory.className, lazyFactory.classLoader);
+	    if (factoryClass == null) {
+		throw new InvalidConfigurationException("Class " + lazyFactory.className
+			+ " of property type factory not found.");
+	    }
+
+	    if (!PropertyTypeFactory.class.isAssignableFrom(factoryClass)) {
+		throw new InvalidConfigurationException("Class " + lazyFactory.className
+			+ " is not a factory of property types.");
+	    }
+
+	    result = (PropertyTypeFactory) invokeConstructor(getConstructor(factoryClass),
+		    lazyFactory.className);
+	    PropertyTypeFactory registered = factories.putIfAbsent(typeName, result);
+	    lazyFactories.remove(typeName, lazyFactory);
+	    return (registered != null) ? registered : result;
+	}
+
+	return null;
+    }
+
+    /**
+     * Returns names of registered property types.
+     * 
+     * @return the set of type names.
+     */
+    public Set<String> getTypeNames() {
+	Set<String> result = new HashSet<String>(factories.keySet());
+	result.addAll(lazyFactories.keySet());
+	return Collections.unmodifiableSet(result);
+    }
+
+    @Override
+    public PropertyType resolvePropertyType(String name, Map<String, Object> parameters) {
+	PropertyTypeFactory factory = getFactory(name);
+	if ((factory == null) && classNameResolution) {
+	    factory = resolveFactoryByClassName(name);
+	}
+
+	if (factory == null) {
+	    return null;
+	}
+
+	ParameterSchema.Values values = factory.getParameterSchema().parse(parameters);
+	if (values == null) {
+	    return null;
+	}
+
+	if (!typeInterning) {
+	    return createPropertyType(factory, values);
+	}
+
+	List<Object> key = Arrays.<Object> asList(name, values);
+	PropertyType result = canonicalTypes.get(key);
+	if (result == null) {
+	    result = createPropertyType(factory, values);
+	    if (result != null) {
+		PropertyType canonical = canonicalTypes.putIfAbsent(key, result);
+		if (canonical != null) {
+		    result = canonical;
+		}
+	    }
+	}
+
+	return result;
+    }
+
+    /**
+     * Creates a property type by a factory and remembers the factory as the
+     * describer of created type.
+     */
+    private PropertyType createPropertyType(PropertyTypeFactory factory,
+	    ParameterSchema.Values values) {
+	PropertyType result = factory.createPropertyType(values);
+	if ((result != null) && (result.getClass() == factory.getTypeClass())) {
+	    factoriesByTypeClass.putIfAbsent(result.getClass(), factory);
+	}
+
+	return result;
+    }
+
+    /**
+     * Resolves a type name as the name of a factory class or of a property
+     * type class. Resolved factories are registered, failures are remembered.
+     * 
+     * @param className
+     *            the fully qualified name of class.
+     * @return the factory, or null, if no suitable class is found.
+     */
+    @SuppressWarnings("unchecked")
+    private PropertyTypeFactory resolveFactoryByClassName(String className) {
+	if ((className.indexOf('.') < 0) || unresolvableClassNames.contains(className)) {
+	    return null;
+	}
+
+	Class<?> loadedClass = loadClass(className, classLoader);
+	MethodHandle constructor = null;
+	if (loadedClass != null) {
+	    constructor = getConstructor(loadedClass);
+	}
+
+	PropertyTypeFactory result = null;
+	if (constructor != null) {
+	    if (PropertyTypeFactory.class.isAssignableFrom(loadedClass)) {
+		result = (PropertyTypeFactory) invokeConstructor(constructor, className);
+	    } else if (PropertyType.class.isAssignableFrom(loadedClass)) {
+		result = new ClassPropertyTypeFactory((Class<? extends PropertyType>) loadedClass,
+			constructor);
+	    }
+	}
+
+	if (result == null) {
+	    unresolvableClassNames.add(className);
+	    return null;
+	}
+
+	PropertyTypeFactory registered = factories.putIfAbsent(className, result);
+	return (registered != null) ? registered : result;
+    }
+
+    @Override
+    public String describePropertyType(PropertyType type, Map<String, Object> parameters) {
+	Class<?> typeClass = type.getClass();
+	PropertyTypeFactory factory = factoriesByTypeClass.get(typeClass);
+	if (factory == null) {
+	    factory = findFactory(typeClass);
+	    if (factory != null) {
+		factoriesByTypeClass.putIfAbsent(typeClass, factory);
+	    }
+	}
+
+	if (factory == null) {
+	    return null;
+	}
+
+	factory.describeParameters(type, parameters);
+	return factory.getTypeName();
+    }
+
+    /**
+     * Finds the factory of property types of given class. Lazily registered
+     * factories are instantiated only if they are registered for the class
+     * or, if no such factory exists, if their type class is not known.
+     * 
+     * @param typeClass
+     *            the class of property types.
+     * @return the factory or null, if no factory creates property types of
+     *         the class.
+     */
+    private PropertyTypeFactory findFactory(Class<?> typeClass) {
+	for (PropertyTypeFactory factory : factories.values()) {
+	    if (factory.getTypeClass() == typeClass) {
+		return factory;
+	    }
+	}
+
+	List<String> unknownTypeNames = new ArrayList<String>();
+	for (Map.Entry<String, LazyFactory> entry : lazyFactories.entrySet()) {
+	    String typeClassName = entry.getValue().typeClassName;
+	    if (typeClassName == null) {
+		unknownTypeNames.add(entry.getKey());
+	    } else if (typeClassName.equals(typeClass.getName())) {
+		PropertyTypeFactory factory = getUsableFactory(entry.getKey());
+		if ((factory != null) && (factory.getTypeClass() == typeClass)) {
+		    return factory;
+		}
+	    }
+	}
+
+	for (String typeName : unknownTypeNames) {
+	    PropertyTypeFactory factory = getUsableFactory(typeName);
+	    if ((factory != null) && (factory.getTypeClass() == typeClass)) {
+		return factory;
+	    }
+	}
+
+	return null;
+    }
+
+    /**
+     * Returns the factory registered for given type name or null, if the
+     * factory cannot be instantiated. Unusable factories cannot describe any
+     * property type.
+     */
+    private PropertyTypeFactory getUsableFactory(String typeName) {
+	try {
+	    return getFactory(typeName);
+	} catch (InvalidConfigurationException e) {
+	    return null;
+	}
+    }
+
+    /**
+     * Returns whether resolved property types are interned.
+     * 
+     * @return true, if equal type declarations resolve to a single instance of
+     *         property type, false otherwise.
+     */
+    public boolean isTypeInterning() {
+	return typeInterning;
+    }
+
+    /**
+     * Sets whether resolved property types are interned. Interning is
+     * disabled by default. It requires that created property types are
+     * immutable, since a single instance is shared by all properties with
+     * equal type declaration.
+     * 
+     * @param typeInterning
+     *            true, if equal type declarations should resolve to a single
+     *            instance of property type, false otherwise.
+     */
+    public void setTypeInterning(boolean typeInterning) {
+	this.typeInterning = typeInterning;
+	canonicalTypes.clear();
+    }
+
+    /**
+     * Returns whether type names that are not registered are resolved as
+     * class names.
+     * 
+     * @return true, if class names are resolved, false otherwise.
+     */
+    public boolean isClassNameResolution() {
+	return classNameResolution;
+    }
+
+    /**
+     * Sets whether type names that are not registered are resolved as class
+     * names. Resolution of class names is disabled by default, since it lets
+     * configurations instantiate any class with a public no-argument
+     * constructor.
+     * 
+     * @param classNameResolution
+     *            true, if class names are resolved, false otherwise.
+     */
+    public void setClassNameResolution(boolean classNameResolution) {
+	this.classNameResolution = classNameResolution;
+	invalidateCaches();
+    }
+
+    /**
+     * Returns the class loader used to load classes given by names.
+     * 
+     * @return the class loader.
+     */
+    public ClassLoader getClassLoader() {
+	return classLoader;
+    }
+
+    /**
+     * Sets the class loader used to load classes given by names.
+     * 
+     * @param classLoader
+     *            the desired class loader.
+     */
+    public void setClassLoader(ClassLoader classLoader) {
+	this.classLoader = classLoader;
+	unresolvableClassNames.clear();
+    }
+
+    /**
+     * Invalidates memoized property types and mappings of type classes.
+     */
+    private void invalidateCaches() {
+	canonicalTypes.clear();
+	factoriesByTypeClass.clear();
+	unresolvableClassNames.clear();
+    }
+
+    /**
+     * Loads a class without its initialization.
+     * 
+     * @return the class or null, if the class is not found.
+     */
+    private static Class<?> loadClass(String className, ClassLoader classLoader) {
+	try {
+	    return Class.forName(className, false, classLoader);
+	} catch (ClassNotFoundException | LinkageError e) {
+	    return null;
+	}
+    }
+
+    /**
+     * Returns the cached public no-argument constructor of a class.
+     * 
+     * @return the constructor or null, if the class has no such constructor.
+     */
+    private MethodHandle getConstructor(Class<?> cls) {
+	MethodHandle result = constructors.get(cls);
+	if (result == null) {
+	    try {
+		result = MethodHandles.publicLookup().findConstructor(cls,
+			MethodType.methodType(void.class));
+	    } catch (NoSuchMethodException | IllegalAccessException e) {
+		return null;
+	    }
+
+	    MethodHandle cached = constructors.putIfAbsent(cls, result);
+	    if (cached != null) {
+		result = cached;
+	    }
+	}
+
+	return result;
+    }
+
+    /**
+     * Invokes a no-argument constructor.
+     */
+    private static Object invokeConstructor(MethodHandle constructor, String className) {
+	if (constructor == null) {
+	    throw new InvalidConfigurationException("Class " + className
+		    + " has no public no-argument constructor.");
+	}
+
+	try {
+	    return constructor.invoke();
+	} catch (RuntimeException | Error e) {
+	    throw e;
+	} catch (Throwable e) {
+	    throw new InvalidConfigurationException("Instance of class " + className
+		    + " could not be created.", e);
+	}
+    }
+}
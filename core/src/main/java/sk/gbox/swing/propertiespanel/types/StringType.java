@@ -0,0 +1,19 @@
+package sk.gbox.swing.propertiespanel.types;
+
+import sk.gbox.swing.propertiespanel.*;
+
+/**
+ * Property type for string values.
+ */
+public class StringType extends SimplePropertyType {
+
+    @Override
+    public boolean isReadOnly() {
+	return false;
+    }
+
+    @Override
+    public boolean isAssignableValue(Object value) {
+	return (value == null) || (value instanceof String);
+    }
+}
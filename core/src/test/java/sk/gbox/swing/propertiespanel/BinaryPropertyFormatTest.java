@@ -0,0 +1,118 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+import junit.framework.TestCase;
+import sk.gbox.swing.propertiespanel.XmlPropertyBuilder.PropertyTypeResolver;
+import sk.gbox.swing.propertiespanel.types.DefaultPropertyTypeResolver;
+
+/**
+ * Tests of {@link BinaryPropertyFormat}.
+ */
+public class BinaryPropertyFormatTest extends TestCase {
+
+    private static final String XML = "<properties label=\"Root\">"
+	    + "<property name=\"count\"><label>Count</label><hint>Number of items.</hint>"
+	    + "<type name=\"Integer\"><parameter name=\"minValue\" value=\"0\" />"
+	    + "<parameter name=\"maxValue\" value=\"5\" /></type></property></properties>";
+
+    private File directory;
+
+    private File xmlFile;
+
+    private File cacheFile;
+
+    private BinaryPropertyFormat format;
+
+    @Override
+    protected void setUp() throws Exception {
+	directory = Files.createTempDirectory("binary").toFile();
+	xmlFile = new File(directory, "properties.xml");
+	Files.write(xmlFile.toPath(), XML.getBytes(StandardCharsets.UTF_8));
+	cacheFile = new File(directory, "properties.bin");
+	DefaultPropertyTypeResolver resolver = new DefaultPropertyTypeResolver();
+	format = new BinaryPropertyFormat(resolver, resolver);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+	for (File file : directory.listFiles()) {
+	    file.delete();
+	}
+	directory.delete();
+    }
+
+    public void testCacheWrittenAndRead() throws Exception {
+	XmlPropertyBuilder builder = createBuilder();
+	ComposedProperty built = (ComposedProperty) format.load(xmlFile, cacheFile, builder);
+	assertTrue(cacheFile.isFile());
+	assertEquals(2, directory.listFiles().length);
+
+	long stamp = format.createSourceStamp(xmlFile, builder);
+	ComposedProperty cached = (ComposedProperty) format.read(cacheFile, stamp);
+	assertNotNull(cached);
+	assertEquals(built.getLabel(), cached.getLabel());
+	Property count = cached.getSubproperties().get(0);
+	assertEquals("Count", count.getLabel());
+	assertEquals("Number of items.", count.getHint());
+	assertEquals(built.getSubproperties().get(0).getValue(), count.getValue());
+    }
+
+    public void testCacheStaleWhenConfigurationChanges() throws Exception {
+	XmlPropertyBuilder builder = createBuilder();
+	format.load(xmlFile, cacheFile, builder);
+	long stamp = format.createSourceStamp(xmlFile, builder);
+
+	format.setConfigurationStamp(1);
+	long configuredStamp = format.createSourceStamp(xmlFile, builder);
+	assertFalse(stamp == configuredStamp);
+	assertNull(format.read(cacheFile, configuredStamp));
+
+	builder.addPropertyTypeResolver(new PropertyTypeResolver() {
+	    @Override
+	    public PropertyType resolvePropertyType(String name, Map<String, Object> parameters) {
+		return null;
+	    }
+	});
+	long resolverStamp = format.createSourceStamp(xmlFile, builder);
+	assertFalse(configuredStamp == resolverStamp);
+	assertNull(format.read(cacheFile, resolverStamp));
+
+	format.load(xmlFile, cacheFile, builder);
+	assertNotNull(format.read(cacheFile, resolverStamp));
+    }
+
+    public void testWriteReplacesMappedFile() throws Exception {
+	XmlPropertyBuilder builder = createBuilder();
+	Property built = format.load(xmlFile, cacheFile, builder);
+	long stamp = format.createSourceStamp(xmlFile, builder);
+	Property mapped = format.read(cacheFile, stamp);
+
+	built.setLabel("Changed");
+	format.write(built, stamp, cacheFile);
+
+	assertEquals("Root", mapped.getLabel());
+	assertEquals("Changed", format.read(cacheFile, stamp).getLabel());
+	assertEquals(2, directory.listFiles().length);
+    }
+
+    public void testFailedWriteReported() throws Exception {
+	Property built = format.load(xmlFile, cacheFile, createBuilder());
+	File missingDirectory = new File(directory, "missing");
+	try {
+	    format.write(built, 0, new File(missingDirectory, "properties.bin"));
+	    fail("Writing to a missing directory succeeded.");
+	} catch (IOException expected) {
+	    // the temporary file cannot be created
+	}
+    }
+
+    private static XmlPropertyBuilder createBuilder() {
+	XmlPropertyBuilder builder = new XmlPropertyBuilder();
+	builder.setDefaultPropertyTypeResolver(new DefaultPropertyTypeResolver());
+	return builder;
+    }
+}
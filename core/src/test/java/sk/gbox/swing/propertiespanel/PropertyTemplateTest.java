@@ -0,0 +1,84 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.xml.sax.InputSource;
+
+import sk.gbox.swing.propertiespanel.types.DefaultPropertyTypeResolver;
+
+/**
+ * Tests of {@link PropertyTemplate} compiled by {@link XmlPropertyBuilder}.
+ */
+public class PropertyTemplateTest extends TestCase {
+
+    private static final String XML = "<properties label=\"Root\" hint=\"Root hint\">"
+	    + "<property name=\"name\" type=\"String\" important=\"true\"><label>Name</label>"
+	    + "<hint title=\"Title\">Hint</hint><value>John</value></property>"
+	    + "<property name=\"count\" readonly=\"true\"><type name=\"Integer\">"
+	    + "<parameter name=\"maxValue\" value=\"9\" /></type><value>7</value></property>"
+	    + "<property name=\"group\"><label>Group</label><subproperties>"
+	    + "<property name=\"enabled\" type=\"Boolean\" />"
+	    + "<property name=\"nested\"><subproperties>"
+	    + "<property name=\"ratio\" type=\"Decimal\"><value>0.5</value></property>"
+	    + "</subproperties></property>"
+	    + "</subproperties></property></properties>";
+
+    public void testInstanceEqualsBuiltTree() throws Exception {
+	XmlPropertyBuilder builder = createBuilder();
+	String built = PropertyTrees.describe(builder.createProperties(new StringReader(XML)));
+
+	PropertyTemplate template = builder.compileTemplate(new StringReader(XML));
+	assertEquals(built, PropertyTrees.describe(template.instantiate()));
+
+	PropertyTemplate parsedTemplate = builder.compileTemplate(XmlPropertyBuilder
+		.createDocumentBuilderFactory().newDocumentBuilder()
+		.parse(new InputSource(new StringReader(XML))));
+	assertEquals(built, PropertyTrees.describe(parsedTemplate.instantiate()));
+    }
+
+    public void testInstancesShareNoProperties() {
+	PropertyTemplate template = createBuilder().compileTemplate(new StringReader(XML));
+	Property first = template.instantiate();
+	Property second = template.instantiate();
+
+	Set<Property> firstProperties = Collections
+		.newSetFromMap(new IdentityHashMap<Property, Boolean>());
+	collectProperties(first, firstProperties);
+	Set<Property> secondProperties = Collections
+		.newSetFromMap(new IdentityHashMap<Property, Boolean>());
+	collectProperties(second, secondProperties);
+	assertEquals(7, firstProperties.size());
+	assertEquals(firstProperties.size(), secondProperties.size());
+
+	for (Property property : secondProperties) {
+	    assertFalse(property.getName(), firstProperties.contains(property));
+	}
+
+	// Changes of an instance do not affect other instances
+	String description = PropertyTrees.describe(second);
+	Property name = ((ComposedProperty) first).getSubproperties().get(0);
+	name.setValue("Jane");
+	name.setLabel("Changed");
+	assertEquals(description, PropertyTrees.describe(second));
+    }
+
+    private static void collectProperties(Property property, Set<Property> result) {
+	result.add(property);
+	if (property instanceof ComposedProperty) {
+	    for (Property subproperty : ((ComposedProperty) property).getSubproperties()) {
+		collectProperties(subproperty, result);
+	    }
+	}
+    }
+
+    private static XmlPropertyBuilder createBuilder() {
+	XmlPropertyBuilder builder = new XmlPropertyBuilder();
+	builder.setDefaultPropertyTypeResolver(new DefaultPropertyTypeResolver());
+	return builder;
+    }
+}
@@ -0,0 +1,140 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.util.Collections;
+import java.util.Map;
+
+import junit.framework.TestCase;
+import sk.gbox.swing.propertiespanel.types.DefaultPropertyTypeResolver;
+import sk.gbox.swing.propertiespanel.types.IntegerType;
+import sk.gbox.swing.propertiespanel.types.StringType;
+
+/**
+ * Tests of {@link PropertyTreeMerger}.
+ */
+public class PropertyTreeMergerTest extends TestCase {
+
+    /**
+     * Composed property type whose values are maps of subvalues.
+     */
+    private static class MapType extends ComposedPropertyType {
+
+	@Override
+	public boolean isReadOnly() {
+	    return false;
+	}
+
+	@Override
+	public boolean isAssignableValue(Object value) {
+	    return (value == null) || (value instanceof Map);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Map<String, Object> splitToSubvalues(Object value) {
+	    return (value != null) ? (Map<String, Object>) value : Collections
+		    .<String, Object> emptyMap();
+	}
+    }
+
+    public void testEquallyDescribedTypeKept() {
+	ComposedProperty target = createRoot(createProperty("count", new IntegerType(0, 10)));
+	Property count = target.getSubproperties().get(0);
+	count.setValue(7L);
+	ComposedProperty definition = createRoot(createProperty("count", new IntegerType(0, 10)));
+
+	assertFalse(PropertyTreeMerger.merge(target, definition,
+		new DefaultPropertyTypeResolver()));
+	assertSame(count, target.getSubproperties().get(0));
+	assertEquals(7L, count.getValue());
+    }
+
+    public void testChangedTypeReplaced() {
+	ComposedProperty target = createRoot(createProperty("count", new IntegerType(0, 10)));
+	target.getSubproperties().get(0).setValue(7L);
+	Property replacement = createProperty("count", new IntegerType(0, 5));
+	ComposedProperty definition = createRoot(replacement);
+
+	assertTrue(PropertyTreeMerger.merge(target, definition,
+		new DefaultPropertyTypeResolver()));
+	assertSame(replacement, target.getSubproperties().get(0));
+	assertEquals(0L, replacement.getValue());
+    }
+
+    public void testSubpropertiesOfReplacedComposedPropertyMerged() {
+	ComposedProperty group = new ComposedProperty(new MapType());
+	group.setName("group");
+	Property name = createProperty("name", new StringType());
+	group.getSubproperties().add(name);
+	ComposedProperty target = createRoot(group);
+	name.setValue("live");
+
+	ComposedProperty newGroup = new ComposedProperty(new MapType());
+	newGroup.setName("group");
+	newGroup.getSubproperties().add(createProperty("name", new StringType()));
+	newGroup.getSubproperties().add(createProperty("added", new StringType()));
+	ComposedProperty definition = createRoot(newGroup);
+
+	assertTrue(PropertyTreeMerger.merge(target, definition,
+		new DefaultPropertyTypeResolver()));
+	assertSame(newGroup, target.getSubproperties().get(0));
+	assertEquals(2, newGroup.getSubproperties().size());
+	assertSame(name, newGroup.getSubproperties().get(0));
+	assertEquals("live", name.getValue());
+	assertEquals("added", newGroup.getSubproperties().get(1).getName());
+    }
+
+    public void testSiblingsWithSameNameMatchedInOrder() {
+	ComposedProperty target = createRoot(createProperty("x", new StringType()));
+	Property first = target.getSubproperties().get(0);
+	Property second = createProperty("x", new StringType());
+	target.getSubproperties().add(second);
+	first.setValue("first");
+	second.setValue("second");
+
+	ComposedProperty definition = createRoot(createProperty("x", new StringType()));
+	definition.getSubproperties().get(0).setLabel("First");
+	Property secondDefinition = createProperty("x", new StringType());
+	secondDefinition.setLabel("Second");
+	definition.getSubproperties().add(secondDefinition);
+	Property added = createProperty("x", new StringType());
+	definition.getSubproperties().add(added);
+
+	DefaultPropertyTypeResolver describer = new DefaultPropertyTypeResolver();
+	assertTrue(PropertyTreeMerger.merge(target, definition, describer));
+	assertEquals(3, target.getSubproperties().size());
+	assertSame(first, target.getSubproperties().get(0));
+	assertSame(second, target.getSubproperties().get(1));
+	assertSame(added, target.getSubproperties().get(2));
+	assertEquals("First", first.getLabel());
+	assertEquals("Second", second.getLabel());
+	assertEquals("first", first.getValue());
+	assertEquals("second", second.getValue());
+
+	// Removal of a namesake keeps the first ones
+	definition = createRoot(createProperty("x", new StringType()));
+	assertTrue(PropertyTreeMerger.merge(target, definition, describer));
+	assertEquals(1, target.getSubproperties().size());
+	assertSame(first, target.getSubproperties().get(0));
+    }
+
+    public void testReadOnlyFlagNotClearedForUntypedRoot() {
+	ComposedProperty target = new ComposedProperty();
+	ComposedProperty definition = new ComposedProperty(new MapType());
+	assertFalse(definition.isReadOnly());
+
+	PropertyTreeMerger.merge(target, definition);
+	assertTrue(target.isReadOnly());
+    }
+
+    private static Property createProperty(String name, SimplePropertyType type) {
+	SimpleProperty result = new SimpleProperty(type, type.getDefaultValue());
+	result.setName(name);
+	return result;
+    }
+
+    private static ComposedProperty createRoot(Property property) {
+	ComposedProperty result = new ComposedProperty();
+	result.getSubproperties().add(property);
+	return result;
+    }
+}
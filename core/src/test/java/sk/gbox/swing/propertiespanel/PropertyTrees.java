@@ -0,0 +1,59 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import sk.gbox.swing.propertiespanel.types.DefaultPropertyTypeResolver;
+
+/**
+ * Helpers of tests comparing property trees.
+ */
+final class PropertyTrees {
+
+    private static final DefaultPropertyTypeResolver DESCRIBER = new DefaultPropertyTypeResolver();
+
+    private PropertyTrees() {
+
+    }
+
+    /**
+     * Returns a description of a property tree including all attributes,
+     * types and values of properties. Trees with equal descriptions are equal.
+     */
+    static String describe(Property property) {
+	StringBuilder result = new StringBuilder();
+	describe(property, result);
+	return result.toString();
+    }
+
+    private static void describe(Property property, StringBuilder output) {
+	output.append(property.getClass().getSimpleName());
+	output.append("(name=").append(property.getName());
+	output.append(", label=").append(property.getLabel());
+	output.append(", hint=").append(property.getHint());
+	output.append(", hintTitle=").append(property.getHintTitle());
+	output.append(", important=").append(property.isImportant());
+	output.append(", readOnly=").append(property.isReadOnly());
+
+	PropertyType type = property.getType();
+	if (type != null) {
+	    Map<String, Object> parameters = new LinkedHashMap<String, Object>();
+	    output.append(", type=").append(DESCRIBER.describePropertyType(type, parameters));
+	    output.append(new TreeMap<String, Object>(parameters));
+	    if (!(property instanceof ComposedProperty)) {
+		output.append(", value=").append(property.getValue());
+	    }
+	}
+	output.append(')');
+
+	if (property instanceof ComposedProperty) {
+	    output.append('[');
+	    for (Property subproperty : ((ComposedProperty) property).getSubproperties()) {
+		describe(subproperty, output);
+		output.append(',');
+	    }
+	    output.append(']');
+	}
+    }
+}
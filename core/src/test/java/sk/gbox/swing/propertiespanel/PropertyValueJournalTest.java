@@ -0,0 +1,101 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.io.*;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+import sk.gbox.swing.propertiespanel.types.BooleanType;
+import sk.gbox.swing.propertiespanel.types.StringType;
+
+/**
+ * Tests of {@link PropertyValueJournal}.
+ */
+public class PropertyValueJournalTest extends TestCase {
+
+    private static final int MAGIC = 0x50504A4E;
+
+    private static final int VERSION = 1;
+
+    private File directory;
+
+    private File snapshotFile;
+
+    private File journalFile;
+
+    @Override
+    protected void setUp() throws Exception {
+	directory = Files.createTempDirectory("journal").toFile();
+	snapshotFile = new File(directory, "values.snapshot");
+	journalFile = new File(directory, "values.journal");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+	for (File file : directory.listFiles()) {
+	    file.delete();
+	}
+	directory.delete();
+    }
+
+    public void testValuesReplayed() throws Exception {
+	ComposedProperty model = createModel();
+	PropertyValueJournal journal = new PropertyValueJournal(model, snapshotFile, journalFile);
+	journal.open();
+	model.getSubproperties().get(0).setValue("stored");
+	model.getSubproperties().get(1).setValue(Boolean.TRUE);
+	journal.close();
+
+	ComposedProperty reopened = createModel();
+	journal = new PropertyValueJournal(reopened, snapshotFile, journalFile);
+	journal.open();
+	assertEquals("stored", reopened.getSubproperties().get(0).getValue());
+	assertEquals(Boolean.TRUE, reopened.getSubproperties().get(1).getValue());
+	journal.close();
+    }
+
+    public void testUnknownTagStopsReplay() throws Exception {
+	try (DataOutputStream output = new DataOutputStream(new FileOutputStream(journalFile))) {
+	    output.writeInt(MAGIC);
+	    output.writeInt(VERSION);
+	    writeStringRecord(output, "first");
+	    output.writeShort(1);
+	    output.writeUTF("name");
+	    output.writeByte(99);
+	    writeStringRecord(output, "second");
+	}
+
+	ComposedProperty model = createModel();
+	PropertyValueJournal journal = new PropertyValueJournal(model, snapshotFile, journalFile);
+	journal.open();
+	assertEquals("first", model.getSubproperties().get(0).getValue());
+	assertTrue(snapshotFile.isFile());
+	assertEquals(8, journalFile.length());
+	journal.close();
+
+	ComposedProperty reopened = createModel();
+	journal = new PropertyValueJournal(reopened, snapshotFile, journalFile);
+	journal.open();
+	assertEquals("first", reopened.getSubproperties().get(0).getValue());
+	journal.close();
+    }
+
+    private static void writeStringRecord(DataOutputStream output, String value)
+	    throws IOException {
+	output.writeShort(1);
+	output.writeUTF("name");
+	output.writeByte(1);
+	output.writeUTF(value);
+    }
+
+    private static ComposedProperty createModel() {
+	SimpleProperty name = new SimpleProperty(new StringType(), null);
+	name.setName("name");
+	SimpleProperty enabled = new SimpleProperty(new BooleanType(), Boolean.FALSE);
+	enabled.setName("enabled");
+
+	ComposedProperty result = new ComposedProperty();
+	result.getSubproperties().add(name);
+	result.getSubproperties().add(enabled);
+	return result;
+    }
+}
@@ -0,0 +1,217 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.xml.parsers.DocumentBuilder;
+
+import junit.framework.TestCase;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import sk.gbox.swing.propertiespanel.XmlPropertyBuilder.InvalidConfigurationException;
+import sk.gbox.swing.propertiespanel.types.DefaultPropertyTypeResolver;
+import sk.gbox.swing.propertiespanel.types.IntegerType;
+
+/**
+ * Tests of {@link XmlPropertyBuilder}.
+ */
+public class XmlPropertyBuilderTest extends TestCase {
+
+    private static final String SECRET = "secret content";
+
+    private File secretFile;
+
+    @Override
+    protected void setUp() throws Exception {
+	secretFile = File.createTempFile("secret", ".txt");
+	Files.write(secretFile.toPath(), SECRET.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+	secretFile.delete();
+    }
+
+    public void testStreamRejectsExternalEntities() {
+	XmlPropertyBuilder builder = createBuilder();
+	try {
+	    ComposedProperty properties = (ComposedProperty) builder
+		    .createProperties(new StringReader(createXxeDocument()));
+	    fail("Document with undeclared entity was accepted, label: "
+		    + properties.getSubproperties().get(0).getLabel());
+	} catch (InvalidConfigurationException expected) {
+	    // the undeclared entity is rejected
+	}
+    }
+
+    public void testDocumentBuilderRejectsDoctype() throws Exception {
+	DocumentBuilder parser = XmlPropertyBuilder.createDocumentBuilderFactory()
+		.newDocumentBuilder();
+	try {
+	    parser.parse(new InputSource(new StringReader(createXxeDocument())));
+	    fail("Document type declaration was accepted.");
+	} catch (SAXException expected) {
+	    // document type declarations are not allowed
+	}
+    }
+
+    public void testStreamAndDocumentBuildEqualTrees() throws Exception {
+	String xml = "<properties label=\"Root\"><property name=\"name\" type=\"String\">"
+		+ "<label>Name</label><hint>Hint &amp; more</hint></property></properties>";
+	XmlPropertyBuilder builder = createBuilder();
+	ComposedProperty streamed = (ComposedProperty) builder.createProperties(new StringReader(
+		xml));
+	ComposedProperty parsed = (ComposedProperty) builder
+		.createProperties(XmlPropertyBuilder.createDocumentBuilderFactory()
+			.newDocumentBuilder().parse(new InputSource(new StringReader(xml))));
+
+	assertEquals("Root", streamed.getLabel());
+	assertEquals(parsed.getLabel(), streamed.getLabel());
+	Property streamedName = streamed.getSubproperties().get(0);
+	Property parsedName = parsed.getSubproperties().get(0);
+	assertEquals("Hint & more", streamedName.getHint());
+	assertEquals(parsedName.getHint(), streamedName.getHint());
+	assertEquals(parsedName.getLabel(), streamedName.getLabel());
+    }
+
+    public void testParallelBuildEqualsSequentialBuild() {
+	ForkJoinPool pool = new ForkJoinPool(2);
+	try {
+	    // The small document is built sequentially, the large one by tasks
+	    for (int leaves : new int[] { 3, 400 }) {
+		String xml = createDocument(4, leaves);
+		XmlPropertyBuilder builder = createBuilder();
+		Property sequential = builder.createProperties(new StringReader(xml));
+		builder.setParallelBuildPool(pool);
+		Property parallel = builder.createProperties(new StringReader(xml));
+		assertEquals(describe(sequential), describe(parallel));
+	    }
+	} finally {
+	    pool.shutdown();
+	}
+    }
+
+    public void testReferencesOverrideAttributes() throws Exception {
+	String xml = "<properties><define id=\"address\"><property name=\"address\">"
+		+ "<label>Address</label><hint title=\"Address title\">Address hint</hint>"
+		+ "<subproperties><property name=\"street\" type=\"String\">"
+		+ "<value>Main</value></property></subproperties></property></define>"
+		+ "<use ref=\"address\" />"
+		+ "<use ref=\"address\" name=\"billing\" label=\"Billing\" hint=\"Billing hint\""
+		+ " hintTitle=\"Billing title\" /></properties>";
+	XmlPropertyBuilder builder = createBuilder();
+	ComposedProperty streamed = (ComposedProperty) builder.createProperties(new StringReader(
+		xml));
+	assertEquals(PropertyTrees.describe(streamed),
+		PropertyTrees.describe(createPropertiesFromDocument(builder, xml)));
+
+	assertEquals(2, streamed.getSubproperties().size());
+	Property address = streamed.getSubproperties().get(0);
+	assertEquals("address", address.getName());
+	assertEquals("Address", address.getLabel());
+	assertEquals("Address hint", address.getHint());
+	assertEquals("Address title", address.getHintTitle());
+
+	Property billing = streamed.getSubproperties().get(1);
+	assertEquals("billing", billing.getName());
+	assertEquals("Billing", billing.getLabel());
+	assertEquals("Billing hint", billing.getHint());
+	assertEquals("Billing title", billing.getHintTitle());
+
+	// Subproperties are not overridden and not shared
+	Property street = ((ComposedProperty) billing).getSubproperties().get(0);
+	assertEquals("street", street.getName());
+	assertEquals("Main", street.getValue());
+	assertNotSame(((ComposedProperty) address).getSubproperties().get(0), street);
+    }
+
+    public void testDuplicatedDefinitionRejected() throws Exception {
+	assertRejected("<properties><define id=\"a\"><property name=\"x\" type=\"String\" />"
+		+ "</define><define id=\"a\"><property name=\"y\" type=\"String\" />"
+		+ "</define></properties>", "Duplicated definition \"a\".");
+    }
+
+    public void testReferenceBeforeDefinitionRejected() throws Exception {
+	assertRejected("<properties><use ref=\"a\" /><define id=\"a\">"
+		+ "<property name=\"x\" type=\"String\" /></define></properties>",
+		"Reference to undefined fragment \"a\".");
+    }
+
+    public void testUndefinedReferenceRejected() throws Exception {
+	assertRejected("<properties><define id=\"a\"><property name=\"x\" type=\"String\" />"
+		+ "</define><use ref=\"b\" /></properties>",
+		"Reference to undefined fragment \"b\".");
+    }
+
+    /**
+     * Checks that a document is rejected by both the streaming and the DOM
+     * processing with the same message.
+     */
+    private static void assertRejected(String xml, String message) throws Exception {
+	XmlPropertyBuilder builder = createBuilder();
+	try {
+	    builder.createProperties(new StringReader(xml));
+	    fail("Invalid document was accepted by the stream processing.");
+	} catch (InvalidConfigurationException expected) {
+	    assertEquals(message, expected.getMessage());
+	}
+
+	try {
+	    createPropertiesFromDocument(builder, xml);
+	    fail("Invalid document was accepted by the DOM processing.");
+	} catch (InvalidConfigurationException expected) {
+	    assertEquals(message, expected.getMessage());
+	}
+    }
+
+    private static Property createPropertiesFromDocument(XmlPropertyBuilder builder, String xml)
+	    throws Exception {
+	return builder.createProperties(XmlPropertyBuilder.createDocumentBuilderFactory()
+		.newDocumentBuilder().parse(new InputSource(new StringReader(xml))));
+    }
+
+    private static String createDocument(int groups, int leaves) {
+	StringBuilder result = new StringBuilder("<properties label=\"Root\">");
+	for (int group = 0; group < groups; group++) {
+	    result.append("<property name=\"group").append(group)
+		    .append("\"><label>Group</label><subproperties>");
+	    for (int leaf = 0; leaf < leaves; leaf++) {
+		result.append("<property name=\"p").append(leaf).append("\">");
+		result.append("<type name=\"Integer\"><parameter name=\"maxValue\" value=\"")
+			.append(leaf).append("\"/></type></property>");
+	    }
+	    result.append("</subproperties></property>");
+	}
+	return result.append("</properties>").toString();
+    }
+
+    private static String describe(Property property) {
+	StringBuilder result = new StringBuilder(String.valueOf(property.getName()));
+	if (property instanceof ComposedProperty) {
+	    result.append('[');
+	    for (Property subproperty : ((ComposedProperty) property).getSubproperties()) {
+		result.append(describe(subproperty)).append(',');
+	    }
+	    result.append(']');
+	} else {
+	    result.append(':').append(((IntegerType) property.getType()).getMaxValue());
+	}
+	return result.toString();
+    }
+
+    private String createXxeDocument() {
+	return "<?xml version=\"1.0\"?>\n<!DOCTYPE properties [<!ENTITY xxe SYSTEM \""
+		+ secretFile.toURI() + "\">]>\n<properties><property name=\"name\" type=\"String\">"
+		+ "<label>&xxe;</label></property></properties>";
+    }
+
+    private static XmlPropertyBuilder createBuilder() {
+	XmlPropertyBuilder builder = new XmlPropertyBuilder();
+	builder.setDefaultPropertyTypeResolver(new DefaultPropertyTypeResolver());
+	return builder;
+    }
+}
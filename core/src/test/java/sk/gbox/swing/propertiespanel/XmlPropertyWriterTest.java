@@ -0,0 +1,90 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Map;
+
+import junit.framework.TestCase;
+import sk.gbox.swing.propertiespanel.BinaryPropertyFormat.PropertyTypeDescriber;
+import sk.gbox.swing.propertiespanel.XmlPropertyBuilder.InvalidConfigurationException;
+import sk.gbox.swing.propertiespanel.types.DefaultPropertyTypeResolver;
+
+/**
+ * Tests of {@link XmlPropertyWriter}.
+ */
+public class XmlPropertyWriterTest extends TestCase {
+
+    private static final String XML = "<properties label=\"Root\" hint=\"Root hint\">"
+	    + "<property name=\"name\" important=\"true\"><label>Name</label>"
+	    + "<hint title=\"Name title\">Name &amp; hint</hint>"
+	    + "<type name=\"String\" /><value>John</value></property>"
+	    + "<property name=\"nothing\"><hint title=\"Only title\" />"
+	    + "<type name=\"String\" /><value null=\"true\" /></property>"
+	    + "<property name=\"count\" readonly=\"true\"><type name=\"Integer\">"
+	    + "<parameter name=\"minValue\" value=\"0\" /><parameter name=\"maxValue\" value=\"9\" />"
+	    + "</type><value>7</value></property>"
+	    + "<property name=\"mode\"><type name=\"Enumeration\"><map name=\"items\">"
+	    + "<item key=\"fast\">Fast</item><item key=\"safe\">Safe &lt;slow&gt;</item>"
+	    + "</map></type><value>safe</value></property>"
+	    + "<property name=\"group\"><label>Group</label><subproperties>"
+	    + "<property name=\"enabled\" readonly=\"false\"><type name=\"Boolean\" />"
+	    + "<value>true</value></property>"
+	    + "<property><label>Unnamed</label><type name=\"Decimal\" /></property>"
+	    + "</subproperties></property></properties>";
+
+    public void testWrittenTreeBuildsEqualTree() {
+	XmlPropertyBuilder builder = createBuilder();
+	Property built = builder.createProperties(new StringReader(XML));
+	Property nothing = ((ComposedProperty) built).getSubproperties().get(1);
+	assertNull(nothing.getValue());
+	assertEquals("Only title", nothing.getHintTitle());
+	assertTrue(((ComposedProperty) built).getSubproperties().get(2).isReadOnly());
+
+	String written = write(built);
+	Property rebuilt = builder.createProperties(new StringReader(written));
+	assertEquals(PropertyTrees.describe(built), PropertyTrees.describe(rebuilt));
+
+	// The written tree is written again without changes
+	assertEquals(written, write(rebuilt));
+    }
+
+    public void testUnwritableValueRejected() {
+	SimpleProperty property = new SimpleProperty(new SimplePropertyType() {
+	    @Override
+	    public boolean isReadOnly() {
+		return false;
+	    }
+
+	    @Override
+	    public boolean isAssignableValue(Object value) {
+		return true;
+	    }
+	}, new Object());
+	property.setName("object");
+
+	XmlPropertyWriter writer = new XmlPropertyWriter(new PropertyTypeDescriber() {
+	    @Override
+	    public String describePropertyType(PropertyType type, Map<String, Object> parameters) {
+		return "Object";
+	    }
+	});
+	try {
+	    writer.write(property, new StringWriter());
+	    fail("Value that cannot be read back was written.");
+	} catch (InvalidConfigurationException expected) {
+	    assertTrue(expected.getMessage().contains("\"object\""));
+	}
+    }
+
+    private static String write(Property property) {
+	StringWriter result = new StringWriter();
+	new XmlPropertyWriter(new DefaultPropertyTypeResolver()).write(property, result);
+	return result.toString();
+    }
+
+    private static XmlPropertyBuilder createBuilder() {
+	XmlPropertyBuilder builder = new XmlPropertyBuilder();
+	builder.setDefaultPropertyTypeResolver(new DefaultPropertyTypeResolver());
+	return builder;
+    }
+}
@@ -0,0 +1,185 @@
+package sk.gbox.swing.propertiespanel.annotations;
+
+import java.io.*;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import javax.tools.*;
+
+import junit.framework.TestCase;
+import sk.gbox.swing.propertiespanel.ComposedProperty;
+import sk.gbox.swing.propertiespanel.Property;
+import sk.gbox.swing.propertiespanel.types.EnumerationType;
+import sk.gbox.swing.propertiespanel.types.IntegerType;
+
+/**
+ * Tests of {@link PropertyModelProcessor}. Model classes are compiled with the
+ * processor and the generated builders are loaded and executed.
+ */
+public class PropertyModelProcessorTest extends TestCase {
+
+    private File directory;
+
+    private DiagnosticCollector<JavaFileObject> diagnostics;
+
+    @Override
+    protected void setUp() throws Exception {
+	directory = File.createTempFile("models", "");
+	directory.delete();
+	directory.mkdirs();
+	diagnostics = new DiagnosticCollector<JavaFileObject>();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+	delete(directory);
+    }
+
+    public void testGeneratedModel() throws Exception {
+	writeSource("test/Settings.java", "package test;",
+		"import sk.gbox.swing.propertiespanel.annotations.*;",
+		"@PropertyModel(label = \"Settings\")", "public class Settings {",
+		"    public enum Mode { FAST, SAFE }",
+		"    @ModelProperty(label = \"Name\", hint = \"Name of item.\") String name;",
+		"    @ModelProperty @IntegerRange(min = 0, max = 10) int count;",
+		"    @ModelProperty(readOnly = true) Mode mode;",
+		"    @ModelProperty Nested nested;", "}");
+	writeSource("test/Nested.java", "package test;",
+		"import sk.gbox.swing.propertiespanel.annotations.*;", "@PropertyModel",
+		"public class Nested {", "    @ModelProperty boolean enabled;", "}");
+
+	assertTrue(diagnostics.getDiagnostics().toString(), compile());
+
+	ComposedProperty root = createProperties("test.SettingsPropertyModel");
+	assertEquals("Settings", root.getLabel());
+	List<Property> properties = root.getSubproperties();
+	assertEquals(4, properties.size());
+
+	assertEquals("name", properties.get(0).getName());
+	assertEquals("Name", properties.get(0).getLabel());
+	assertEquals("Name of item.", properties.get(0).getHint());
+
+	IntegerType countType = (IntegerType) properties.get(1).getType();
+	assertEquals(0, countType.getMinValue());
+	assertEquals(10, countType.getMaxValue());
+
+	assertTrue(properties.get(2).getType() instanceof EnumerationType);
+	assertTrue(properties.get(2).isReadOnly());
+
+	ComposedProperty nested = (ComposedProperty) properties.get(3);
+	assertEquals("nested", nested.getName());
+	assertEquals("enabled", nested.getSubproperties().get(0).getName());
+    }
+
+    public void testOnlyUsedClassesImported() throws Exception {
+	writeSource("test/Names.java", "package test;",
+		"import sk.gbox.swing.propertiespanel.annotations.*;", "@PropertyModel",
+		"public class Names {", "    @ModelProperty String first;",
+		"    @ModelProperty String last;", "}");
+
+	assertTrue(diagnostics.getDiagnostics().toString(), compile());
+
+	String source = readSource("test/NamesPropertyModel.java");
+	assertTrue(source.contains("import sk.gbox.swing.propertiespanel.types.StringType;"));
+	assertFalse(source.contains("IntegerType"));
+	assertFalse(source.contains("EnumerationType"));
+	assertFalse(source.contains("java.util"));
+    }
+
+    public void testCycleReported() throws Exception {
+	writeSource("test/First.java", "package test;",
+		"import sk.gbox.swing.propertiespanel.annotations.*;", "@PropertyModel",
+		"public class First {", "    @ModelProperty Second second;", "}");
+	writeSource("test/Second.java", "package test;",
+		"import sk.gbox.swing.propertiespanel.annotations.*;", "@PropertyModel",
+		"public class Second {", "    @ModelProperty First first;", "}");
+
+	assertFalse(compile());
+
+	int cycleErrors = 0;
+	for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+	    if ((diagnostic.getKind() == Diagnostic.Kind.ERROR)
+		    && diagnostic.getMessage(null).contains("references itself")) {
+		cycleErrors++;
+	    }
+	}
+	assertEquals(2, cycleErrors);
+    }
+
+    /**
+     * Compiles all written sources with the processor.
+     */
+    private boolean compile() throws IOException {
+	JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+	StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null,
+		StandardCharsets.UTF_8);
+	try {
+	    List<File> sources = new ArrayList<File>();
+	    collectSources(directory, sources);
+	    String classPath = new File(PropertyModel.class.getProtectionDomain().getCodeSource()
+		    .getLocation().getPath()).getPath();
+	    List<String> options = Arrays.asList("-classpath", classPath, "-d",
+		    directory.getPath(), "-s", directory.getPath());
+
+	    JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+		    options, null, fileManager.getJavaFileObjectsFromFiles(sources));
+	    task.setProcessors(Collections.singletonList(new PropertyModelProcessor()));
+	    return task.call();
+	} finally {
+	    fileManager.close();
+	}
+    }
+
+    /**
+     * Loads a compiled generated class and creates its properties.
+     */
+    private ComposedProperty createProperties(String className) throws Exception {
+	URLClassLoader classLoader = new URLClassLoader(new URL[] { directory.toURI().toURL() },
+		getClass().getClassLoader());
+	try {
+	    return (ComposedProperty) classLoader.loadClass(className)
+		    .getMethod("createProperties").invoke(null);
+	} finally {
+	    classLoader.close();
+	}
+    }
+
+    private void writeSource(String path, String... lines) throws IOException {
+	File file = new File(directory, path);
+	file.getParentFile().mkdirs();
+	try (Writer writer = new OutputStreamWriter(new FileOutputStream(file),
+		StandardCharsets.UTF_8)) {
+	    for (String line : lines) {
+		writer.write(line);
+		writer.write('\n');
+	    }
+	}
+    }
+
+    private String readSource(String path) throws IOException {
+	byte[] content = java.nio.file.Files.readAllBytes(new File(directory, path).toPath());
+	return new String(content, StandardCharsets.UTF_8);
+    }
+
+    private static void collectSources(File directory, List<File> sources) {
+	for (File file : directory.listFiles()) {
+	    if (file.isDirectory()) {
+		collectSources(file, sources);
+	    } else if (file.getName().endsWith(".java")) {
+		sources.add(file);
+	    }
+	}
+    }
+
+    private static void delete(File file) {
+	File[] children = file.listFiles();
+	if (children != null) {
+	    for (File child : children) {
+		delete(child);
+	    }
+	}
+	file.delete();
+    }
+}
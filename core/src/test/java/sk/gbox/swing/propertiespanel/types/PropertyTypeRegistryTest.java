@@ -0,0 +1,145 @@
+package sk.gbox.swing.propertiespanel.types;
+
+import java.util.*;
+
+import junit.framework.TestCase;
+import sk.gbox.swing.propertiespanel.PropertyType;
+
+/**
+ * Tests of {@link PropertyTypeRegistry} and {@link DefaultPropertyTypeResolver}.
+ */
+public class PropertyTypeRegistryTest extends TestCase {
+
+    /**
+     * Factory of boolean types counting its instances.
+     */
+    public static class BooleanFactory implements PropertyTypeFactory {
+
+	static int instanceCount;
+
+	public BooleanFactory() {
+	    instanceCount++;
+	}
+
+	@Override
+	public String getTypeName() {
+	    return "Flag";
+	}
+
+	@Override
+	public Class<? extends PropertyType> getTypeClass() {
+	    return BooleanType.class;
+	}
+
+	@Override
+	public ParameterSchema getParameterSchema() {
+	    return new ParameterSchema();
+	}
+
+	@Override
+	public PropertyType createPropertyType(ParameterSchema.Values parameters) {
+	    return new BooleanType();
+	}
+
+	@Override
+	public void describeParameters(PropertyType type, Map<String, Object> parameters) {
+
+	}
+    }
+
+    /**
+     * Factory of string types counting its instances.
+     */
+    public static class StringFactory implements PropertyTypeFactory {
+
+	static int instanceCount;
+
+	public StringFactory() {
+	    instanceCount++;
+	}
+
+	@Override
+	public String getTypeName() {
+	    return "Text";
+	}
+
+	@Override
+	public Class<? extends PropertyType> getTypeClass() {
+	    return StringType.class;
+	}
+
+	@Override
+	public ParameterSchema getParameterSchema() {
+	    return new ParameterSchema();
+	}
+
+	@Override
+	public PropertyType createPropertyType(ParameterSchema.Values parameters) {
+	    return new StringType();
+	}
+
+	@Override
+	public void describeParameters(PropertyType type, Map<String, Object> parameters) {
+
+	}
+    }
+
+    public void testInterningDisabledByDefault() {
+	DefaultPropertyTypeResolver resolver = new DefaultPropertyTypeResolver();
+	assertFalse(resolver.isTypeInterning());
+
+	PropertyType first = resolver.resolvePropertyType("Integer", range("0", "10"));
+	PropertyType second = resolver.resolvePropertyType("Integer", range("0", "10"));
+	assertNotSame(first, second);
+	assertEquals(10, ((IntegerType) second).getMaxValue());
+    }
+
+    public void testInterningUsesNormalizedParameters() {
+	DefaultPropertyTypeResolver resolver = new DefaultPropertyTypeResolver();
+	resolver.setTypeInterning(true);
+
+	Map<String, Object> explicitDefault = range("0", "10");
+	explicitDefault.put("nullable", "false");
+	PropertyType first = resolver.resolvePropertyType("Integer", range("0", "10"));
+	PropertyType second = resolver.resolvePropertyType("Integer", explicitDefault);
+	assertSame(first, second);
+	assertNotSame(first, resolver.resolvePropertyType("Integer", range("0", "20")));
+    }
+
+    public void testClassNameResolutionDisabledByDefault() {
+	PropertyTypeRegistry registry = new PropertyTypeRegistry();
+	assertFalse(registry.isClassNameResolution());
+	Map<String, Object> noParameters = Collections.emptyMap();
+	assertNull(registry.resolvePropertyType(StringType.class.getName(), noParameters));
+
+	registry.setClassNameResolution(true);
+	assertTrue(registry.resolvePropertyType(StringType.class.getName(), noParameters)
+		instanceof StringType);
+    }
+
+    public void testDescribeInstantiatesOnlyMatchingFactory() {
+	ClassLoader classLoader = getClass().getClassLoader();
+	PropertyTypeRegistry registry = new PropertyTypeRegistry();
+	registry.register("Flag", BooleanFactory.class.getName(), BooleanType.class.getName(),
+		classLoader);
+	registry.register("Text", StringFactory.class.getName(), StringType.class.getName(),
+		classLoader);
+	BooleanFactory.instanceCount = 0;
+	StringFactory.instanceCount = 0;
+
+	Map<String, Object> parameters = new HashMap<String, Object>();
+	assertEquals("Text", registry.describePropertyType(new StringType(), parameters));
+	assertEquals(1, StringFactory.instanceCount);
+	assertEquals(0, BooleanFactory.instanceCount);
+
+	assertNull(registry.describePropertyType(new IntegerType(), parameters));
+	assertEquals(0, BooleanFactory.instanceCount);
+    }
+
+    private static Map<String, Object> range(String min, String max) {
+	Map<String, Object> result = new HashMap<String, Object>();
+	result.put("minValue", min);
+	result.put("maxValue", max);
+	return result;
+    }
+}
@@ -11,10 +11,6 @@ import javax.swing.event.*;
 import javax.swing.GroupLayout.Alignment;
 import javax.swing.LayoutStyle.ComponentPlacement;
 import javax.swing.border.EmptyBorder;
-import javax.xml.parsers.*;
-
-import org.w3c.dom.*;
-import org.xml.sax.InputSource;
 
 import sk.gbox.swing.propertiespanel.*;
 import sk.gbox.swing.propertiespanel.types.*;
@@ -146,33 +142,12 @@ public class DemoFrame extends JFrame {
      * Creates and sets model from xml.
      */
     private void setModelFromXml() {
-	// Parse xml configuration
-	DocumentBuilder domParser = null;
-	try {
-	    domParser = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-	} catch (Exception e) {
-	    JOptionPane.showMessageDialog(this, "Could not create xml parser.", "Error",
-		    JOptionPane.ERROR_MESSAGE);
-
-	    return;
-	}
-
-	Document doc = null;
-	try {
-	    doc = domParser
-		    .parse(new InputSource(new StringReader(xmlConfigurationArea.getText())));
-	} catch (Exception e) {
-	    JOptionPane.showMessageDialog(this, "Could not parse xml configuration.", "Error",
-		    JOptionPane.ERROR_MESSAGE);
-
-	    return;
-	}
-
 	XmlPropertyBuilder builder = new XmlPropertyBuilder();
 	builder.setDefaultPropertyTypeResolver(new DefaultPropertyTypeResolver());
 
 	try {
-	    Property property = builder.createProperties(doc);
+	    Property property = builder.createProperties(new StringReader(xmlConfigurationArea
+		    .getText()));
 	    if (property instanceof ComposedProperty) {
 		propertiesPanel.setModel((ComposedProperty) property);
 	    } else {
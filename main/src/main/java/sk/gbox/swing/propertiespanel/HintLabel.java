@@ -0,0 +1,113 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.swing.JLabel;
+import javax.swing.plaf.basic.BasicHTML;
+import javax.swing.text.View;
+
+/**
+ * Label displaying HTML hints. Parsed HTML views of hints are cached in a
+ * bounded LRU cache, so that displaying of a recently displayed hint does not
+ * parse and lay out the HTML again.
+ */
+@SuppressWarnings("serial")
+class HintLabel extends JLabel {
+
+    /**
+     * Name of client property that disables HTML parsing in the label UI.
+     */
+    private static final String HTML_DISABLE_PROPERTY = "html.disable";
+
+    /**
+     * Maximal number of cached views.
+     */
+    private static final int MAX_CACHED_VIEWS = 64;
+
+    /**
+     * Parsed views of hints in access order.
+     */
+    private final Map<String, View> views = new LinkedHashMap<String, View>(16, 0.75f, true) {
+	@Override
+	protected boolean removeEldestEntry(Map.Entry<String, View> eldest) {
+	    return size() > MAX_CACHED_VIEWS;
+	}
+    };
+
+    /**
+     * Displayed hint.
+     */
+    private String hint;
+
+    /**
+     * Constructs the label.
+     */
+    public HintLabel() {
+	super("");
+	// Views are created by the label and not by its UI.
+	putClientProperty(HTML_DISABLE_PROPERTY, Boolean.TRUE);
+	addPropertyChangeListener(new PropertyChangeListener() {
+	    @Override
+	    public void propertyChange(PropertyChangeEvent evt) {
+		String name = evt.getPropertyName();
+		if ("font".equals(name) || "foreground".equals(name) || "UI".equals(name)) {
+		    // Cached views depend on font and color of the label
+		    views.clear();
+		    String currentHint = hint;
+		    hint = null;
+		    setHint(currentHint);
+		}
+	    }
+	});
+    }
+
+    /**
+     * Displays a hint.
+     * 
+     * @param hint
+     *            the hint in HTML without the html tag, or null, if no hint
+     *            should be displayed.
+     */
+    public void setHint(String hint) {
+	if ((hint != null) && (hint.equals(this.hint))) {
+	    return;
+	}
+
+	this.hint = hint;
+
+	// Detach the displayed view from the label UI, so that it is not
+	// disposed when the text changes.
+	putClientProperty(BasicHTML.propertyKey, null);
+	if (hint == null) {
+	    setText("");
+	    return;
+	}
+
+	View view = prepareHint(hint);
+	setText("<html>" + hint + "</html>");
+	putClientProperty(BasicHTML.propertyKey, view);
+	revalidate();
+	repaint();
+    }
+
+    /**
+     * Parses a hint and stores its view in the cache, if the view is not
+     * cached.
+     * 
+     * @param hint
+     *            the hint in HTML without the html tag.
+     * @return the view of hint.
+     */
+    public View prepareHint(String hint) {
+	View view = views.get(hint);
+	if (view == null) {
+	    view = BasicHTML.createHTMLView(this, "<html>" + hint + "</html>");
+	    views.put(hint, view);
+	}
+
+	return view;
+    }
+}
@@ -0,0 +1,179 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.awt.*;
+import java.awt.image.*;
+import java.net.URL;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Process-wide cache of icons used by properties panels. Icon resources are
+ * decoded only once and converted to images compatible with the default
+ * screen, so that they can be accelerated. Scaled variants of icons are
+ * created for HiDPI screens and cached as well. Images provided by the cache
+ * are shared and must not be modified.
+ */
+class IconCache {
+
+    /**
+     * Decoded icon resources mapped by resource names.
+     */
+    private static final ConcurrentMap<String, BufferedImage> resourceImages = new ConcurrentHashMap<String, BufferedImage>();
+
+    /**
+     * Shared images that were created by the cache.
+     */
+    private static final Map<BufferedImage, Boolean> sharedImages = new WeakHashMap<BufferedImage, Boolean>();
+
+    /**
+     * Scaled variants of images mapped by images and scales.
+     */
+    private static final Map<BufferedImage, Map<Double, BufferedImage>> scaledImages = new WeakHashMap<BufferedImage, Map<Double, BufferedImage>>();
+
+    private IconCache() {
+
+    }
+
+    /**
+     * Returns a shared image of an icon resource located next to this class.
+     * 
+     * @param resourceName
+     *            the name of resource.
+     * @return the image or null, if the resource cannot be read.
+     */
+    public static BufferedImage getImage(String resourceName) {
+	BufferedImage result = resourceImages.get(resourceName);
+	if (result != null) {
+	    return result;
+	}
+
+	URL resource = IconCache.class.getResource(resourceName);
+	if (resource == null) {
+	    return null;
+	}
+
+	try {
+	    BufferedImage image = ImageIO.read(resource);
+	    if (image == null) {
+		return null;
+	    }
+
+	    result = createCompatibleCopy(image);
+	} catch (Exception ignore) {
+	    return null;
+	}
+
+	synchronized (sharedImages) {
+	    sharedImages.put(result, Boolean.TRUE);
+	}
+
+	BufferedImage previous = resourceImages.putIfAbsent(resourceName, result);
+	return (previous != null) ? previous : result;
+    }
+
+    /**
+     * Returns whether an image is a shared image provided by the cache.
+     * 
+     * @param image
+     *            the image.
+     * @return true, if the image is shared, false otherwise.
+     */
+    public static boolean isShared(BufferedImage image) {
+	synchronized (sharedImages) {
+	    return sharedImages.containsKey(image);
+	}
+    }
+
+    /**
+     * Creates a copy of image that is compatible with the default screen.
+     * 
+     * @param image
+     *            the image.
+     * @return the copy of image.
+     */
+    public static BufferedImage createCompatibleCopy(BufferedImage image) {
+	BufferedImage result = createCompatibleImage(image.getWidth(), image.getHeight());
+	Graphics2D g = result.createGraphics();
+	try {
+	    g.setComposite(AlphaComposite.Src);
+	    g.drawImage(image, 0, 0, null);
+	} finally {
+	    g.dispose();
+	}
+
+	return result;
+    }
+
+    /**
+     * Returns variant of an image for drawing with given scale. The variant
+     * has the size of image multiplied by the scale. Variants for integer
+     * scales keep sharp pixels, other variants are interpolated.
+     * 
+     * @param image
+     *            the image.
+     * @param scale
+     *            the scale of device.
+     * @return the scaled variant or the image itself, if the scale is 1.
+     */
+    public static BufferedImage getScaledImage(BufferedImage image, double scale) {
+	if ((scale <= 0) || (scale == 1)) {
+	    return image;
+	}
+
+	synchronized (scaledImages) {
+	    Map<Double, BufferedImage> variants = scaledImages.get(image);
+	    if (variants == null) {
+		variants = new ConcurrentHashMap<Double, BufferedImage>();
+		scaledImages.put(image, variants);
+	    }
+
+	    BufferedImage result = variants.get(scale);
+	    if (result == null) {
+		result = createScaledImage(image, scale);
+		variants.put(scale, result);
+	    }
+
+	    return result;
+	}
+    }
+
+    /**
+     * Creates scaled variant of an image.
+     */
+    private static BufferedImage createScaledImage(BufferedImage image, double scale) {
+	int width = (int) Math.ceil(image.getWidth() * scale);
+	int height = (int) Math.ceil(image.getHeight() * scale);
+	BufferedImage result = createCompatibleImage(width, height);
+	Graphics2D g = result.createGraphics();
+	try {
+	    g.setComposite(AlphaComposite.Src);
+	    if (scale != Math.rint(scale)) {
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+			RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+	    }
+	    g.drawImage(image, 0, 0, width, height, null);
+	} finally {
+	    g.dispose();
+	}
+
+	return result;
+    }
+
+    /**
+     * Creates translucent image compatible with the default screen.
+     */
+    private static BufferedImage createCompatibleImage(int width, int height) {
+	if (!GraphicsEnvironment.isHeadless()) {
+	    GraphicsConfiguration configuration = GraphicsEnvironment
+		    .getLocalGraphicsEnvironment().getDefaultScreenDevice()
+		    .getDefaultConfiguration();
+	    return configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+	}
+
+	return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+}
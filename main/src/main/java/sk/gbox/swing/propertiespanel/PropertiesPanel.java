@@ -1,23 +1,105 @@
 package sk.gbox.swing.propertiespanel;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.EventListener;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.image.*;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.border.*;
+import javax.swing.event.ChangeEvent;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
+import javax.swing.event.RowSorterEvent;
+import javax.swing.event.TableColumnModelEvent;
+import javax.swing.event.TableModelEvent;
 import javax.swing.table.*;
 
+import sk.gbox.swing.propertiespanel.BinaryPropertyFormat.PropertyTypeDescriber;
+
 @SuppressWarnings("serial")
 public class PropertiesPanel extends JPanel {
 
+    /**
+     * Loader of properties that are loaded asynchronously.
+     */
+    public interface ModelLoader {
+
+	/**
+	 * Loads top-level properties of a model. The method is invoked in a
+	 * background thread. Properties must not be modified after they are
+	 * published.
+	 * 
+	 * @param publisher
+	 *            the publisher of completed top-level properties.
+	 * @throws Exception
+	 *             if loading failed.
+	 */
+	public void loadProperties(PropertyPublisher publisher) throws Exception;
+    }
+
+    /**
+     * Publisher of asynchronously loaded properties.
+     */
+    public interface PropertyPublisher {
+
+	/**
+	 * Publishes a completed top-level property. Published properties are
+	 * appended to the model in the order of publishing.
+	 * 
+	 * @param property
+	 *            the property.
+	 */
+	public void addProperty(Property property);
+
+	/**
+	 * Returns whether the loading was cancelled.
+	 * 
+	 * @return true, if the loading was cancelled and the loader should stop
+	 *         loading, false otherwise.
+	 */
+	public boolean isCancelled();
+    }
+
+    /**
+     * Listener notified when asynchronous loading of a model ends. Listeners
+     * are notified in the event dispatch thread. Cancelled loading is not
+     * reported.
+     */
+    public interface ModelLoadingListener extends EventListener {
+
+	/**
+	 * Invoked when all properties of the model were loaded.
+	 * 
+	 * @param model
+	 *            the loaded model.
+	 */
+	public void loadingFinished(ComposedProperty model);
+
+	/**
+	 * Invoked when the loader failed. Properties published before the
+	 * failure remain in the model.
+	 * 
+	 * @param model
+	 *            the partially loaded model.
+	 * @param cause
+	 *            the exception thrown by the loader.
+	 */
+	public void loadingFailed(ComposedProperty model, Throwable cause);
+    }
+
     // -----------------------------------------------------------------
 
     /**
@@ -59,6 +141,38 @@ public class PropertiesPanel extends JPanel {
 	 * The number of indentation block that are closed at this row.
 	 */
 	byte indentationClosings;
+
+	/**
+	 * Version of the row that is increased whenever the row is reported as
+	 * updated.
+	 */
+	int version;
+
+	/**
+	 * Indicates whether the row is scheduled by the value change animator.
+	 */
+	boolean valueChangeScheduled;
+
+	/**
+	 * Time of the last value change in nanoseconds.
+	 */
+	long valueChangeTime;
+
+	/**
+	 * Measured width of name cell required by the label.
+	 */
+	int nameWidth;
+
+	/**
+	 * Version of the row for which the name width was measured.
+	 */
+	int nameWidthVersion = -1;
+
+	/**
+	 * Generation of measurement settings for which the name width was
+	 * measured.
+	 */
+	int nameWidthGeneration;
     }
 
     // -----------------------------------------------------------------
@@ -93,6 +207,66 @@ public class PropertiesPanel extends JPanel {
 	 */
 	private final Color defaultForeground;
 
+	/**
+	 * Cached borders of name cells without (index 0) and with (index 1)
+	 * value part. Borders are indexed by the number of indentation units
+	 * increased by one.
+	 */
+	private Border[][] nameBorders = new Border[2][0];
+
+	/**
+	 * Outer border for which the name borders are cached.
+	 */
+	private Border nameBordersOuterBorder;
+
+	/**
+	 * Indentation width for which the name borders are cached.
+	 */
+	private int nameBordersIndentationWidth;
+
+	/**
+	 * Border set by the default renderer while the cell is configured.
+	 */
+	private Border defaultRendererBorder;
+
+	/**
+	 * Indicates whether the default renderer configures the cell.
+	 */
+	private boolean configuringDefaultRenderer;
+
+	/**
+	 * Font for which the bold font is cached.
+	 */
+	private Font boldFontBase;
+
+	/**
+	 * Cached bold variant of the base font.
+	 */
+	private Font boldFont;
+
+	/**
+	 * Cached images with tree lines and collapse/expand icon of name cells
+	 * indexed by the kind of row (simple, expanded, collapsed), the
+	 * indentation level and the number of indentation closings. All images
+	 * are rendered for the same row height and device configuration.
+	 */
+	private Image[][][] treeStamps = new Image[3][][];
+
+	/**
+	 * Row height of cached tree images.
+	 */
+	private int treeStampsHeight;
+
+	/**
+	 * Device configuration of cached tree images.
+	 */
+	private GraphicsConfiguration treeStampsConfiguration;
+
+	/**
+	 * Scale of device configuration of cached tree images.
+	 */
+	private double treeStampsScale = 1;
+
 	/**
 	 * Constructs the renderer.
 	 */
@@ -131,26 +305,94 @@ public class PropertiesPanel extends JPanel {
 		}
 	    }
 
+	    // Border set by the default renderer is only recorded, so that the
+	    // cached name border is not replaced back and forth for each cell
 	    String propertyName = propertyRow.property.getLabel();
-	    super.getTableCellRendererComponent(table, propertyName, isSelected, false, row, column);
+	    configuringDefaultRenderer = true;
+	    try {
+		super.getTableCellRendererComponent(table, propertyName, isSelected, false, row,
+			column);
+	    } finally {
+		configuringDefaultRenderer = false;
+	    }
 
-	    int indentation = indentationWidth * propertyRow.indentationLevel;
+	    int indentationUnits = propertyRow.indentationLevel;
 	    if (propertyRow.composite) {
-		indentation += indentationWidth;
+		indentationUnits++;
 	    } else {
-		indentation += indentationLevelShift * indentationWidth;
+		indentationUnits += indentationLevelShift;
 	    }
 
 	    if (propertyRow.property.isImportant()) {
-		setFont(getFont().deriveFont(Font.BOLD));
+		setFont(getBoldFont(getFont()));
 	    }
 
-	    setBorder(new CompoundBorder(getBorder(), new EmptyBorder(0, indentation + 2, 0,
-		    hasValuePart ? 2 : 0)));
+	    setBorder(getNameBorder(defaultRendererBorder, indentationUnits));
 
 	    return this;
 	}
 
+	@Override
+	public void setBorder(Border border) {
+	    if (configuringDefaultRenderer) {
+		defaultRendererBorder = border;
+		return;
+	    }
+
+	    super.setBorder(border);
+	}
+
+	/**
+	 * Returns the cached border of name cell.
+	 * 
+	 * @param outerBorder
+	 *            the border set by the default renderer.
+	 * @param indentationUnits
+	 *            the indentation in units of indentation width.
+	 * @return the border.
+	 */
+	private Border getNameBorder(Border outerBorder, int indentationUnits) {
+	    if ((outerBorder != nameBordersOuterBorder)
+		    || (indentationWidth != nameBordersIndentationWidth)) {
+		nameBorders = new Border[2][0];
+		nameBordersOuterBorder = outerBorder;
+		nameBordersIndentationWidth = indentationWidth;
+	    }
+
+	    int kind = hasValuePart ? 1 : 0;
+	    int index = indentationUnits + 1;
+	    Border[] borders = nameBorders[kind];
+	    if (index >= borders.length) {
+		borders = Arrays.copyOf(borders, Math.max(index + 1, 2 * borders.length));
+		nameBorders[kind] = borders;
+	    }
+
+	    Border result = borders[index];
+	    if (result == null) {
+		result = new CompoundBorder(outerBorder, new EmptyBorder(0, indentationUnits
+			* indentationWidth + 2, 0, hasValuePart ? 2 : 0));
+		borders[index] = result;
+	    }
+
+	    return result;
+	}
+
+	/**
+	 * Returns the cached bold variant of a font.
+	 * 
+	 * @param font
+	 *            the base font.
+	 * @return the bold font.
+	 */
+	private Font getBoldFont(Font font) {
+	    if (font != boldFontBase) {
+		boldFontBase = font;
+		boldFont = font.deriveFont(Font.BOLD);
+	    }
+
+	    return boldFont;
+	}
+
 	@Override
 	public void paint(Graphics g) {
 	    super.paint(g);
@@ -163,6 +405,118 @@ public class PropertiesPanel extends JPanel {
 		g.drawLine(width - 1, 0, width - 1, height - 1);
 	    }
 
+	    // Draw indentation lines and collapse/expand icon
+	    int stampWidth = propertyRow.indentationLevel * indentationWidth;
+	    if (propertyRow.composite) {
+		stampWidth += indentationWidth;
+	    }
+
+	    if (stampWidth > 0) {
+		Image stamp = getTreeStamp(g, stampWidth, height);
+		if (stamp != null) {
+		    g.drawImage(stamp, 0, 0, stampWidth, height, null);
+		} else {
+		    paintTreeDecorations(g, height);
+		}
+	    }
+	}
+
+	/**
+	 * Returns the cached image with tree decorations of the rendered row.
+	 * 
+	 * @param g
+	 *            the graphics where the image will be drawn.
+	 * @param width
+	 *            the width of decorations.
+	 * @param height
+	 *            the height of row.
+	 * @return the image or null, if the decorations cannot be cached.
+	 */
+	private Image getTreeStamp(Graphics g, int width, int height) {
+	    int level = propertyRow.indentationLevel;
+	    int closings = propertyRow.indentationClosings;
+	    if (!(g instanceof Graphics2D) || (level < 0) || (closings < 0) || (closings > level)) {
+		return null;
+	    }
+
+	    GraphicsConfiguration configuration = ((Graphics2D) g).getDeviceConfiguration();
+	    if ((height != treeStampsHeight) || (configuration != treeStampsConfiguration)) {
+		clearTreeStamps();
+		treeStampsHeight = height;
+		treeStampsConfiguration = configuration;
+		treeStampsScale = (configuration != null) ? configuration.getDefaultTransform()
+			.getScaleX() : 1;
+	    }
+
+	    int kind = 0;
+	    if (propertyRow.composite) {
+		kind = propertyRow.collapsed ? 2 : 1;
+	    }
+
+	    Image[][] kindStamps = treeStamps[kind];
+	    if ((kindStamps == null) || (level >= kindStamps.length)) {
+		Image[][] newStamps = new Image[Math.max(level + 1, 8)][];
+		if (kindStamps != null) {
+		    System.arraycopy(kindStamps, 0, newStamps, 0, kindStamps.length);
+		}
+		kindStamps = newStamps;
+		treeStamps[kind] = kindStamps;
+	    }
+
+	    if (kindStamps[level] == null) {
+		kindStamps[level] = new Image[level + 1];
+	    }
+
+	    Image result = kindStamps[level][closings];
+	    if (result == null) {
+		result = createTreeStamp(configuration, width, height);
+		kindStamps[level][closings] = result;
+	    }
+
+	    return result;
+	}
+
+	/**
+	 * Renders tree decorations of the rendered row to a new image.
+	 */
+	private Image createTreeStamp(GraphicsConfiguration configuration, int width, int height) {
+	    int imageWidth = (int) Math.ceil(width * treeStampsScale);
+	    int imageHeight = (int) Math.ceil(height * treeStampsScale);
+	    BufferedImage image;
+	    if (configuration != null) {
+		image = configuration.createCompatibleImage(imageWidth, imageHeight,
+			Transparency.TRANSLUCENT);
+	    } else {
+		image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB);
+	    }
+
+	    Graphics2D g = image.createGraphics();
+	    try {
+		g.scale(treeStampsScale, treeStampsScale);
+		paintTreeDecorations(g, height);
+	    } finally {
+		g.dispose();
+	    }
+
+	    return image;
+	}
+
+	/**
+	 * Removes all cached images with tree decorations.
+	 */
+	void clearTreeStamps() {
+	    treeStamps = new Image[3][][];
+	}
+
+	/**
+	 * Paints tree lines and collapse/expand icon of the rendered row.
+	 * 
+	 * @param g
+	 *            the graphics.
+	 * @param height
+	 *            the height of row.
+	 */
+	private void paintTreeDecorations(Graphics g, int height) {
 	    // Draw indentation lines
 	    if ((treeLineColor != null) && (indentationLevelShift >= 0)) {
 		g.setColor(treeLineColor);
@@ -193,7 +547,15 @@ public class PropertiesPanel extends JPanel {
 		BufferedImage icon = (propertyRow.collapsed) ? expandIcon : collapseIcon;
 		int iconXShift = propertyRow.indentationLevel * indentationWidth
 			+ (indentationWidth - icon.getWidth()) / 2;
-		g.drawImage(icon, iconXShift, (height - icon.getHeight()) / 2, null);
+
+		// Use variant of icon matching the scale of HiDPI screens
+		double scale = 1;
+		if (g instanceof Graphics2D) {
+		    scale = ((Graphics2D) g).getTransform().getScaleX();
+		}
+
+		g.drawImage(IconCache.getScaledImage(icon, scale), iconXShift,
+			(height - icon.getHeight()) / 2, icon.getWidth(), icon.getHeight(), null);
 	    }
 	}
     }
@@ -224,10 +586,90 @@ public class PropertiesPanel extends JPanel {
 	 */
 	private static final int VALUE_CELL_LEFT_PADDING = 5;
 
+	/**
+	 * Horizontal padding of name cells without borders set by the default
+	 * renderer.
+	 */
+	private static final int NAME_CELL_PADDING = 5;
+
+	/**
+	 * Maximal number of sampled rows when the name column is fitted.
+	 */
+	private static final int NAME_COLUMN_FIT_SAMPLE_SIZE = 256;
+
+	/**
+	 * Indicates whether fitting of the name column is scheduled.
+	 */
+	private boolean nameColumnFitPending;
+
+	/**
+	 * Generation of settings affecting widths of names, it is increased
+	 * whenever measured widths become invalid.
+	 */
+	private int nameWidthGeneration;
+
+	/**
+	 * Number of rows above and below the selected row whose hints are
+	 * prepared in advance.
+	 */
+	private static final int HINT_PREFETCH_DISTANCE = 2;
+
+	/**
+	 * Timer that prepares hints of neighboring rows after the selection
+	 * settles.
+	 */
+	private final Timer hintPrefetchTimer = new Timer(150, new ActionListener() {
+	    @Override
+	    public void actionPerformed(ActionEvent e) {
+		prefetchHints();
+	    }
+	});
+
+	/**
+	 * Border shared by all value cells.
+	 */
+	private final Border valueCellBorder = BorderFactory.createEmptyBorder(0,
+		VALUE_CELL_LEFT_PADDING, 0, 0);
+
+	/**
+	 * Cached spans of rows: 0 - not computed, 1 - not spanned, 2 - fully
+	 * spanned. Null, if row geometry is not computed.
+	 */
+	private byte[] rowSpans;
+
+	/**
+	 * Cached vertical positions of rows followed by the bottom of the last
+	 * row. Null, if row geometry is not computed.
+	 */
+	private int[] rowPositions;
+
+	/**
+	 * Cached horizontal positions of columns followed by the right side of
+	 * the last column. Null, if column geometry is not computed.
+	 */
+	private int[] columnPositions;
+
 	/**
 	 * Constructs the properties table.
 	 */
 	public PropertiesTable() {
+	    hintPrefetchTimer.setRepeats(false);
+
+	    // Refit the name column when the table or its font changes
+	    addComponentListener(new ComponentAdapter() {
+		@Override
+		public void componentResized(ComponentEvent e) {
+		    scheduleNameColumnFit();
+		}
+	    });
+
+	    addPropertyChangeListener("font", new PropertyChangeListener() {
+		@Override
+		public void propertyChange(PropertyChangeEvent evt) {
+		    invalidateNameWidths();
+		}
+	    });
+
 	    // Install mouse handlers for handling collapse/expand actions
 	    addMouseListener(new MouseAdapter() {
 		@Override
@@ -310,13 +752,26 @@ public class PropertiesPanel extends JPanel {
 
 	    PropertyRow propertyRow = getPropertyRow(row);
 	    PropertyType propertyType = propertyRow.property.getType();
+	    if (propertyType == null) {
+		return emptyCellRenderer;
+	    }
+
+	    validateValueCellPools();
+	    TableCellRenderer result = valueRenderers.get(propertyType);
+	    if (result == null) {
+		PropertyTypeUI ui = getPropertyTypeUI(propertyType.getClass());
+		if (ui != null) {
+		    result = ui.getValueRenderer(propertyType, PropertiesPanel.this);
+		}
+
+		if (result == null) {
+		    result = emptyCellRenderer;
+		}
 
-	    TableCellRenderer result = null;
-	    if (propertyType != null) {
-		result = propertyType.getValueRenderer(PropertiesPanel.this);
+		valueRenderers.put(propertyType, result);
 	    }
 
-	    return (result != null) ? result : emptyCellRenderer;
+	    return result;
 	}
 
 	@Override
@@ -332,8 +787,7 @@ public class PropertiesPanel extends JPanel {
 
 	    if ((!(renderer instanceof PropertyNameCellRenderer)) && (result instanceof JComponent)) {
 		JComponent component = (JComponent) result;
-		component.setBorder(BorderFactory.createEmptyBorder(0, VALUE_CELL_LEFT_PADDING, 0,
-			0));
+		component.setBorder(valueCellBorder);
 
 		PropertyRow propertyRow = getPropertyRow(row);
 		if (propertyRow.property.isReadOnly()) {
@@ -356,7 +810,34 @@ public class PropertiesPanel extends JPanel {
 		return null;
 	    }
 
-	    return propertyType.getValueEditor(PropertiesPanel.this);
+	    validateValueCellPools();
+	    TableCellEditor result = valueEditors.get(propertyType);
+	    if (result == null) {
+		PropertyTypeUI ui = getPropertyTypeUI(propertyType.getClass());
+		if (ui == null) {
+		    return null;
+		}
+
+		result = ui.getValueEditor(propertyType, PropertiesPanel.this);
+		if (result != null) {
+		    valueEditors.put(propertyType, result);
+		}
+	    }
+
+	    return result;
+	}
+
+	/**
+	 * Clears pools of value renderers and editors, if default delegates
+	 * changed since the pools were filled.
+	 */
+	private void validateValueCellPools() {
+	    int modCount = PropertyTypeUI.getDefaultUIsModCount();
+	    if (modCount != valueCellPoolsModCount) {
+		clearValueCellPools();
+		clearRowImages();
+		valueCellPoolsModCount = modCount;
+	    }
 	}
 
 	@Override
@@ -368,8 +849,7 @@ public class PropertiesPanel extends JPanel {
 
 	    if (result instanceof JComponent) {
 		JComponent component = (JComponent) result;
-		component.setBorder(BorderFactory.createEmptyBorder(0, VALUE_CELL_LEFT_PADDING, 0,
-			0));
+		component.setBorder(valueCellBorder);
 	    }
 
 	    return result;
@@ -377,46 +857,378 @@ public class PropertiesPanel extends JPanel {
 
 	@Override
 	public Rectangle getCellRect(int row, int column, boolean includeSpacing) {
-	    if (isFullySpannedRow(row)) {
-		Rectangle nameCell = super.getCellRect(row, 0, includeSpacing);
-		Rectangle valueCell = super.getCellRect(row, 1, includeSpacing);
-		return nameCell.union(valueCell);
-	    } else {
-		return super.getCellRect(row, column, includeSpacing);
-	    }
+	    return getCellRect(row, column, includeSpacing, new Rectangle());
 	}
 
 	/**
-	 * Return whether the first cell is spanned in the whole row.
+	 * Stores bounds of a cell to the given rectangle. Cells of fully spanned
+	 * rows cover all columns. The bounds are computed from cached positions
+	 * of rows and columns.
 	 * 
 	 * @param row
-	 *            the index of row
-	 * @return true, if the first cell of row is spanned in the whole row.
+	 *            the index of row.
+	 * @param column
+	 *            the index of column.
+	 * @param includeSpacing
+	 *            false to return the true cell bounds without the
+	 *            intercell spacing.
+	 * @param rect
+	 *            the rectangle where the bounds are stored.
+	 * @return the rectangle with bounds.
 	 */
-	public boolean isFullySpannedRow(int row) {
-	    return (getPropertyRow(row).property.getType() == null);
+	Rectangle getCellRect(int row, int column, boolean includeSpacing, Rectangle rect) {
+	    int rowCount = getRowCount();
+	    int columnCount = getColumnCount();
+	    if ((row < 0) || (row >= rowCount) || (column < 0) || (column >= columnCount)) {
+		rect.setBounds(super.getCellRect(row, column, includeSpacing));
+		return rect;
+	    }
+
+	    if (!getComponentOrientation().isLeftToRight()) {
+		if (isFullySpannedRow(row)) {
+		    Rectangle nameCell = super.getCellRect(row, 0, includeSpacing);
+		    Rectangle valueCell = super.getCellRect(row, 1, includeSpacing);
+		    rect.setBounds(nameCell.union(valueCell));
+		} else {
+		    rect.setBounds(super.getCellRect(row, column, includeSpacing));
+		}
+		return rect;
+	    }
+
+	    validateRowGeometry();
+	    validateColumnGeometry();
+
+	    if (isFullySpannedRow(row)) {
+		rect.x = columnPositions[0];
+		rect.width = columnPositions[columnCount] - rect.x;
+	    } else {
+		rect.x = columnPositions[column];
+		rect.width = columnPositions[column + 1] - rect.x;
+	    }
+
+	    rect.y = rowPositions[row];
+	    rect.height = rowPositions[row + 1] - rect.y;
+
+	    if (!includeSpacing) {
+		int rowMargin = getRowMargin();
+		rect.y += rowMargin / 2;
+		rect.height -= rowMargin;
+		int columnMargin = getColumnModel().getColumnMargin();
+		rect.x += columnMargin / 2;
+		rect.width -= columnMargin;
+	    }
+
+	    return rect;
 	}
 
 	/**
-	 * Returns property row displayed in given table row.
+	 * Computes cached positions of rows, if they are not available.
 	 */
-	private PropertyRow getPropertyRow(int row) {
-	    row = convertRowIndexToModel(row);
-	    return propertiesTableModel.propertyRows.get(row);
+	private void validateRowGeometry() {
+	    int rowCount = getRowCount();
+	    if ((rowPositions != null) && (rowPositions.length == rowCount + 1)) {
+		return;
+	    }
+
+	    rowSpans = new byte[rowCount];
+	    rowPositions = new int[rowCount + 1];
+	    for (int i = 0; i < rowCount; i++) {
+		rowPositions[i + 1] = rowPositions[i] + getRowHeight(i);
+	    }
 	}
 
 	/**
-	 * Executes collapse/expand change of given row.
-	 * 
-	 * @param propertyRow
-	 *            records of changing row/property.
+	 * Computes cached positions of columns, if they are not available.
 	 */
-	private void changeCollapseOfProperty(PropertyRow propertyRow) {
-	    if (!propertyRow.composite) {
+	private void validateColumnGeometry() {
+	    TableColumnModel columnModel = getColumnModel();
+	    int columnCount = columnModel.getColumnCount();
+	    if ((columnPositions != null) && (columnPositions.length == columnCount + 1)) {
 		return;
 	    }
 
-	    int selectedRow = getSelectedRow();
+	    columnPositions = new int[columnCount + 1];
+	    for (int i = 0; i < columnCount; i++) {
+		columnPositions[i + 1] = columnPositions[i] + columnModel.getColumn(i).getWidth();
+	    }
+	}
+
+	/**
+	 * Drops cached positions and spans of rows.
+	 */
+	private void invalidateRowGeometry() {
+	    rowSpans = null;
+	    rowPositions = null;
+	}
+
+	/**
+	 * Drops cached positions of columns.
+	 */
+	private void invalidateColumnGeometry() {
+	    columnPositions = null;
+	}
+
+	@Override
+	public void tableChanged(TableModelEvent e) {
+	    invalidateRowGeometry();
+	    super.tableChanged(e);
+	    invalidateRowGeometry();
+	    scheduleNameColumnFit();
+	}
+
+	/**
+	 * Drops measured widths of names and refits the name column, if the
+	 * auto-fit is enabled.
+	 */
+	void invalidateNameWidths() {
+	    nameWidthGeneration++;
+	    scheduleNameColumnFit();
+	}
+
+	/**
+	 * Schedules fitting of the name column width, if the auto-fit is
+	 * enabled. Multiple requests are coalesced into a single fit.
+	 */
+	void scheduleNameColumnFit() {
+	    if ((!nameColumnAutoFit) || nameColumnFitPending) {
+		return;
+	    }
+
+	    nameColumnFitPending = true;
+	    SwingUtilities.invokeLater(new Runnable() {
+		@Override
+		public void run() {
+		    nameColumnFitPending = false;
+		    fitNameColumn();
+		}
+	    });
+	}
+
+	/**
+	 * Sets width of the name column to the width required by labels of
+	 * visible rows and a sample of other rows. Widths of labels are cached
+	 * in rows until the rows are updated.
+	 */
+	private void fitNameColumn() {
+	    int rowCount = getRowCount();
+	    int tableWidth = getWidth();
+	    if ((!nameColumnAutoFit) || (rowCount == 0) || (tableWidth <= 0)
+		    || (getColumnCount() < 2) || isEditing()) {
+		return;
+	    }
+
+	    Font font = getFont();
+	    FontMetrics metrics = getFontMetrics(font);
+	    FontMetrics boldMetrics = getFontMetrics(font.deriveFont(font.getStyle() | Font.BOLD));
+	    Border cellBorder = UIManager.getBorder("Table.cellNoFocusBorder");
+	    int padding = 2;
+	    if (cellBorder != null) {
+		Insets insets = cellBorder.getBorderInsets(this);
+		padding = insets.left + insets.right;
+	    }
+	    // Left and right padding of name and the separator line
+	    padding += NAME_CELL_PADDING;
+
+	    // Visible rows
+	    Rectangle visibleRect = getVisibleRect();
+	    int firstVisibleRow = Math.max(rowAtPoint(visibleRect.getLocation()), 0);
+	    int lastVisibleRow = rowAtPoint(new Point(visibleRect.x, visibleRect.y
+		    + visibleRect.height - 1));
+	    if (lastVisibleRow < 0) {
+		lastVisibleRow = rowCount - 1;
+	    }
+
+	    int width = 0;
+	    for (int row = firstVisibleRow; row <= lastVisibleRow; row++) {
+		width = Math.max(width, getNameWidth(row, metrics, boldMetrics, padding));
+	    }
+
+	    // Evenly distributed sample of other rows
+	    int step = Math.max(rowCount / NAME_COLUMN_FIT_SAMPLE_SIZE, 1);
+	    for (int row = 0; row < rowCount; row += step) {
+		width = Math.max(width, getNameWidth(row, metrics, boldMetrics, padding));
+	    }
+
+	    if (width == 0) {
+		return;
+	    }
+
+	    TableColumn nameColumn = getColumnModel().getColumn(0);
+	    TableColumn valueColumn = getColumnModel().getColumn(1);
+	    width = Math.min(width, tableWidth * 2 / 3);
+	    width = Math.max(width, nameColumn.getMinWidth());
+	    if (width == nameColumn.getWidth()) {
+		return;
+	    }
+
+	    nameColumn.setPreferredWidth(width);
+	    valueColumn.setPreferredWidth(Math.max(tableWidth - width, valueColumn.getMinWidth()));
+	    nameColumn.setWidth(width);
+	    valueColumn.setWidth(tableWidth - width);
+	    resizeAndRepaint();
+	}
+
+	/**
+	 * Returns width of name cell required by the label of a row. Cells of
+	 * fully spanned rows do not constrain the name column.
+	 */
+	private int getNameWidth(int row, FontMetrics metrics, FontMetrics boldMetrics, int padding) {
+	    PropertyRow propertyRow = getPropertyRow(row);
+	    if ((propertyRow.nameWidthVersion == propertyRow.version)
+		    && (propertyRow.nameWidthGeneration == nameWidthGeneration)) {
+		return propertyRow.nameWidth;
+	    }
+
+	    Property property = propertyRow.property;
+	    int width = 0;
+	    if (property.getType() != null) {
+		int indentationUnits = propertyRow.indentationLevel;
+		if (propertyRow.composite) {
+		    indentationUnits++;
+		} else {
+		    indentationUnits += indentationLevelShift;
+		}
+
+		String label = property.getLabel();
+		FontMetrics labelMetrics = property.isImportant() ? boldMetrics : metrics;
+		width = padding + indentationUnits * indentationWidth
+			+ ((label != null) ? labelMetrics.stringWidth(label) : 0);
+	    }
+
+	    propertyRow.nameWidth = width;
+	    propertyRow.nameWidthVersion = propertyRow.version;
+	    propertyRow.nameWidthGeneration = nameWidthGeneration;
+	    return width;
+	}
+
+	@Override
+	public void sorterChanged(RowSorterEvent e) {
+	    invalidateRowGeometry();
+	    super.sorterChanged(e);
+	    invalidateRowGeometry();
+	}
+
+	@Override
+	public void setRowHeight(int rowHeight) {
+	    invalidateRowGeometry();
+	    super.setRowHeight(rowHeight);
+	}
+
+	@Override
+	public void setRowHeight(int row, int rowHeight) {
+	    invalidateRowGeometry();
+	    super.setRowHeight(row, rowHeight);
+	}
+
+	@Override
+	public void setColumnModel(TableColumnModel columnModel) {
+	    invalidateColumnGeometry();
+	    super.setColumnModel(columnModel);
+	}
+
+	@Override
+	public void columnAdded(TableColumnModelEvent e) {
+	    invalidateColumnGeometry();
+	    super.columnAdded(e);
+	}
+
+	@Override
+	public void columnRemoved(TableColumnModelEvent e) {
+	    invalidateColumnGeometry();
+	    super.columnRemoved(e);
+	}
+
+	@Override
+	public void columnMoved(TableColumnModelEvent e) {
+	    invalidateColumnGeometry();
+	    super.columnMoved(e);
+	}
+
+	@Override
+	public void columnMarginChanged(ChangeEvent e) {
+	    invalidateColumnGeometry();
+	    super.columnMarginChanged(e);
+	}
+
+	/**
+	 * Returns whether rendered rows are cached as images.
+	 */
+	boolean isRowImageCacheEnabled() {
+	    return rowImageCacheEnabled;
+	}
+
+	/**
+	 * Returns the object identifying a row independently of its index.
+	 */
+	Object getRowKey(int row) {
+	    return getPropertyRow(row);
+	}
+
+	/**
+	 * Returns version of a row that changes whenever the row is updated.
+	 */
+	int getRowVersion(int row) {
+	    return getPropertyRow(row).version;
+	}
+
+	/**
+	 * Returns the current highlight color of the value cell in a row.
+	 * 
+	 * @return the color or null, if the value cell is not highlighted.
+	 */
+	Color getValueHighlight(int row) {
+	    return valueChangeAnimator.getHighlight(getPropertyRow(row));
+	}
+
+	/**
+	 * Removes all cached images of rendered rows.
+	 */
+	void clearRowImages() {
+	    if (ui instanceof PropertiesTableUI) {
+		((PropertiesTableUI) ui).clearRowImages();
+	    }
+	}
+
+	/**
+	 * Return whether the first cell is spanned in the whole row.
+	 * 
+	 * @param row
+	 *            the index of row
+	 * @return true, if the first cell of row is spanned in the whole row.
+	 */
+	public boolean isFullySpannedRow(int row) {
+	    if ((row < 0) || (row >= getRowCount())) {
+		return (getPropertyRow(row).property.getType() == null);
+	    }
+
+	    validateRowGeometry();
+	    if (rowSpans[row] == 0) {
+		rowSpans[row] = (byte) ((getPropertyRow(row).property.getType() == null) ? 2 : 1);
+	    }
+
+	    return (rowSpans[row] == 2);
+	}
+
+	/**
+	 * Returns property row displayed in given table row.
+	 */
+	private PropertyRow getPropertyRow(int row) {
+	    row = convertRowIndexToModel(row);
+	    return propertiesTableModel.propertyRows.get(row);
+	}
+
+	/**
+	 * Executes collapse/expand change of given row.
+	 * 
+	 * @param propertyRow
+	 *            records of changing row/property.
+	 */
+	private void changeCollapseOfProperty(PropertyRow propertyRow) {
+	    if (!propertyRow.composite) {
+		return;
+	    }
+
+	    int selectedRow = getSelectedRow();
 	    propertyRow.collapsed = !propertyRow.collapsed;
 
 	    String propertyName = propertyRow.property.getName();
@@ -443,15 +1255,10 @@ public class PropertiesPanel extends JPanel {
 	    if (selectedRow < 0) {
 		if (model != null) {
 		    hintTitleLabel.setText(model.getLabel());
-		    String hint = model.getHint();
-		    if (hint != null) {
-			hintLabel.setText("<html>" + model.getHint() + "</html>");
-		    } else {
-			hintLabel.setText("");
-		    }
+		    hintLabel.setHint(model.getHint());
 		} else {
 		    hintTitleLabel.setText("");
-		    hintLabel.setText("");
+		    hintLabel.setHint(null);
 		}
 		return;
 	    }
@@ -463,12 +1270,29 @@ public class PropertiesPanel extends JPanel {
 	    }
 
 	    hintTitleLabel.setText(hintTitle);
+	    hintLabel.setHint(property.getHint());
 
-	    String hint = property.getHint();
-	    if (hint != null) {
-		hintLabel.setText("<html>" + property.getHint() + "</html>");
-	    } else {
-		hintLabel.setText("");
+	    if (hintPrefetchEnabled) {
+		hintPrefetchTimer.restart();
+	    }
+	}
+
+	/**
+	 * Prepares hints of rows around the selected row.
+	 */
+	private void prefetchHints() {
+	    int selectedRow = getSelectedRow();
+	    if ((selectedRow < 0) || (!hintBoxVisible)) {
+		return;
+	    }
+
+	    int fromRow = Math.max(selectedRow - HINT_PREFETCH_DISTANCE, 0);
+	    int toRow = Math.min(selectedRow + HINT_PREFETCH_DISTANCE, getRowCount() - 1);
+	    for (int row = fromRow; row <= toRow; row++) {
+		String hint = getPropertyRow(row).property.getHint();
+		if (hint != null) {
+		    hintLabel.prepareHint(hint);
+		}
 	    }
 	}
     }
@@ -477,7 +1301,7 @@ public class PropertiesPanel extends JPanel {
 
     /**
      * Table model for PropertiesTable
-     *
+     * 
      */
     private class PropertiesTableModel extends AbstractTableModel implements PropertyListener {
 
@@ -536,6 +1360,18 @@ public class PropertiesPanel extends JPanel {
 	    return !property.isReadOnly();
 	}
 
+	@Override
+	public void fireTableChanged(TableModelEvent e) {
+	    if ((e.getType() == TableModelEvent.UPDATE) && (e.getFirstRow() >= 0)) {
+		int lastRow = Math.min(e.getLastRow(), propertyRows.size() - 1);
+		for (int i = e.getFirstRow(); i <= lastRow; i++) {
+		    propertyRows.get(i).version++;
+		}
+	    }
+
+	    super.fireTableChanged(e);
+	}
+
 	@Override
 	public void propertyChanged(Property property) {
 	    PropertyRow row = propertyMap.get(property);
@@ -547,88 +1383,477 @@ public class PropertiesPanel extends JPanel {
 	}
 
 	@Override
-	public void propertyValueChanged(Property property) {
-	    propertyChanged(property);
+	public void propertyValueChanged(Property property) {
+	    PropertyRow row = propertyMap.get(property);
+	    if (row == null) {
+		return;
+	    }
+
+	    valueChangeAnimator.valueChanged(row);
+	}
+
+	@Override
+	public void subpropertyListChanged(ComposedProperty property) {
+	    rebuildPropertyRows();
+	}
+
+	/**
+	 * Rebuilds property rows.
+	 */
+	private void rebuildPropertyRows() {
+	    buildPropertyRows();
+	    fireTableDataChanged();
+	}
+
+	/**
+	 * Updates property rows after a change of the model structure. Only rows
+	 * between the unchanged leading and trailing rows are reported as
+	 * deleted and inserted, so that selection of unchanged rows is
+	 * preserved. Unchanged rows are reported as updated only if their
+	 * property changed or their indentation changed.
+	 * 
+	 * @param changedProperties
+	 *            the properties whose attributes or values changed.
+	 */
+	private void updatePropertyRows(Set<Property> changedProperties) {
+	    List<PropertyRow> oldRows = new ArrayList<PropertyRow>(propertyRows);
+	    Map<PropertyRow, Integer> oldLayouts = new HashMap<PropertyRow, Integer>();
+	    for (PropertyRow row : oldRows) {
+		oldLayouts.put(row, getRowLayout(row));
+	    }
+
+	    buildPropertyRows();
+
+	    // Remove records of properties that are no longer in the model
+	    Set<Property> modelProperties = new HashSet<Property>();
+	    if (model != null) {
+		collectProperties(model, modelProperties);
+	    }
+	    propertyMap.keySet().retainAll(modelProperties);
+
+	    // Find unchanged leading and trailing rows
+	    int oldSize = oldRows.size();
+	    int newSize = propertyRows.size();
+	    int prefix = 0;
+	    while ((prefix < oldSize) && (prefix < newSize)
+		    && (oldRows.get(prefix) == propertyRows.get(prefix))) {
+		prefix++;
+	    }
+
+	    int suffix = 0;
+	    while ((suffix < oldSize - prefix)
+		    && (suffix < newSize - prefix)
+		    && (oldRows.get(oldSize - suffix - 1) == propertyRows
+			    .get(newSize - suffix - 1))) {
+		suffix++;
+	    }
+
+	    if (oldSize - suffix > prefix) {
+		fireTableRowsDeleted(prefix, oldSize - suffix - 1);
+	    }
+
+	    if (newSize - suffix > prefix) {
+		fireTableRowsInserted(prefix, newSize - suffix - 1);
+	    }
+
+	    // Report changed ranges of unchanged rows
+	    int rangeStart = -1;
+	    for (int i = 0; i <= newSize; i++) {
+		boolean updated = false;
+		if ((i < prefix) || ((i >= newSize - suffix) && (i < newSize))) {
+		    PropertyRow row = propertyRows.get(i);
+		    updated = changedProperties.contains(row.property)
+			    || (oldLayouts.get(row).intValue() != getRowLayout(row));
+		}
+
+		if (updated && (rangeStart < 0)) {
+		    rangeStart = i;
+		} else if (!updated && (rangeStart >= 0)) {
+		    fireTableRowsUpdated(rangeStart, i - 1);
+		    rangeStart = -1;
+		}
+	    }
+	}
+
+	/**
+	 * Returns the layout of a row, i.e., its indentation and tree line
+	 * attributes, encoded to a single value.
+	 */
+	private int getRowLayout(PropertyRow row) {
+	    return (row.indentationLevel & 0xFF) | ((row.indentationClosings & 0xFF) << 8)
+		    | (row.composite ? (1 << 16) : 0) | (row.collapsed ? (1 << 17) : 0);
+	}
+
+	/**
+	 * Collects all descendants of a composed property.
+	 */
+	private void collectProperties(ComposedProperty property, Set<Property> properties) {
+	    for (Property subproperty : property.getSubproperties()) {
+		properties.add(subproperty);
+		if (subproperty instanceof ComposedProperty) {
+		    collectProperties((ComposedProperty) subproperty, properties);
+		}
+	    }
+	}
+
+	/**
+	 * Builds property rows without notifying listeners.
+	 */
+	private void buildPropertyRows() {
+	    // Mark all currenty visible rows as invisible
+	    for (PropertyRow row : propertyRows) {
+		row.visible = false;
+	    }
+
+	    // Clear property rows
+	    propertyRows.clear();
+
+	    if (model == null) {
+		return;
+	    }
+
+	    // Rebuild rows
+	    PropertyRow virtualRoot = new PropertyRow();
+	    virtualRoot.indentationLevel = -1;
+	    rebuildPropertyRows(model, virtualRoot);
+
+	    computeIndentationClosings(0);
+	}
+
+	/**
+	 * Appends rows of a top-level property that was added as the last
+	 * subproperty of the model.
+	 * 
+	 * @param property
+	 *            the added property.
+	 */
+	private void appendPropertyRows(Property property) {
+	    int firstRow = propertyRows.size();
+	    PropertyRow virtualRoot = new PropertyRow();
+	    virtualRoot.indentationLevel = -1;
+	    addPropertyRow(property, virtualRoot);
+	    computeIndentationClosings(Math.max(firstRow - 1, 0));
+	    int lastRow = propertyRows.size() - 1;
+
+	    fireTableRowsInserted(firstRow, lastRow);
+	    if (firstRow > 0) {
+		fireTableRowsUpdated(firstRow - 1, firstRow - 1);
+	    }
+	}
+
+	/**
+	 * Computes indentation closings of property rows starting at given
+	 * index.
+	 */
+	private void computeIndentationClosings(int fromIndex) {
+	    PropertyRow previous = null;
+	    for (int i = fromIndex; i < propertyRows.size(); i++) {
+		PropertyRow propertyRow = propertyRows.get(i);
+		if (previous == null) {
+		    previous = propertyRow;
+		    continue;
+		}
+
+		previous.indentationClosings = (byte) Math.max(previous.indentationLevel
+			- propertyRow.indentationLevel, 0);
+		previous = propertyRow;
+	    }
+
+	    if (previous != null) {
+		previous.indentationClosings = previous.indentationLevel;
+	    }
+	}
+
+	/**
+	 * Recursive helper subroutine to rebuild property rows.
+	 */
+	private void rebuildPropertyRows(ComposedProperty property, PropertyRow parent) {
+	    for (Property subproperty : property.getSubproperties()) {
+		addPropertyRow(subproperty, parent);
+	    }
+	}
+
+	/**
+	 * Adds row of a property and rows of its visible subproperties.
+	 */
+	private void addPropertyRow(Property subproperty, PropertyRow parent) {
+	    PropertyRow row = propertyMap.get(subproperty);
+
+	    // Create property record if does not exist
+	    if (row == null) {
+		row = new PropertyRow();
+		row.property = subproperty;
+		propertyMap.put(subproperty, row);
+
+		if (subproperty instanceof ComposedProperty) {
+		    row.collapsed = collapsedProperties.contains(subproperty.getName());
+		}
+	    }
+
+	    // Subproperties of composed property could change
+	    if (subproperty instanceof ComposedProperty) {
+		row.composite = (!((ComposedProperty) subproperty).getSubproperties().isEmpty());
+	    }
+
+	    // Set indentation
+	    row.indentationLevel = (byte) (parent.indentationLevel + 1);
+
+	    // Add row to visible rows
+	    row.visible = true;
+	    row.rowIndex = propertyRows.size();
+	    propertyRows.add(row);
+
+	    // Process subproperies in case of expanded composed property
+	    if ((subproperty instanceof ComposedProperty) && (!row.collapsed)) {
+		rebuildPropertyRows((ComposedProperty) subproperty, row);
+	    }
+	}
+    }
+
+    // -----------------------------------------------------------------
+
+    /**
+     * Scheduler of repaints of changed values. All rows with changed values
+     * are repainted by a single timer at most once per frame, and their value
+     * cells are highlighted while the highlight fades out.
+     */
+    private class ValueChangeAnimator implements ActionListener {
+
+	/**
+	 * Number of highlight levels during fading out.
+	 */
+	private static final int HIGHLIGHT_LEVELS = 16;
+
+	/**
+	 * Rows scheduled for repaint.
+	 */
+	private final ArrayList<PropertyRow> scheduledRows = new ArrayList<PropertyRow>();
+
+	/**
+	 * Timer of frames.
+	 */
+	private final Timer timer;
+
+	/**
+	 * Reused rectangle for repainted cells.
+	 */
+	private final Rectangle repaintedCell = new Rectangle();
+
+	/**
+	 * Highlight colors with increasing alpha indexed by the highlight level,
+	 * or null, if changed values are not highlighted.
+	 */
+	private Color[] highlightColors;
+
+	/**
+	 * Duration of highlight in nanoseconds.
+	 */
+	private long highlightDuration = 1000 * 1000000L;
+
+	/**
+	 * Time of the last frame in nanoseconds.
+	 */
+	private long lastFrameTime;
+
+	/**
+	 * Constructs the animator.
+	 */
+	ValueChangeAnimator() {
+	    timer = new Timer(1000 / 30, this);
+	}
+
+	/**
+	 * Sets color of highlight.
+	 */
+	void setHighlightColor(Color color) {
+	    if (color == null) {
+		highlightColors = null;
+		return;
+	    }
+
+	    highlightColors = new Color[HIGHLIGHT_LEVELS];
+	    for (int i = 0; i < HIGHLIGHT_LEVELS; i++) {
+		highlightColors[i] = new Color(color.getRed(), color.getGreen(), color.getBlue(),
+			color.getAlpha() * (i + 1) / HIGHLIGHT_LEVELS);
+	    }
+	}
+
+	/**
+	 * Sets duration of highlight in milliseconds.
+	 */
+	void setHighlightDuration(int duration) {
+	    highlightDuration = duration * 1000000L;
+	}
+
+	/**
+	 * Sets maximal number of frames per second.
+	 */
+	void setFrameRate(int frameRate) {
+	    timer.setDelay(Math.max(1000 / frameRate, 1));
+	}
+
+	/**
+	 * Schedules repaint of a row with changed value.
+	 */
+	void valueChanged(PropertyRow row) {
+	    row.version++;
+	    row.valueChangeTime = System.nanoTime();
+	    if (!row.valueChangeScheduled) {
+		row.valueChangeScheduled = true;
+		scheduledRows.add(row);
+	    }
+
+	    if (!timer.isRunning()) {
+		long sinceLastFrame = (row.valueChangeTime - lastFrameTime) / 1000000L;
+		timer.setInitialDelay((int) Math.max(timer.getDelay() - sinceLastFrame, 0));
+		timer.start();
+	    }
+	}
+
+	/**
+	 * Returns the current highlight color of a row.
+	 * 
+	 * @return the color or null, if the row is not highlighted.
+	 */
+	Color getHighlight(PropertyRow row) {
+	    if ((highlightColors == null) || (!row.valueChangeScheduled)) {
+		return null;
+	    }
+
+	    long remaining = highlightDuration - (System.nanoTime() - row.valueChangeTime);
+	    if (remaining <= 0) {
+		return null;
+	    }
+
+	    int level = (int) (remaining * HIGHLIGHT_LEVELS / highlightDuration);
+	    return highlightColors[Math.min(level, HIGHLIGHT_LEVELS - 1)];
+	}
+
+	@Override
+	public void actionPerformed(ActionEvent e) {
+	    long now = System.nanoTime();
+	    lastFrameTime = now;
+
+	    int keptRows = 0;
+	    for (int i = 0; i < scheduledRows.size(); i++) {
+		PropertyRow row = scheduledRows.get(i);
+		if ((highlightColors != null) && (now - row.valueChangeTime < highlightDuration)) {
+		    scheduledRows.set(keptRows++, row);
+		} else {
+		    row.valueChangeScheduled = false;
+		}
+
+		row.version++;
+		repaintValueCell(row);
+	    }
+
+	    for (int i = scheduledRows.size() - 1; i >= keptRows; i--) {
+		scheduledRows.remove(i);
+	    }
+
+	    if (scheduledRows.isEmpty()) {
+		timer.stop();
+	    }
+	}
+
+	/**
+	 * Repaints value cell of a row, if the row is displayed.
+	 */
+	private void repaintValueCell(PropertyRow row) {
+	    if (!row.visible) {
+		return;
+	    }
+
+	    int viewRow = propertiesTable.convertRowIndexToView(row.rowIndex);
+	    if ((viewRow < 0) || (propertiesTable.getColumnCount() < 2)) {
+		return;
+	    }
+
+	    propertiesTable.repaint(propertiesTable.getCellRect(viewRow, 1, false, repaintedCell));
+	}
+    }
+
+    // -----------------------------------------------------------------
+
+    /**
+     * Worker loading properties in a background thread and appending them to
+     * the model in the event dispatch thread.
+     */
+    private class ModelLoadingWorker extends SwingWorker<Void, Property> implements
+	    PropertyPublisher {
+
+	/**
+	 * Loader of properties.
+	 */
+	private final ModelLoader loader;
+
+	/**
+	 * Model to which the loaded properties are appended.
+	 */
+	private final ComposedProperty loadedModel;
+
+	/**
+	 * Constructs the worker.
+	 */
+	ModelLoadingWorker(ModelLoader loader, ComposedProperty loadedModel) {
+	    this.loader = loader;
+	    this.loadedModel = loadedModel;
+	}
+
+	@Override
+	protected Void doInBackground() throws Exception {
+	    loader.loadProperties(this);
+	    return null;
 	}
 
 	@Override
-	public void subpropertyListChanged(ComposedProperty property) {
-	    rebuildPropertyRows();
-	}
-
-	/**
-	 * Rebuilds property rows.
-	 */
-	private void rebuildPropertyRows() {
-	    // Mark all currenty visible rows as invisible
-	    for (PropertyRow row : propertyRows) {
-		row.visible = false;
+	public void addProperty(Property property) {
+	    if (property == null) {
+		throw new NullPointerException("Null property is not allowed.");
 	    }
 
-	    // Clear property rows
-	    propertyRows.clear();
+	    publish(property);
+	}
 
-	    if (model == null) {
-		fireTableDataChanged();
+	@Override
+	protected void process(List<Property> properties) {
+	    if ((loadingWorker != this) || isCancelled()) {
 		return;
 	    }
 
-	    // Rebuild rows
-	    PropertyRow virtualRoot = new PropertyRow();
-	    virtualRoot.indentationLevel = -1;
-	    rebuildPropertyRows(model, virtualRoot);
-
-	    // Compute indentation closings
-	    PropertyRow previous = null;
-	    for (PropertyRow propertyRow : propertyRows) {
-		if (previous == null) {
-		    previous = propertyRow;
-		    continue;
-		}
-
-		previous.indentationClosings = (byte) Math.max(previous.indentationLevel
-			- propertyRow.indentationLevel, 0);
-		previous = propertyRow;
-	    }
-
-	    if (previous != null) {
-		previous.indentationClosings = previous.indentationLevel;
+	    for (Property property : properties) {
+		loadedModel.getSubproperties().add(property);
+		propertiesTableModel.appendPropertyRows(property);
 	    }
-
-	    fireTableDataChanged();
 	}
 
-	/**
-	 * Recursive helper subroutine to rebuild property rows.
-	 */
-	private void rebuildPropertyRows(ComposedProperty property, PropertyRow parent) {
-	    for (Property subproperty : property.getSubproperties()) {
-		PropertyRow row = propertyMap.get(subproperty);
-
-		// Create property record if does not exist
-		if (row == null) {
-		    row = new PropertyRow();
-		    row.property = subproperty;
-		    propertyMap.put(subproperty, row);
-
-		    if (subproperty instanceof ComposedProperty) {
-			row.collapsed = collapsedProperties.contains(subproperty.getName());
-			row.composite = (!((ComposedProperty) subproperty).getSubproperties()
-				.isEmpty());
-		    }
-		}
+	@Override
+	protected void done() {
+	    if (loadingWorker != this) {
+		return;
+	    }
 
-		// Set indentation
-		row.indentationLevel = (byte) (parent.indentationLevel + 1);
+	    loadingWorker = null;
+	    loadingIndicator.setVisible(false);
+	    if (isCancelled()) {
+		return;
+	    }
 
-		// Add row to visible rows
-		row.visible = true;
-		row.rowIndex = propertyRows.size();
-		propertyRows.add(row);
+	    Throwable failure = null;
+	    try {
+		get();
+	    } catch (ExecutionException e) {
+		failure = e.getCause();
+	    } catch (InterruptedException e) {
+		failure = e;
+	    }
 
-		// Process subproperies in case of expanded composed property
-		if ((subproperty instanceof ComposedProperty) && (!row.collapsed)) {
-		    rebuildPropertyRows((ComposedProperty) subproperty, row);
+	    for (ModelLoadingListener listener : listenerList
+		    .getListeners(ModelLoadingListener.class)) {
+		if (failure != null) {
+		    listener.loadingFailed(loadedModel, failure);
+		} else {
+		    listener.loadingFinished(loadedModel);
 		}
 	    }
 	}
@@ -686,7 +1911,7 @@ public class PropertiesPanel extends JPanel {
     /**
      * Component for displaying hint text.
      */
-    private final JLabel hintLabel;
+    private final HintLabel hintLabel;
 
     /**
      * Indicates whether box with hints is visible.
@@ -740,6 +1965,75 @@ public class PropertiesPanel extends JPanel {
      */
     private Set<String> collapsedProperties = new HashSet<String>();
 
+    /**
+     * Worker loading the model asynchronously, or null, if no loading is in
+     * progress.
+     */
+    private ModelLoadingWorker loadingWorker;
+
+    /**
+     * Label displayed below the table while the model is loaded.
+     */
+    private final JLabel loadingIndicator;
+
+    /**
+     * Indicates whether rendered rows are cached as images.
+     */
+    private boolean rowImageCacheEnabled = false;
+
+    /**
+     * Indicates whether hints of rows around the selected row are prepared in
+     * advance.
+     */
+    private boolean hintPrefetchEnabled = false;
+
+    /**
+     * Indicates whether width of the name column is fitted to labels.
+     */
+    private boolean nameColumnAutoFit = false;
+
+    /**
+     * Scheduler of repaints of changed values.
+     */
+    private final ValueChangeAnimator valueChangeAnimator = new ValueChangeAnimator();
+
+    /**
+     * Color of highlight of changed values, or null.
+     */
+    private Color valueChangeHighlight;
+
+    /**
+     * Duration of highlight of changed values in milliseconds.
+     */
+    private int valueChangeHighlightDuration = 1000;
+
+    /**
+     * Maximal number of repaints of changed values per second.
+     */
+    private int maxFrameRate = 30;
+
+    /**
+     * User interface delegates of property types registered for this panel.
+     * They take precedence over default delegates.
+     */
+    private final Map<Class<?>, PropertyTypeUI> propertyTypeUIs = new HashMap<Class<?>, PropertyTypeUI>();
+
+    /**
+     * Renderers of values provided by delegates mapped by property types.
+     */
+    private final Map<PropertyType, TableCellRenderer> valueRenderers = new WeakHashMap<PropertyType, TableCellRenderer>();
+
+    /**
+     * Editors of values provided by delegates mapped by property types.
+     */
+    private final Map<PropertyType, TableCellEditor> valueEditors = new WeakHashMap<PropertyType, TableCellEditor>();
+
+    /**
+     * Number of changes of default delegates when the pools of value
+     * renderers and editors were filled.
+     */
+    private int valueCellPoolsModCount = PropertyTypeUI.getDefaultUIsModCount();
+
     // -----------------------------------------------------------------
     // Constructor
     // -----------------------------------------------------------------
@@ -754,7 +2048,16 @@ public class PropertiesPanel extends JPanel {
 	emptyCellRenderer = new EmptyCellRenderer();
 
 	scrollPane = new JScrollPane();
-	add(scrollPane, BorderLayout.CENTER);
+	JPanel tablePanel = new JPanel(new BorderLayout(0, 0));
+	tablePanel.add(scrollPane, BorderLayout.CENTER);
+	add(tablePanel, BorderLayout.CENTER);
+
+	// The loading state is displayed outside the table, so that it is not
+	// a row of the model
+	loadingIndicator = new JLabel("Loading...");
+	loadingIndicator.setBorder(new EmptyBorder(3, 5, 3, 5));
+	loadingIndicator.setVisible(false);
+	tablePanel.add(loadingIndicator, BorderLayout.SOUTH);
 
 	propertiesTable = new PropertiesTable();
 	propertiesTableModel = new PropertiesTableModel();
@@ -784,21 +2087,15 @@ public class PropertiesPanel extends JPanel {
 	hintTitleLabel.setBorder(new EmptyBorder(3, 3, 3, 3));
 	hintBox.add(hintTitleLabel, BorderLayout.NORTH);
 
-	hintLabel = new JLabel("");
+	hintLabel = new HintLabel();
 	hintLabel.setBorder(new EmptyBorder(3, 5, 3, 5));
 	hintBox.add(hintLabel);
 
-	BufferedImage defaultCollapseIcon = null;
-	BufferedImage defaultExpandIcon = null;
-	try {
-	    defaultCollapseIcon = ImageIO.read(PropertiesPanel.class
-		    .getResource("collapse-icon.png"));
-	    defaultExpandIcon = ImageIO.read(PropertiesPanel.class.getResource("expand-icon.png"));
-	} catch (Exception ignore) {
-
-	}
+	BufferedImage defaultCollapseIcon = IconCache.getImage("collapse-icon.png");
+	BufferedImage defaultExpandIcon = IconCache.getImage("expand-icon.png");
 
 	columnResizer = new TableColumnResizer(propertiesTable);
+	columnResizer.setFrameRate(maxFrameRate);
 	setResizableByDividerLine(true);
 
 	propertiesTable.updateHintBox();
@@ -831,6 +2128,7 @@ public class PropertiesPanel extends JPanel {
 	    return;
 	}
 
+	cancelLoading();
 	cancelEditing();
 
 	if (this.model != null) {
@@ -851,6 +2149,144 @@ public class PropertiesPanel extends JPanel {
 	repaint();
     }
 
+    /**
+     * Sets the properties model and loads its top-level properties
+     * asynchronously. Properties are loaded in a background thread and
+     * appended to the model as soon as they are published by the loader. The
+     * loading label is displayed below the table until the loading is
+     * finished. The end of loading and exceptions thrown by the loader are
+     * reported to registered {@link ModelLoadingListener}s.
+     * 
+     * @param model
+     *            the desired model.
+     * @param loader
+     *            the loader of top-level properties.
+     * @return the future representing the loading, it can be used to cancel
+     *         the loading or to retrieve an exception thrown by the loader.
+     */
+    public Future<Void> loadModel(ComposedProperty model, ModelLoader loader) {
+	if ((model == null) || (loader == null)) {
+	    throw new NullPointerException("Model and loader must be set.");
+	}
+
+	cancelLoading();
+	setModel(model);
+
+	loadingIndicator.setVisible(true);
+	loadingWorker = new ModelLoadingWorker(loader, model);
+	loadingWorker.execute();
+	return loadingWorker;
+    }
+
+    /**
+     * Returns whether the model is loaded asynchronously.
+     * 
+     * @return true, if loading of the model is in progress, false otherwise.
+     */
+    public boolean isLoading() {
+	return loadingWorker != null;
+    }
+
+    /**
+     * Cancels asynchronous loading of the model, if it is in progress.
+     * Properties that were already appended to the model remain in the model.
+     */
+    public void cancelLoading() {
+	if (loadingWorker == null) {
+	    return;
+	}
+
+	ModelLoadingWorker worker = loadingWorker;
+	loadingWorker = null;
+	worker.cancel(true);
+	loadingIndicator.setVisible(false);
+    }
+
+    /**
+     * Adds a listener notified when asynchronous loading of a model ends.
+     * 
+     * @param listener
+     *            the listener.
+     */
+    public void addModelLoadingListener(ModelLoadingListener listener) {
+	listenerList.add(ModelLoadingListener.class, listener);
+    }
+
+    /**
+     * Removes a listener notified when asynchronous loading of a model ends.
+     * 
+     * @param listener
+     *            the listener.
+     */
+    public void removeModelLoadingListener(ModelLoadingListener listener) {
+	listenerList.remove(ModelLoadingListener.class, listener);
+    }
+
+    /**
+     * Reloads the properties model from its new definition. The definition is
+     * merged into the current model by name paths of properties (see
+     * {@link PropertyTreeMerger}), so values, collapsed properties, selection
+     * and scroll position are preserved wherever possible. If no model is
+     * set, the definition becomes the model.
+     * 
+     * @param definition
+     *            the new definition of the model.
+     */
+    public void reloadModel(ComposedProperty definition) {
+	reloadModel(definition, null);
+    }
+
+    /**
+     * Reloads the properties model from its new definition. Property types
+     * of the same class with equal descriptions are considered unchanged.
+     * 
+     * @param definition
+     *            the new definition of the model.
+     * @param describer
+     *            the describer used to compare property types that are not
+     *            equal or null, if only equal types are unchanged.
+     * @see #reloadModel(ComposedProperty)
+     */
+    public void reloadModel(ComposedProperty definition, PropertyTypeDescriber describer) {
+	if ((model == null) || (definition == null)) {
+	    setModel(definition);
+	    return;
+	}
+
+	if (definition == model) {
+	    return;
+	}
+
+	cancelLoading();
+	cancelEditing();
+
+	// Changes are reported to the table at once after merging
+	final Set<Property> changedProperties = new HashSet<Property>();
+	PropertyListener changeCollector = new PropertyAdapter() {
+	    @Override
+	    public void propertyChanged(Property property) {
+		changedProperties.add(property);
+	    }
+
+	    @Override
+	    public void propertyValueChanged(Property property) {
+		changedProperties.add(property);
+	    }
+	};
+
+	model.removePropertyListener(propertiesTableModel);
+	model.addPropertyListener(changeCollector);
+	try {
+	    PropertyTreeMerger.merge(model, definition, describer);
+	} finally {
+	    model.removePropertyListener(changeCollector);
+	    model.addPropertyListener(propertiesTableModel);
+	    // Rows follow also a partially merged model
+	    propertiesTableModel.updatePropertyRows(changedProperties);
+	    propertiesTable.updateHintBox();
+	}
+    }
+
     /**
      * Cancels editing, if there is a property in the edit mode.
      */
@@ -882,10 +2318,16 @@ public class PropertiesPanel extends JPanel {
 	    throw new NullPointerException("Both icons must be set.");
 	}
 
-	this.collapseIcon = deepCopy(collapseIcon);
-	this.expandIcon = deepCopy(expandIcon);
+	// Shared icons are immutable, other icons are copied
+	this.collapseIcon = IconCache.isShared(collapseIcon) ? collapseIcon : IconCache
+		.createCompatibleCopy(collapseIcon);
+	this.expandIcon = IconCache.isShared(expandIcon) ? expandIcon : IconCache
+		.createCompatibleCopy(expandIcon);
 	this.treeLineColor = lineColorOfTree;
 	this.indentationWidth = Math.max(this.collapseIcon.getWidth(), this.expandIcon.getWidth());
+	propertyNameCellRenderer.clearTreeStamps();
+	propertiesTable.clearRowImages();
+	propertiesTable.invalidateNameWidths();
 
 	updateRowHeights();
 	repaint();
@@ -908,6 +2350,8 @@ public class PropertiesPanel extends JPanel {
      */
     public void setLineColorOfTree(Color lineColor) {
 	treeLineColor = lineColor;
+	propertyNameCellRenderer.clearTreeStamps();
+	propertiesTable.clearRowImages();
 	repaint();
     }
 
@@ -933,6 +2377,9 @@ public class PropertiesPanel extends JPanel {
 	}
 
 	this.indentationLevelShift = (byte) indentationLevelShift;
+	propertyNameCellRenderer.clearTreeStamps();
+	propertiesTable.clearRowImages();
+	propertiesTable.invalidateNameWidths();
 	repaint();
     }
 
@@ -1097,6 +2544,7 @@ public class PropertiesPanel extends JPanel {
 	}
 
 	this.groupNameBackground = color;
+	propertiesTable.clearRowImages();
 	repaint();
     }
 
@@ -1126,13 +2574,239 @@ public class PropertiesPanel extends JPanel {
 	}
 
 	this.groupNameForeground = color;
+	propertiesTable.clearRowImages();
+	repaint();
+    }
+
+    /**
+     * Returns label displayed below the table while the model is loaded.
+     * 
+     * @return the label.
+     */
+    public String getLoadingLabel() {
+	return loadingIndicator.getText();
+    }
+
+    /**
+     * Sets label displayed below the table while the model is loaded.
+     * 
+     * @param loadingLabel
+     *            the desired label.
+     */
+    public void setLoadingLabel(String loadingLabel) {
+	loadingIndicator.setText(loadingLabel);
+    }
+
+    /**
+     * Returns whether width of the name column is fitted to labels of
+     * properties.
+     * 
+     * @return true, if the width is fitted, false otherwise.
+     */
+    public boolean isNameColumnAutoFit() {
+	return nameColumnAutoFit;
+    }
+
+    /**
+     * Sets whether width of the name column is fitted to labels of
+     * properties. Labels of visible rows and of a sample of other rows are
+     * measured, so that the fit is fast also for large models. The width is
+     * fitted again after rows are changed, expanded or collapsed and after
+     * the table is resized.
+     * 
+     * @param nameColumnAutoFit
+     *            true, if the width should be fitted, false otherwise.
+     */
+    public void setNameColumnAutoFit(boolean nameColumnAutoFit) {
+	if (this.nameColumnAutoFit == nameColumnAutoFit) {
+	    return;
+	}
+
+	this.nameColumnAutoFit = nameColumnAutoFit;
+	propertiesTable.scheduleNameColumnFit();
+    }
+
+    /**
+     * Returns whether hints of rows around the selected row are prepared in
+     * advance.
+     * 
+     * @return true, if the hints are prepared in advance, false otherwise.
+     */
+    public boolean isHintPrefetchEnabled() {
+	return hintPrefetchEnabled;
+    }
+
+    /**
+     * Sets whether hints of rows around the selected row are prepared in
+     * advance. Hints are parsed in the event dispatch thread shortly after the
+     * selection stops changing, so that moving the selection to a
+     * neighboring row displays its hint without parsing.
+     * 
+     * @param hintPrefetchEnabled
+     *            true, if the hints should be prepared in advance, false
+     *            otherwise.
+     */
+    public void setHintPrefetchEnabled(boolean hintPrefetchEnabled) {
+	this.hintPrefetchEnabled = hintPrefetchEnabled;
+    }
+
+    /**
+     * Returns whether rendered rows of the table are cached as images.
+     * 
+     * @return true, if the row images are cached, false otherwise.
+     */
+    public boolean isRowImageCacheEnabled() {
+	return rowImageCacheEnabled;
+    }
+
+    /**
+     * Sets whether rendered rows of the table are cached as images, so that
+     * scrolling over unchanged rows only copies the images. A cached row is
+     * rendered again when the row is updated, its selection changes or the
+     * columns are resized. The cache should be enabled only if renderers
+     * display nothing but the row state.
+     * 
+     * @param rowImageCacheEnabled
+     *            true, if the row images should be cached, false otherwise.
+     */
+    public void setRowImageCacheEnabled(boolean rowImageCacheEnabled) {
+	if (this.rowImageCacheEnabled == rowImageCacheEnabled) {
+	    return;
+	}
+
+	this.rowImageCacheEnabled = rowImageCacheEnabled;
+	propertiesTable.clearRowImages();
+	propertiesTable.repaint();
+    }
+
+    /**
+     * Returns color of highlight of changed values.
+     * 
+     * @return the color or null, if changed values are not highlighted.
+     */
+    public Color getValueChangeHighlight() {
+	return valueChangeHighlight;
+    }
+
+    /**
+     * Sets color of highlight of changed values. The highlight is painted
+     * over value cells and fades out, so the color should be translucent.
+     * 
+     * @param color
+     *            the desired color, or null, if changed values should not be
+     *            highlighted.
+     */
+    public void setValueChangeHighlight(Color color) {
+	this.valueChangeHighlight = color;
+	valueChangeAnimator.setHighlightColor(color);
+	propertiesTable.clearRowImages();
 	repaint();
     }
 
+    /**
+     * Returns duration of highlight of changed values.
+     * 
+     * @return the duration in milliseconds.
+     */
+    public int getValueChangeHighlightDuration() {
+	return valueChangeHighlightDuration;
+    }
+
+    /**
+     * Sets duration of highlight of changed values.
+     * 
+     * @param duration
+     *            the desired duration in milliseconds.
+     */
+    public void setValueChangeHighlightDuration(int duration) {
+	if (duration <= 0) {
+	    throw new IllegalArgumentException("Duration of highlight must be positive.");
+	}
+
+	this.valueChangeHighlightDuration = duration;
+	valueChangeAnimator.setHighlightDuration(duration);
+    }
+
+    /**
+     * Returns maximal number of repaints of changed values per second.
+     * 
+     * @return the frame rate.
+     */
+    public int getMaxFrameRate() {
+	return maxFrameRate;
+    }
+
+    /**
+     * Sets maximal number of repaints of changed values per second. Value
+     * changes are collected and their cells are repainted together in the
+     * next frame. The frame rate also limits updates of column widths while
+     * the divider line is dragged.
+     * 
+     * @param maxFrameRate
+     *            the desired frame rate.
+     */
+    public void setMaxFrameRate(int maxFrameRate) {
+	if (maxFrameRate <= 0) {
+	    throw new IllegalArgumentException("Frame rate must be positive.");
+	}
+
+	this.maxFrameRate = maxFrameRate;
+	valueChangeAnimator.setFrameRate(maxFrameRate);
+	columnResizer.setFrameRate(maxFrameRate);
+    }
+
+    /**
+     * Returns the user interface delegate used for a class of property types.
+     * Delegates registered for this panel take precedence over default
+     * delegates.
+     * 
+     * @param typeClass
+     *            the class of property types.
+     * @return the delegate or null, if no delegate is available.
+     */
+    public PropertyTypeUI getPropertyTypeUI(Class<? extends PropertyType> typeClass) {
+	PropertyTypeUI result = PropertyTypeUI.findUI(propertyTypeUIs, typeClass);
+	if (result == null) {
+	    result = PropertyTypeUI.getDefaultUI(typeClass);
+	}
+
+	return result;
+    }
+
+    /**
+     * Registers the user interface delegate for a class of property types used
+     * by this panel.
+     * 
+     * @param typeClass
+     *            the class of property types.
+     * @param ui
+     *            the delegate or null, if the registered delegate should be
+     *            removed.
+     */
+    public void setPropertyTypeUI(Class<? extends PropertyType> typeClass, PropertyTypeUI ui) {
+	if (ui != null) {
+	    propertyTypeUIs.put(typeClass, ui);
+	} else {
+	    propertyTypeUIs.remove(typeClass);
+	}
+
+	clearValueCellPools();
+	propertiesTable.clearRowImages();
+	propertiesTable.repaint();
+    }
+
     // -----------------------------------------------------------------
     // Helper methods
     // -----------------------------------------------------------------
 
+    /**
+     * Clears pools of value renderers and editors.
+     */
+    private void clearValueCellPools() {
+	valueRenderers.clear();
+	valueEditors.clear();
+    }
+
     /**
      * Updates row heights.
      */
@@ -1151,14 +2825,4 @@ public class PropertiesPanel extends JPanel {
 
 	propertiesTable.setRowHeight(minCommonHeight + 2);
     }
-
-    /**
-     * Clones a buffered image.
-     */
-    private static BufferedImage deepCopy(BufferedImage image) {
-	ColorModel cm = image.getColorModel();
-	boolean isAlphaPremultiplied = cm.isAlphaPremultiplied();
-	WritableRaster raster = image.copyData(null);
-	return new BufferedImage(cm, raster, isAlphaPremultiplied, null);
-    }
 }
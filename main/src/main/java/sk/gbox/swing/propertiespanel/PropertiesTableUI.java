@@ -1,6 +1,11 @@
 package sk.gbox.swing.propertiespanel;
 
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.swing.*;
 import javax.swing.table.*;
@@ -14,6 +19,111 @@ import sk.gbox.swing.propertiespanel.PropertiesPanel.PropertiesTable;
  */
 class PropertiesTableUI extends BasicTableUI {
 
+    /**
+     * Minimal number of cached row images.
+     */
+    private static final int MIN_CACHED_ROW_IMAGES = 64;
+
+    /**
+     * Cached image of a rendered row together with the state in which it was
+     * rendered.
+     */
+    private static class RowImage {
+	/**
+	 * Image with rendered cells of the row.
+	 */
+	BufferedImage image;
+
+	/**
+	 * Version of the row.
+	 */
+	int version;
+
+	/**
+	 * Bit mask of selected cells.
+	 */
+	int selection;
+
+	/**
+	 * Index of the column with focused cell or -1.
+	 */
+	int focusedColumn;
+
+	/**
+	 * Widths of columns.
+	 */
+	int[] columnWidths;
+
+	/**
+	 * Height of the row.
+	 */
+	int height;
+    }
+
+    /**
+     * Maximal number of cached row images.
+     */
+    private int maxRowImages = MIN_CACHED_ROW_IMAGES;
+
+    /**
+     * Cached row images in access order.
+     */
+    private final Map<Object, RowImage> rowImages = new LinkedHashMap<Object, RowImage>(16,
+	    0.75f, true) {
+	@Override
+	protected boolean removeEldestEntry(Map.Entry<Object, RowImage> eldest) {
+	    return size() > maxRowImages;
+	}
+    };
+
+    /**
+     * Device configuration of cached row images.
+     */
+    private GraphicsConfiguration rowImagesConfiguration;
+
+    /**
+     * Scale of device configuration of cached row images.
+     */
+    private double rowImagesScale = 1;
+
+    /**
+     * Rectangle reused for bounds of painted cells.
+     */
+    private final Rectangle paintedCellRect = new Rectangle();
+
+    /**
+     * Listener that drops cached row images whenever a property of the table
+     * changes.
+     */
+    private PropertyChangeListener rowImagesInvalidator;
+
+    @Override
+    protected void installListeners() {
+	super.installListeners();
+	rowImagesInvalidator = new PropertyChangeListener() {
+	    @Override
+	    public void propertyChange(PropertyChangeEvent evt) {
+		clearRowImages();
+	    }
+	};
+	table.addPropertyChangeListener(rowImagesInvalidator);
+    }
+
+    @Override
+    protected void uninstallListeners() {
+	table.removePropertyChangeListener(rowImagesInvalidator);
+	rowImagesInvalidator = null;
+	clearRowImages();
+	super.uninstallListeners();
+    }
+
+    /**
+     * Removes all cached row images.
+     */
+    void clearRowImages() {
+	rowImages.clear();
+    }
+
     /**
      * Paint a representation of the <code>table</code> instance that was set in
      * installUI().
@@ -250,30 +360,24 @@ class PropertiesTableUI extends BasicTableUI {
 	    propertiesTable = (PropertiesTable) table;
 	}
 
-	TableColumnModel cm = table.getColumnModel();
-	int columnMargin = cm.getColumnMargin();
+	boolean cacheRows = (propertiesTable != null) && propertiesTable.isRowImageCacheEnabled()
+		&& (draggedColumn == null) && (g instanceof Graphics2D) && table.isOpaque()
+		&& !table.getShowVerticalLines()
+		&& !table.isPaintingForPrint() && (table.getDropLocation() == null);
+	if (cacheRows) {
+	    maxRowImages = Math.max(MIN_CACHED_ROW_IMAGES, 2 * (rMax - rMin + 1));
+	} else if (!rowImages.isEmpty()) {
+	    clearRowImages();
+	}
 
-	Rectangle cellRect;
-	TableColumn aColumn;
-	int columnWidth;
 	for (int row = rMin; row <= rMax; row++) {
-	    cellRect = table.getCellRect(row, cMin, false);
-
-	    boolean fullRowSpan = (propertiesTable != null)
-		    && (propertiesTable.isFullySpannedRow(row));
-	    if (fullRowSpan) {
-		paintCell(g, cellRect, row, 0);
-	    } else {
-		for (int column = cMin; column <= cMax; column++) {
-		    aColumn = cm.getColumn(column);
-		    columnWidth = aColumn.getWidth();
-		    cellRect.width = columnWidth - columnMargin;
-		    if (aColumn != draggedColumn) {
-			paintCell(g, cellRect, row, column);
-		    }
-		    cellRect.x += columnWidth;
+	    if (cacheRows && !(table.isEditing() && (table.getEditingRow() == row))) {
+		if (paintCachedRow((Graphics2D) g, propertiesTable, row)) {
+		    continue;
 		}
 	    }
+
+	    paintRow(g, propertiesTable, row, cMin, cMax, draggedColumn);
 	}
 
 	// Paint the dragged column if we are dragging.
@@ -285,6 +389,142 @@ class PropertiesTableUI extends BasicTableUI {
 	rendererPane.removeAll();
     }
 
+    /**
+     * Paints cells of a row in the given range of columns.
+     */
+    private void paintRow(Graphics g, PropertiesTable propertiesTable, int row, int cMin,
+	    int cMax, TableColumn draggedColumn) {
+	TableColumnModel cm = table.getColumnModel();
+	int columnMargin = cm.getColumnMargin();
+	Rectangle cellRect;
+	if (propertiesTable != null) {
+	    cellRect = propertiesTable.getCellRect(row, cMin, false, paintedCellRect);
+	} else {
+	    cellRect = table.getCellRect(row, cMin, false);
+	}
+
+	boolean fullRowSpan = (propertiesTable != null) && (propertiesTable.isFullySpannedRow(row));
+	if (fullRowSpan) {
+	    paintCell(g, cellRect, row, 0);
+	} else {
+	    for (int column = cMin; column <= cMax; column++) {
+		TableColumn aColumn = cm.getColumn(column);
+		int columnWidth = aColumn.getWidth();
+		cellRect.width = columnWidth - columnMargin;
+		if (aColumn != draggedColumn) {
+		    paintCell(g, cellRect, row, column);
+		}
+		cellRect.x += columnWidth;
+	    }
+	}
+    }
+
+    /**
+     * Paints a row using its cached image. The image is rendered again, if the
+     * row, its selection or widths of columns changed since the image was
+     * rendered.
+     * 
+     * @return true, if the row was painted, false otherwise.
+     */
+    private boolean paintCachedRow(Graphics2D g, PropertiesTable propertiesTable, int row) {
+	GraphicsConfiguration configuration = g.getDeviceConfiguration();
+	if (configuration != rowImagesConfiguration) {
+	    clearRowImages();
+	    rowImagesConfiguration = configuration;
+	    rowImagesScale = (configuration != null) ? configuration.getDefaultTransform()
+		    .getScaleX() : 1;
+	}
+
+	TableColumnModel cm = table.getColumnModel();
+	int columnCount = cm.getColumnCount();
+	int width = cm.getTotalColumnWidth();
+	Rectangle rowRect = propertiesTable.getCellRect(row, 0, false, paintedCellRect);
+	int y = rowRect.y;
+	int height = rowRect.height;
+	if ((columnCount > Integer.SIZE) || (width <= 0) || (height <= 0)) {
+	    return false;
+	}
+
+	// Collect state of the row
+	int version = propertiesTable.getRowVersion(row);
+	int selection = 0;
+	for (int column = 0; column < columnCount; column++) {
+	    if (table.isCellSelected(row, column)) {
+		selection |= 1 << column;
+	    }
+	}
+
+	int focusedColumn = -1;
+	if (table.isFocusOwner() && (table.getSelectionModel().getLeadSelectionIndex() == row)) {
+	    focusedColumn = cm.getSelectionModel().getLeadSelectionIndex();
+	}
+
+	// Check whether the cached image is valid
+	Object rowKey = propertiesTable.getRowKey(row);
+	RowImage rowImage = rowImages.get(rowKey);
+	boolean valid = (rowImage != null) && (rowImage.version == version)
+		&& (rowImage.selection == selection) && (rowImage.focusedColumn == focusedColumn)
+		&& (rowImage.height == height) && (rowImage.columnWidths.length == columnCount);
+	for (int column = 0; valid && (column < columnCount); column++) {
+	    valid = (rowImage.columnWidths[column] == cm.getColumn(column).getWidth());
+	}
+
+	if (!valid) {
+	    if (rowImage == null) {
+		rowImage = new RowImage();
+		rowImages.put(rowKey, rowImage);
+	    }
+
+	    if ((rowImage.columnWidths == null) || (rowImage.columnWidths.length != columnCount)) {
+		rowImage.columnWidths = new int[columnCount];
+	    }
+
+	    for (int column = 0; column < columnCount; column++) {
+		rowImage.columnWidths[column] = cm.getColumn(column).getWidth();
+	    }
+
+	    rowImage.version = version;
+	    rowImage.selection = selection;
+	    rowImage.focusedColumn = focusedColumn;
+	    rowImage.height = height;
+	    renderRowImage(rowImage, configuration, propertiesTable, row, y, width);
+	}
+
+	g.drawImage(rowImage.image, 0, y, width, height, null);
+	return true;
+    }
+
+    /**
+     * Renders cells of a row to the image of cached row.
+     */
+    private void renderRowImage(RowImage rowImage, GraphicsConfiguration configuration,
+	    PropertiesTable propertiesTable, int row, int y, int width) {
+	int imageWidth = (int) Math.ceil(width * rowImagesScale);
+	int imageHeight = (int) Math.ceil(rowImage.height * rowImagesScale);
+	BufferedImage image = rowImage.image;
+	if ((image == null) || (image.getWidth() != imageWidth)
+		|| (image.getHeight() != imageHeight)) {
+	    if (configuration != null) {
+		image = configuration.createCompatibleImage(imageWidth, imageHeight,
+			Transparency.OPAQUE);
+	    } else {
+		image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
+	    }
+	    rowImage.image = image;
+	}
+
+	Graphics2D g = image.createGraphics();
+	try {
+	    g.scale(rowImagesScale, rowImagesScale);
+	    g.setColor(table.getBackground());
+	    g.fillRect(0, 0, width, rowImage.height);
+	    g.translate(0, -y);
+	    paintRow(g, propertiesTable, row, 0, table.getColumnCount() - 1, null);
+	} finally {
+	    g.dispose();
+	}
+    }
+
     private void paintDraggedArea(Graphics g, int rMin, int rMax, TableColumn draggedColumn,
 	    int distance) {
 	int draggedColumnIndex = viewIndexForColumn(draggedColumn);
@@ -341,6 +581,21 @@ class PropertiesTableUI extends BasicTableUI {
     }
 
     private void paintCell(Graphics g, Rectangle cellRect, int row, int column) {
+	paintCellContent(g, cellRect, row, column);
+
+	// Paint highlight of changed value
+	boolean edited = table.isEditing() && (table.getEditingRow() == row)
+		&& (table.getEditingColumn() == column);
+	if ((column != 0) && !edited && (table instanceof PropertiesTable)) {
+	    Color highlight = ((PropertiesTable) table).getValueHighlight(row);
+	    if (highlight != null) {
+		g.setColor(highlight);
+		g.fillRect(cellRect.x, cellRect.y, cellRect.width, cellRect.height);
+	    }
+	}
+    }
+
+    private void paintCellContent(Graphics g, Rectangle cellRect, int row, int column) {
 	if (table.isEditing() && table.getEditingRow() == row && table.getEditingColumn() == column) {
 	    Component component = table.getEditorComponent();
 	    component.setBounds(cellRect);
@@ -0,0 +1,191 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.awt.Component;
+import java.util.*;
+import java.util.concurrent.*;
+
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import javax.swing.table.*;
+
+import sk.gbox.swing.propertiespanel.types.*;
+
+/**
+ * Base class for user interface delegates of property types. A delegate
+ * provides cell renderers and editors for values of property types of a
+ * certain class. Delegates are registered for classes of property types,
+ * delegates for "build-in" property types are registered by default. Delegates
+ * are used in the event dispatch thread.
+ * <p>
+ * A properties panel requests the renderer and the editor once for each
+ * property type it displays and pools them afterwards. Delegates should
+ * return new instances configured for the given type instead of caching them.
+ */
+public abstract class PropertyTypeUI {
+
+    /**
+     * Returns cell renderer for values of a property type.
+     * 
+     * @param type
+     *            the property type.
+     * @param propertiesPanel
+     *            the properties panel for which the renderer is provided.
+     * 
+     * @return the cell renderer for values of the property type. The method
+     *         never returns null.
+     */
+    public abstract TableCellRenderer getValueRenderer(PropertyType type,
+	    PropertiesPanel propertiesPanel);
+
+    /**
+     * Returns cell editor for editable properties of a property type.
+     * 
+     * @param type
+     *            the property type.
+     * @param propertiesPanel
+     *            the properties panel for which the editor is provided.
+     * @return the cell editor for values of the property type.
+     */
+    public abstract TableCellEditor getValueEditor(PropertyType type,
+	    PropertiesPanel propertiesPanel);
+
+    // ------------------------------------------------------------------
+    // Registry of default delegates.
+    // ------------------------------------------------------------------
+
+    /**
+     * Default delegates mapped by classes of property types.
+     */
+    private static final ConcurrentMap<Class<?>, PropertyTypeUI> defaultUIs = new ConcurrentHashMap<Class<?>, PropertyTypeUI>();
+
+    /**
+     * Number of changes of default delegates.
+     */
+    private static volatile int defaultUIsModCount;
+
+    static {
+	defaultUIs.put(StringType.class, new StringTypeUI());
+	defaultUIs.put(BooleanType.class, new BooleanTypeUI());
+	defaultUIs.put(IntegerType.class, new IntegerTypeUI());
+	defaultUIs.put(DecimalType.class, new DecimalTypeUI());
+	defaultUIs.put(EnumerationType.class, new EnumerationTypeUI());
+    }
+
+    /**
+     * Registers the default delegate for a class of property types. The
+     * delegate is used also for subclasses without their own delegate.
+     * 
+     * @param typeClass
+     *            the class of property types.
+     * @param ui
+     *            the delegate or null, if the registered delegate should be
+     *            removed.
+     */
+    public static void setDefaultUI(Class<? extends PropertyType> typeClass, PropertyTypeUI ui) {
+	if (ui != null) {
+	    defaultUIs.put(typeClass, ui);
+	} else {
+	    defaultUIs.remove(typeClass);
+	}
+
+	defaultUIsModCount++;
+    }
+
+    /**
+     * Returns the number of changes of default delegates, so that users of
+     * delegates can detect that their cached renderers and editors are
+     * outdated.
+     */
+    static int getDefaultUIsModCount() {
+	return defaultUIsModCount;
+    }
+
+    /**
+     * Returns the default delegate for a class of property types. If no
+     * delegate is registered for the class, superclasses are searched.
+     * 
+     * @param typeClass
+     *            the class of property types.
+     * @return the delegate or null, if no delegate is registered.
+     */
+    public static PropertyTypeUI getDefaultUI(Class<?> typeClass) {
+	return findUI(defaultUIs, typeClass);
+    }
+
+    /**
+     * Returns the delegate registered in a map for a class of property types
+     * or its nearest superclass.
+     * 
+     * @param uis
+     *            the delegates mapped by classes of property types.
+     * @param typeClass
+     *            the class of property types.
+     * @return the delegate or null, if no delegate is registered.
+     */
+    static PropertyTypeUI findUI(Map<Class<?>, PropertyTypeUI> uis, Class<?> typeClass) {
+	while ((typeClass != null) && (typeClass != PropertyType.class)) {
+	    PropertyTypeUI result = uis.get(typeClass);
+	    if (result != null) {
+		return result;
+	    }
+	    typeClass = typeClass.getSuperclass();
+	}
+
+	return null;
+    }
+
+    // ------------------------------------------------------------------
+    // Shared static constants for GUI communication.
+    // ------------------------------------------------------------------
+
+    private static String editLabel = "Edit";
+    private static String revertLabel = "Revert";
+    private static String editOrRevertTitle = "Invalid value entered";
+    private static String editOrRevertMessage = "The value is invalid.\n"
+	    + "You can either continue editing or revert to the last valid value.";
+
+    /**
+     * Configure texts displayed in a window displayed when the user entered an
+     * invalid value.
+     * 
+     * @param edit
+     *            the text of edit button.
+     * @param revert
+     *            the text of revert button.
+     * @param windowTitle
+     *            the title of window.
+     * @param message
+     *            the message displayed in the window.
+     */
+    public static void configureEditOrRevertTexts(String edit, String revert, String windowTitle,
+	    String message) {
+	editLabel = edit;
+	revertLabel = revert;
+	editOrRevertTitle = windowTitle;
+	editOrRevertMessage = message;
+    }
+
+    /**
+     * Asks the user whether to continue edit or revert the invalid value.
+     * 
+     * @param editedComponent
+     *            the component where the value is entered.
+     * @param message
+     *            the additional information why the value is not valid.
+     * @return true, if the user prefers to revert the value.
+     */
+    protected static boolean askEditOrRevert(Component editedComponent, String message) {
+	String windowMessage = String.format(editOrRevertMessage, (message == null) ? "" : message);
+	Object[] options = { editLabel, revertLabel };
+	int answer = JOptionPane.showOptionDialog(
+		(editedComponent != null) ? SwingUtilities.getWindowAncestor(editedComponent)
+			: null, windowMessage, editOrRevertTitle, JOptionPane.YES_NO_OPTION,
+		JOptionPane.ERROR_MESSAGE, null, options, options[1]);
+
+	if (answer == 1) {
+	    return true;
+	}
+
+	return false;
+    }
+}
@@ -2,8 +2,14 @@ package sk.gbox.swing.propertiespanel;
 
 import javax.swing.*;
 import javax.swing.table.*;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.MouseInputAdapter;
+import javax.swing.event.TableColumnModelEvent;
+import javax.swing.event.TableColumnModelListener;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 
 /**
@@ -13,13 +19,105 @@ import java.awt.event.MouseEvent;
 class TableColumnResizer extends MouseInputAdapter {
     public static Cursor resizeCursor = Cursor.getPredefinedCursor(Cursor.E_RESIZE_CURSOR);
 
+    /**
+     * Distance from a divider (in pixels) where columns can be resized.
+     */
+    private static final int DIVIDER_DISTANCE = 3;
+
     private int mouseXOffset;
     private Cursor otherCursor = resizeCursor;
     private final JTable table;
     private boolean enabled;
 
+    /**
+     * Cached x-positions of dividers between columns in table coordinates
+     * or null, if positions are not computed.
+     */
+    private int[] dividers;
+
+    /**
+     * Column model for which the positions of dividers are computed.
+     */
+    private TableColumnModel dividersColumnModel;
+
+    /**
+     * Orientation of table for which the positions of dividers are computed.
+     */
+    private boolean dividersLeftToRight;
+
+    /**
+     * Listener that drops the cached positions of dividers whenever columns
+     * change.
+     */
+    private final TableColumnModelListener columnModelListener = new TableColumnModelListener() {
+	@Override
+	public void columnAdded(TableColumnModelEvent e) {
+	    dividers = null;
+	}
+
+	@Override
+	public void columnRemoved(TableColumnModelEvent e) {
+	    dividers = null;
+	}
+
+	@Override
+	public void columnMoved(TableColumnModelEvent e) {
+	    dividers = null;
+	}
+
+	@Override
+	public void columnMarginChanged(ChangeEvent e) {
+	    dividers = null;
+	}
+
+	@Override
+	public void columnSelectionChanged(ListSelectionEvent e) {
+	    // nothing to do
+	}
+    };
+
+    /**
+     * Timer that limits updates of column width during dragging to one per
+     * frame.
+     */
+    private final Timer dragTimer;
+
+    /**
+     * Indicates whether a dragged position waits for the next frame.
+     */
+    private boolean dragPending;
+
+    /**
+     * The last dragged x-position of mouse.
+     */
+    private int dragX;
+
     public TableColumnResizer(JTable table) {
 	this.table = table;
+	dragTimer = new Timer(1000 / 30, new ActionListener() {
+	    @Override
+	    public void actionPerformed(ActionEvent e) {
+		if (dragPending) {
+		    dragPending = false;
+		    resizeColumn(dragX);
+		} else {
+		    dragTimer.stop();
+		}
+	    }
+	});
+    }
+
+    /**
+     * Sets maximal number of updates of column width per second during
+     * dragging.
+     * 
+     * @param frameRate
+     *            the frame rate.
+     */
+    public void setFrameRate(int frameRate) {
+	int delay = Math.max(1000 / frameRate, 1);
+	dragTimer.setInitialDelay(delay);
+	dragTimer.setDelay(delay);
     }
 
     public boolean isEnabled() {
@@ -38,6 +136,11 @@ class TableColumnResizer extends MouseInputAdapter {
 	} else {
 	    table.removeMouseListener(this);
 	    table.removeMouseMotionListener(this);
+	    if (dividersColumnModel != null) {
+		dividersColumnModel.removeColumnModelListener(columnModelListener);
+		dividersColumnModel = null;
+	    }
+	    dividers = null;
 	}
     }
 
@@ -47,9 +150,61 @@ class TableColumnResizer extends MouseInputAdapter {
     }
 
     private TableColumn getResizingColumn(Point p) {
+	if (!isNearDivider(p.x)) {
+	    return null;
+	}
+
 	return getResizingColumn(p, table.columnAtPoint(p));
     }
 
+    /**
+     * Returns whether an x-position is close to a divider between columns.
+     * Columns cannot be resized at positions that are not close to a
+     * divider, so the exact test can be skipped for them.
+     */
+    private boolean isNearDivider(int x) {
+	validateDividers();
+	for (int divider : dividers) {
+	    if ((x >= divider - DIVIDER_DISTANCE) && (x < divider + DIVIDER_DISTANCE)) {
+		return true;
+	    }
+	}
+
+	return false;
+    }
+
+    /**
+     * Computes cached positions of dividers, if they are not available or
+     * they are computed for other column model or orientation.
+     */
+    private void validateDividers() {
+	TableColumnModel columnModel = table.getColumnModel();
+	boolean leftToRight = table.getComponentOrientation().isLeftToRight();
+	if ((dividers != null) && (columnModel == dividersColumnModel)
+		&& (leftToRight == dividersLeftToRight)) {
+	    return;
+	}
+
+	if (columnModel != dividersColumnModel) {
+	    if (dividersColumnModel != null) {
+		dividersColumnModel.removeColumnModelListener(columnModelListener);
+	    }
+	    columnModel.addColumnModelListener(columnModelListener);
+	    dividersColumnModel = columnModel;
+	}
+
+	dividersLeftToRight = leftToRight;
+	int columnCount = columnModel.getColumnCount();
+	int totalWidth = columnModel.getTotalColumnWidth();
+	dividers = new int[columnCount];
+	int position = 0;
+	for (int i = 0; i < columnCount; i++) {
+	    position += columnModel.getColumn(i).getWidth();
+	    // Columns are laid out from the right in right-to-left tables
+	    dividers[i] = leftToRight ? position : totalWidth - position;
+	}
+    }
+
     private TableColumn getResizingColumn(Point p, int column) {
 	if (column == -1) {
 	    return null;
@@ -111,8 +266,25 @@ class TableColumnResizer extends MouseInputAdapter {
     }
 
     public void mouseDragged(MouseEvent e) {
-	int mouseX = e.getX();
+	if (table.getTableHeader().getResizingColumn() == null) {
+	    return;
+	}
+
+	dragX = e.getX();
+	if (dragTimer.isRunning()) {
+	    dragPending = true;
+	    return;
+	}
+
+	resizeColumn(dragX);
+	dragTimer.start();
+    }
 
+    /**
+     * Updates width of the resized column according to a dragged x-position
+     * of mouse.
+     */
+    private void resizeColumn(int mouseX) {
 	TableColumn resizingColumn = table.getTableHeader().getResizingColumn();
 
 	boolean headerLeftToRight = table.getTableHeader().getComponentOrientation()
@@ -167,6 +339,12 @@ class TableColumnResizer extends MouseInputAdapter {
     }
 
     public void mouseReleased(MouseEvent e) {
+	if (dragPending) {
+	    dragPending = false;
+	    resizeColumn(dragX);
+	}
+	dragTimer.stop();
+
 	table.getTableHeader().setResizingColumn(null);
 	table.getTableHeader().setDraggedColumn(null);
     }
@@ -9,10 +9,10 @@ import javax.swing.table.*;
 import sk.gbox.swing.propertiespanel.*;
 
 /**
- * Property type for boolean values.
+ * User interface delegate for boolean types.
  */
 @SuppressWarnings("serial")
-public class BooleanType extends SimplePropertyType {
+public class BooleanTypeUI extends PropertyTypeUI {
 
     /**
      * Cell editor for strings.
@@ -159,68 +159,13 @@ public class BooleanType extends SimplePropertyType {
 	}
     }
 
-    /**
-     * Renderer for boolean values.
-     */
-    private static final CellRenderer renderer = new CellRenderer();
-
-    /**
-     * Editor for boolean values.
-     */
-    private static final CellEditor editor = new CellEditor();
-
-    @Override
-    public TableCellRenderer getValueRenderer(PropertiesPanel propertiesPanel) {
-	return renderer;
-    }
-
-    @Override
-    public TableCellEditor getValueEditor(PropertiesPanel propertiesPanel) {
-	return editor;
-    }
-
-    @Override
-    public Object getDefaultValue() {
-	return false;
-    }
-
-    @Override
-    public boolean isReadOnly() {
-	return false;
-    }
-
     @Override
-    public boolean isAssignableValue(Object value) {
-	try {
-	    if (value instanceof Boolean) {
-		return true;
-	    }
-
-	    if (value instanceof String) {
-		String stringValue = value.toString();
-		return "true".equals(stringValue) || "false".equals(stringValue);
-	    }
-
-	    return false;
-	} catch (Exception e) {
-	    return false;
-	}
+    public TableCellRenderer getValueRenderer(PropertyType type, PropertiesPanel propertiesPanel) {
+	return new CellRenderer();
     }
 
     @Override
-    public Object convertAssignableToValidValue(Object value) {
-	try {
-	    if (value instanceof Boolean) {
-		return value;
-	    }
-
-	    if (value instanceof String) {
-		return Boolean.valueOf(value.toString());
-	    }
-
-	    throw new RuntimeException("Invalid value.");
-	} catch (Exception e) {
-	    throw new RuntimeException("Invalid value.");
-	}
+    public TableCellEditor getValueEditor(PropertyType type, PropertiesPanel propertiesPanel) {
+	return new CellEditor();
     }
 }
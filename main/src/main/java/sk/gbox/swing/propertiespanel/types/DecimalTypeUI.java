@@ -11,10 +11,10 @@ import javax.swing.text.*;
 import sk.gbox.swing.propertiespanel.*;
 
 /**
- * Property type for floating point number.
+ * User interface delegate for decimal types.
  */
 @SuppressWarnings("serial")
-public class DecimalType extends SimplePropertyType {
+public class DecimalTypeUI extends PropertyTypeUI {
 
     /**
      * Number formatter.
@@ -97,15 +97,16 @@ public class DecimalType extends SimplePropertyType {
     private static class CellEditor extends DefaultCellEditor {
 
 	/**
-	 * Currently set formatter factory.
+	 * Formatter factory of edited property type.
 	 */
-	private DefaultFormatterFactory formatterFactory;
+	private final DefaultFormatterFactory formatterFactory;
 
 	/**
 	 * Constructs editor.
 	 */
-	public CellEditor() {
+	public CellEditor(DefaultFormatterFactory formatterFactory) {
 	    super(new JFormattedTextField());
+	    this.formatterFactory = formatterFactory;
 	    final JFormattedTextField ftf = (JFormattedTextField) getComponent();
 
 	    // Set GUI behaviour of text field
@@ -182,150 +183,16 @@ public class DecimalType extends SimplePropertyType {
 	}
     }
 
-    /**
-     * Renderer for string values.
-     */
-    private static final CellRenderer renderer = new CellRenderer();
-
-    /**
-     * Editor for string values.
-     */
-    private static final CellEditor editor = new CellEditor();
-
-    /**
-     * Formatter factory for formatting valid values.
-     */
-    private final DefaultFormatterFactory formatterFactory;
-
-    /**
-     * Default value.
-     */
-    private final Object defaultValue;
-
-    /**
-     * Indicates whether null is accepted as a value.
-     */
-    private final boolean nullable;
-
-    /**
-     * The minimal allowed value.
-     */
-    private final double minValue;
-
-    /**
-     * The maximal allowed value.
-     */
-    private final double maxValue;
-
-    /**
-     * Constructs new decimal type for floating point numbers in given range
-     * limit.
-     * 
-     * @param minValue
-     *            the minimal allowed value.
-     * @param maxValue
-     *            the maximal allowed value.
-     * @param nullable
-     *            indicates whether null value (empty string) are allowed.
-     */
-    public DecimalType(double minValue, double maxValue, boolean nullable) {
-	if (!(minValue <= maxValue)) {
-	    throw new RuntimeException("minValue is not equal or less than maxValue.");
-	}
-
-	formatterFactory = new DefaultFormatterFactory(new FloatingPointNumberFormatter(minValue,
-		maxValue, nullable));
-
-	this.nullable = nullable;
-	this.minValue = minValue;
-	this.maxValue = maxValue;
-
-	if (nullable) {
-	    defaultValue = null;
-	} else {
-	    if ((minValue <= 0) && (0 <= maxValue)) {
-		defaultValue = Double.valueOf(0);
-	    } else {
-		defaultValue = minValue;
-	    }
-	}
-    }
-
-    /**
-     * Constructs new decimal type for floating point numbers in given range
-     * limit.
-     * 
-     * @param minValue
-     *            the minimal allowed value.
-     * @param maxValue
-     *            the maximal allowed value.
-     */
-    public DecimalType(double minValue, double maxValue) {
-	this(minValue, maxValue, false);
-    }
-
-    /**
-     * Constructs new integer type for integer values in range limit for long
-     * values.
-     */
-    public DecimalType() {
-	this(-Double.MAX_VALUE, Double.MAX_VALUE);
-    }
-
-    @Override
-    public TableCellRenderer getValueRenderer(PropertiesPanel propertiesPanel) {
-	return renderer;
-    }
-
     @Override
-    public TableCellEditor getValueEditor(PropertiesPanel propertiesPanel) {
-	editor.formatterFactory = formatterFactory;
-	return editor;
+    public TableCellRenderer getValueRenderer(PropertyType type, PropertiesPanel propertiesPanel) {
+	return new CellRenderer();
     }
 
     @Override
-    public boolean isReadOnly() {
-	return false;
-    }
-
-    @Override
-    public Object getDefaultValue() {
-	return defaultValue;
-    }
-
-    @Override
-    public boolean isAssignableValue(Object value) {
-	if (value == null) {
-	    return nullable;
-	}
-
-	try {
-	    double doubleValue;
-	    if (value instanceof Number) {
-		doubleValue = ((Number) value).doubleValue();
-	    } else {
-		doubleValue = Double.valueOf(value.toString());
-	    }
-	    return (minValue <= doubleValue) && (doubleValue <= maxValue);
-	} catch (Exception e) {
-	    return false;
-	}
-    }
-
-    @Override
-    public Object convertAssignableToValidValue(Object value) {
-	if (value == null) {
-	    return null;
-	}
-
-	try {
-	    if (value instanceof Number) {
-		return ((Number) value).doubleValue();
-	    } else {
-		return Double.valueOf(value.toString());
-	    }
-	} catch (Exception e) {
-	    throw new RuntimeException("Invalid value");
-	}
+    public TableCellEditor getValueEditor(PropertyType type, PropertiesPanel propertiesPanel) {
+	DecimalType numberType = (DecimalType) type;
+	FloatingPointNumberFormatter formatter = new FloatingPointNumberFormatter(
+		numberType.getMinValue(), numberType.getMaxValue(), numberType.isNullable());
+	return new CellEditor(new DefaultFormatterFactory(formatter));
     }
 }
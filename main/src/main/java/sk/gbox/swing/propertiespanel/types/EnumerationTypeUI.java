@@ -0,0 +1,158 @@
+package sk.gbox.swing.propertiespanel.types;
+
+import java.awt.Component;
+import java.util.*;
+
+import javax.swing.*;
+import javax.swing.table.*;
+
+import sk.gbox.swing.propertiespanel.*;
+
+/**
+ * User interface delegate for enumeration types.
+ */
+@SuppressWarnings("serial")
+public class EnumerationTypeUI extends PropertyTypeUI {
+
+    /**
+     * Item of enumeration.
+     */
+    private static class Item {
+	/**
+	 * Value of the item.
+	 */
+	Object value;
+
+	/**
+	 * Label of the item.
+	 */
+	String label;
+
+	@Override
+	public String toString() {
+	    return label;
+	}
+    }
+
+    /**
+     * Items of an enumeration type prepared for the user interface.
+     */
+    private static class ItemView {
+
+	/**
+	 * Items in the order of enumeration.
+	 */
+	final Item[] items;
+
+	/**
+	 * Map for fast searching of items.
+	 */
+	final Map<Object, Item> searchMap;
+
+	ItemView(EnumerationType<Object> type) {
+	    List<Object> values = type.getItems();
+	    items = new Item[values.size()];
+	    searchMap = new HashMap<Object, Item>();
+	    for (int i = 0; i < items.length; i++) {
+		Item item = new Item();
+		item.value = values.get(i);
+		item.label = type.getItemLabel(item.value);
+		items[i] = item;
+		searchMap.put(item.value, item);
+	    }
+	}
+    }
+
+    /**
+     * Cell editor for enumeration.
+     */
+    private static class CellEditor extends DefaultCellEditor {
+
+	/**
+	 * Search map for associating keys with labels.
+	 */
+	private final Map<Object, Item> searchMap;
+
+	/**
+	 * Constructs cell editor for items of an enumeration type.
+	 */
+	public CellEditor(ItemView itemView) {
+	    super(new JComboBox<Item>(new DefaultComboBoxModel<Item>(itemView.items)));
+	    this.searchMap = itemView.searchMap;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Component getTableCellEditorComponent(JTable table, Object value,
+		boolean isSelected, int row, int column) {
+	    Item item = searchMap.get(value);
+	    JComboBox<Item> comboBox = (JComboBox<Item>) super.getTableCellEditorComponent(table,
+		    item, isSelected, row, column);
+	    return comboBox;
+	}
+
+	@Override
+	public Object getCellEditorValue() {
+	    Object selectedValue = super.getCellEditorValue();
+	    if (selectedValue instanceof Item) {
+		return ((Item) selectedValue).value;
+	    }
+
+	    return null;
+	}
+    }
+
+    /**
+     * Cell renderer for enumerations.
+     */
+    private static class CellRenderer extends DefaultTableCellRenderer {
+	/**
+	 * Search map for associating keys with labels.
+	 */
+	private final Map<Object, Item> searchMap;
+
+	/**
+	 * Constructs cell renderer for items of an enumeration type.
+	 */
+	public CellRenderer(ItemView itemView) {
+	    this.searchMap = itemView.searchMap;
+	}
+
+	@Override
+	public Component getTableCellRendererComponent(JTable table, Object value,
+		boolean isSelected, boolean hasFocus, int row, int column) {
+	    Item item = searchMap.get(value);
+	    return super.getTableCellRendererComponent(table, (item != null) ? item.label : null,
+		    isSelected, false, row, column);
+	}
+    }
+
+    /**
+     * Prepared items mapped by enumeration types.
+     */
+    private final Map<PropertyType, ItemView> itemViews = new WeakHashMap<PropertyType, ItemView>();
+
+    @Override
+    public TableCellRenderer getValueRenderer(PropertyType type, PropertiesPanel propertiesPanel) {
+	return new CellRenderer(getItemView(type));
+    }
+
+    @Override
+    public TableCellEditor getValueEditor(PropertyType type, PropertiesPanel propertiesPanel) {
+	return new CellEditor(getItemView(type));
+    }
+
+    /**
+     * Returns prepared items of an enumeration type.
+     */
+    @SuppressWarnings("unchecked")
+    private ItemView getItemView(PropertyType type) {
+	ItemView result = itemViews.get(type);
+	if (result == null) {
+	    result = new ItemView((EnumerationType<Object>) type);
+	    itemViews.put(type, result);
+	}
+
+	return result;
+    }
+}
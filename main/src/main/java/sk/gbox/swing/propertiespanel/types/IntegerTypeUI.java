@@ -11,10 +11,10 @@ import javax.swing.text.*;
 import sk.gbox.swing.propertiespanel.*;
 
 /**
- * Property type for integer values.
+ * User interface delegate for integer types.
  */
 @SuppressWarnings("serial")
-public class IntegerType extends SimplePropertyType {
+public class IntegerTypeUI extends PropertyTypeUI {
 
     /**
      * Number formatter.
@@ -96,15 +96,16 @@ public class IntegerType extends SimplePropertyType {
     private static class CellEditor extends DefaultCellEditor {
 
 	/**
-	 * Currently set formatter factory.
+	 * Formatter factory of edited property type.
 	 */
-	private DefaultFormatterFactory formatterFactory;
+	private final DefaultFormatterFactory formatterFactory;
 
 	/**
 	 * Constructs cell editor.
 	 */
-	public CellEditor() {
+	public CellEditor(DefaultFormatterFactory formatterFactory) {
 	    super(new JFormattedTextField());
+	    this.formatterFactory = formatterFactory;
 	    final JFormattedTextField ftf = (JFormattedTextField) getComponent();
 
 	    // Set GUI behaviour of text field
@@ -181,148 +182,16 @@ public class IntegerType extends SimplePropertyType {
 	}
     }
 
-    /**
-     * Renderer for string values.
-     */
-    private static final CellRenderer renderer = new CellRenderer();
-
-    /**
-     * Editor for string values.
-     */
-    private static final CellEditor editor = new CellEditor();
-
-    /**
-     * Formatter factory for formatting valid values.
-     */
-    private final DefaultFormatterFactory formatterFactory;
-
-    /**
-     * Default value for this property type.
-     */
-    private final Object defaultValue;
-
-    /**
-     * Indicates whether null is accepted as a value.
-     */
-    private final boolean nullable;
-
-    /**
-     * The minimal allowed value.
-     */
-    private final long minValue;
-
-    /**
-     * The maximal allowed value.
-     */
-    private final long maxValue;
-
-    /**
-     * Constructs new integer type for integer values in given range limit.
-     * 
-     * @param minValue
-     *            the minimal allowed value.
-     * @param maxValue
-     *            the maximal allowed value.
-     * @param nullable
-     *            indicates wheter null value (empty string) are allowed.
-     */
-    public IntegerType(long minValue, long maxValue, boolean nullable) {
-	if (!(minValue <= maxValue)) {
-	    throw new RuntimeException("minValue is not equal or less than maxValue.");
-	}
-
-	formatterFactory = new DefaultFormatterFactory(new IntegerFormatter(minValue, maxValue,
-		nullable));
-
-	this.nullable = nullable;
-	this.minValue = minValue;
-	this.maxValue = maxValue;
-
-	if (nullable) {
-	    defaultValue = null;
-	} else {
-	    if ((minValue <= 0) && (0 <= maxValue)) {
-		defaultValue = 0;
-	    } else {
-		defaultValue = minValue;
-	    }
-	}
-    }
-
-    /**
-     * Constructs new integer type for integer values in given range limit.
-     * 
-     * @param minValue
-     *            the minimal allowed value.
-     * @param maxValue
-     *            the maximal allowed value.
-     */
-    public IntegerType(long minValue, long maxValue) {
-	this(minValue, maxValue, false);
-    }
-
-    /**
-     * Constructs new integer type for integer values in range limit for long
-     * values.
-     */
-    public IntegerType() {
-	this(Long.MIN_VALUE, Long.MAX_VALUE);
-    }
-
-    @Override
-    public TableCellRenderer getValueRenderer(PropertiesPanel propertiesPanel) {
-	return renderer;
-    }
-
     @Override
-    public TableCellEditor getValueEditor(PropertiesPanel propertiesPanel) {
-	editor.formatterFactory = formatterFactory;
-	return editor;
+    public TableCellRenderer getValueRenderer(PropertyType type, PropertiesPanel propertiesPanel) {
+	return new CellRenderer();
     }
 
     @Override
-    public boolean isReadOnly() {
-	return false;
-    }
-
-    @Override
-    public Object getDefaultValue() {
-	return defaultValue;
-    }
-
-    @Override
-    public boolean isAssignableValue(Object value) {
-	if (value == null) {
-	    return nullable;
-	}
-
-	try {
-	    long longValue;
-	    if (value instanceof Number) {
-		longValue = ((Number) value).longValue();
-	    } else {
-		longValue = Long.valueOf(value.toString());
-	    }
-	    return (minValue <= longValue) && (longValue <= maxValue);
-	} catch (Exception e) {
-	    return false;
-	}
-    }
-
-    @Override
-    public Object convertAssignableToValidValue(Object value) {
-	if (value == null) {
-	    return null;
-	}
-
-	try {
-	    if (value instanceof Number) {
-		return ((Number) value).longValue();
-	    } else {
-		return Long.valueOf(value.toString());
-	    }
-	} catch (Exception e) {
-	    throw new RuntimeException("Invalid value");
-	}
+    public TableCellEditor getValueEditor(PropertyType type, PropertiesPanel propertiesPanel) {
+	IntegerType numberType = (IntegerType) type;
+	IntegerFormatter formatter = new IntegerFormatter(numberType.getMinValue(),
+		numberType.getMaxValue(), numberType.isNullable());
+	return new CellEditor(new DefaultFormatterFactory(formatter));
     }
 }
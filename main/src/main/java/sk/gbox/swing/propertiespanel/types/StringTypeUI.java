@@ -9,10 +9,10 @@ import javax.swing.table.*;
 import sk.gbox.swing.propertiespanel.*;
 
 /**
- * Property type for string values.
+ * User interface delegate for string types.
  */
 @SuppressWarnings("serial")
-public class StringType extends SimplePropertyType {
+public class StringTypeUI extends PropertyTypeUI {
 
     /**
      * Cell editor for strings.
@@ -47,33 +47,13 @@ public class StringType extends SimplePropertyType {
 	}
     }
 
-    /**
-     * Renderer for string values.
-     */
-    private static final CellRenderer renderer = new CellRenderer();
-
-    /**
-     * Editor for string values.
-     */
-    private static final CellEditor editor = new CellEditor();
-
-    @Override
-    public TableCellRenderer getValueRenderer(PropertiesPanel propertiesPanel) {
-	return renderer;
-    }
-
-    @Override
-    public TableCellEditor getValueEditor(PropertiesPanel propertiesPanel) {
-	return editor;
-    }
-
     @Override
-    public boolean isReadOnly() {
-	return false;
+    public TableCellRenderer getValueRenderer(PropertyType type, PropertiesPanel propertiesPanel) {
+	return new CellRenderer();
     }
 
     @Override
-    public boolean isAssignableValue(Object value) {
-	return (value == null) || (value instanceof String);
+    public TableCellEditor getValueEditor(PropertyType type, PropertiesPanel propertiesPanel) {
+	return new CellEditor();
     }
 }
@@ -0,0 +1,72 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.awt.Rectangle;
+
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.table.TableColumnModel;
+
+import junit.framework.TestCase;
+import sk.gbox.swing.propertiespanel.types.StringType;
+
+/**
+ * Tests of cached cell geometry of the table of {@link PropertiesPanel}.
+ */
+public class CellGeometryTest extends TestCase {
+
+    public void testCellBoundsFollowChanges() throws Exception {
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		ComposedProperty model = PanelImages.createNestedModel(5);
+		PropertiesPanel panel = new PropertiesPanel();
+		panel.setModel(model);
+		panel.setSize(400, 400);
+		PanelImages.layout(panel);
+		JTable table = ModelLoadingTest.findTable(panel);
+		assertCellBounds(table);
+
+		table.getColumnModel().getColumn(0).setPreferredWidth(150);
+		table.doLayout();
+		assertCellBounds(table);
+
+		table.setRowHeight(table.getRowHeight() + 7);
+		assertCellBounds(table);
+
+		model.getSubproperties().add(0, new SimpleProperty(new StringType(), "first"));
+		assertCellBounds(table);
+	    }
+	});
+    }
+
+    /**
+     * Compares bounds of all cells with bounds computed by a plain table with
+     * the same geometry. Cells of rows without value cover both columns.
+     */
+    private static void assertCellBounds(JTable table) {
+	JTable reference = new JTable(table.getRowCount(), table.getColumnCount());
+	reference.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
+	reference.setRowHeight(table.getRowHeight());
+	reference.setIntercellSpacing(table.getIntercellSpacing());
+	TableColumnModel columns = table.getColumnModel();
+	for (int column = 0; column < table.getColumnCount(); column++) {
+	    reference.getColumnModel().getColumn(column).setWidth(
+		    columns.getColumn(column).getWidth());
+	}
+
+	for (int row = 0; row < table.getRowCount(); row++) {
+	    boolean spanned = (table.getValueAt(row, 1) == null);
+	    for (int column = 0; column < table.getColumnCount(); column++) {
+		for (boolean includeSpacing : new boolean[] { false, true }) {
+		    Rectangle expected = reference.getCellRect(row, column, includeSpacing);
+		    if (spanned) {
+			expected = reference.getCellRect(row, 0, includeSpacing).union(
+				reference.getCellRect(row, 1, includeSpacing));
+		    }
+		    assertEquals("Row " + row + ", column " + column, expected,
+			    table.getCellRect(row, column, includeSpacing));
+		}
+	    }
+	}
+    }
+}
@@ -0,0 +1,89 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.awt.Component;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import javax.swing.JComponent;
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+
+import junit.framework.TestCase;
+import sk.gbox.swing.propertiespanel.types.StringType;
+
+/**
+ * Tests that steady-state rendering of cells of {@link PropertiesPanel} does
+ * not create new borders and fonts.
+ */
+public class CellRenderingAllocationTest extends TestCase {
+
+    private static final int GROUP_COUNT = 20;
+
+    public void testSecondPassCreatesNoBordersAndFonts() throws Exception {
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		PropertiesPanel panel = new PropertiesPanel();
+		panel.setModel(createModel());
+		JTable table = ModelLoadingTest.findTable(panel);
+		assertTrue(table.getRowCount() > GROUP_COUNT);
+
+		Set<Object> firstPass = Collections
+			.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+		renderCells(table, firstPass);
+		Set<Object> secondPass = Collections
+			.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+		renderCells(table, secondPass);
+
+		assertFalse(secondPass.isEmpty());
+		secondPass.removeAll(firstPass);
+		assertTrue("New borders or fonts: " + secondPass, secondPass.isEmpty());
+	    }
+	});
+    }
+
+    /**
+     * Renders all cells of a table and collects their borders and fonts.
+     */
+    private static void renderCells(JTable table, Set<Object> objects) {
+	for (int row = 0; row < table.getRowCount(); row++) {
+	    table.getSelectionModel().setSelectionInterval(row, row);
+	    for (int column = 0; column < table.getColumnCount(); column++) {
+		Component component = table.prepareRenderer(table.getCellRenderer(row, column),
+			row, column);
+		if (component instanceof JComponent) {
+		    objects.add(((JComponent) component).getBorder());
+		}
+		if (component != null) {
+		    objects.add(component.getFont());
+		}
+	    }
+	}
+    }
+
+    /**
+     * Creates model with nested groups, important and read-only properties.
+     */
+    private static ComposedProperty createModel() {
+	StringType type = new StringType();
+	ComposedProperty result = new ComposedProperty();
+	ComposedProperty parent = result;
+	for (int i = 0; i < GROUP_COUNT; i++) {
+	    ComposedProperty group = new ComposedProperty();
+	    group.setName("group" + i);
+	    group.setLabel("Group " + i);
+	    parent.getSubproperties().add(group);
+
+	    SimpleProperty property = new SimpleProperty(type, "value " + i);
+	    property.setName("property" + i);
+	    property.setLabel("Property " + i);
+	    property.setImportant(i % 2 == 0);
+	    property.setReadOnly(i % 3 == 0);
+	    group.getSubproperties().add(property);
+
+	    parent = ((i % 4) == 3) ? result : group;
+	}
+	return result;
+    }
+}
@@ -0,0 +1,55 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.awt.Font;
+
+import javax.swing.SwingUtilities;
+import javax.swing.plaf.basic.BasicHTML;
+import javax.swing.text.View;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests of caching of parsed hints by {@link HintLabel}.
+ */
+public class HintLabelTest extends TestCase {
+
+    public void testParsedViewsCached() throws Exception {
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		HintLabel label = new HintLabel();
+		View first = label.prepareHint("<b>First</b> hint");
+		assertSame(first, label.prepareHint("<b>First</b> hint"));
+
+		label.setHint("<b>First</b> hint");
+		assertSame(first, label.getClientProperty(BasicHTML.propertyKey));
+		label.setHint("Second hint");
+		label.setHint("<b>First</b> hint");
+		assertSame(first, label.getClientProperty(BasicHTML.propertyKey));
+
+		label.setFont(label.getFont().deriveFont(Font.ITALIC));
+		View refreshed = (View) label.getClientProperty(BasicHTML.propertyKey);
+		assertNotSame(first, refreshed);
+		assertSame(refreshed, label.prepareHint("<b>First</b> hint"));
+	    }
+	});
+    }
+
+    public void testLeastRecentlyUsedViewsEvicted() throws Exception {
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		HintLabel label = new HintLabel();
+		View first = label.prepareHint("hint 0");
+		View recent = label.prepareHint("hint 1");
+		for (int i = 2; i < 100; i++) {
+		    assertSame(recent, label.prepareHint("hint 1"));
+		    label.prepareHint("hint " + i);
+		}
+
+		assertSame(recent, label.prepareHint("hint 1"));
+		assertNotSame(first, label.prepareHint("hint 0"));
+	    }
+	});
+    }
+}
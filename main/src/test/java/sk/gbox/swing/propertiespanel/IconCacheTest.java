@@ -0,0 +1,38 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.awt.image.BufferedImage;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests of {@link IconCache}.
+ */
+public class IconCacheTest extends TestCase {
+
+    public void testImagesDecodedOnce() {
+	BufferedImage image = IconCache.getImage("collapse-icon.png");
+	assertNotNull(image);
+	assertSame(image, IconCache.getImage("collapse-icon.png"));
+	assertTrue(IconCache.isShared(image));
+	assertFalse(IconCache.isShared(IconCache.createCompatibleCopy(image)));
+	assertNull(IconCache.getImage("missing-icon.png"));
+    }
+
+    public void testScaledVariantsCached() {
+	BufferedImage image = IconCache.getImage("expand-icon.png");
+	assertSame(image, IconCache.getScaledImage(image, 1));
+
+	BufferedImage doubled = IconCache.getScaledImage(image, 2);
+	assertSame(doubled, IconCache.getScaledImage(image, 2));
+	assertEquals(2 * image.getWidth(), doubled.getWidth());
+	assertEquals(2 * image.getHeight(), doubled.getHeight());
+	for (int y = 0; y < image.getHeight(); y++) {
+	    for (int x = 0; x < image.getWidth(); x++) {
+		assertEquals(image.getRGB(x, y), doubled.getRGB(2 * x + 1, 2 * y + 1));
+	    }
+	}
+
+	BufferedImage fractional = IconCache.getScaledImage(image, 1.5);
+	assertEquals((int) Math.ceil(1.5 * image.getWidth()), fractional.getWidth());
+    }
+}
@@ -0,0 +1,218 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.util.concurrent.*;
+
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+
+import junit.framework.TestCase;
+import sk.gbox.swing.propertiespanel.PropertiesPanel.ModelLoader;
+import sk.gbox.swing.propertiespanel.PropertiesPanel.ModelLoadingListener;
+import sk.gbox.swing.propertiespanel.PropertiesPanel.PropertyPublisher;
+import sk.gbox.swing.propertiespanel.types.StringType;
+
+/**
+ * Tests of asynchronous loading of models by {@link PropertiesPanel}.
+ */
+public class ModelLoadingTest extends TestCase {
+
+    private PropertiesPanel panel;
+
+    private JTable table;
+
+    private final BlockingQueue<Object> results = new LinkedBlockingQueue<Object>();
+
+    @Override
+    protected void setUp() throws Exception {
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		panel = new PropertiesPanel();
+		table = findTable(panel);
+		panel.addModelLoadingListener(new ModelLoadingListener() {
+		    @Override
+		    public void loadingFinished(ComposedProperty model) {
+			results.add(model);
+		    }
+
+		    @Override
+		    public void loadingFailed(ComposedProperty model, Throwable cause) {
+			results.add(cause);
+		    }
+		});
+	    }
+	});
+    }
+
+    public void testLoadingStateIsNotRow() throws Exception {
+	final CountDownLatch published = new CountDownLatch(1);
+	final CountDownLatch resume = new CountDownLatch(1);
+	final ComposedProperty model = new ComposedProperty();
+	loadModel(model, new ModelLoader() {
+	    @Override
+	    public void loadProperties(PropertyPublisher publisher) throws Exception {
+		publisher.addProperty(createProperty("first"));
+		published.countDown();
+		resume.await();
+		publisher.addProperty(createProperty("second"));
+	    }
+	});
+
+	assertTrue(published.await(5, TimeUnit.SECONDS));
+	waitForRows(1);
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		assertTrue(panel.isLoading());
+		assertEquals(1, table.getRowCount());
+		table.getSelectionModel().setSelectionInterval(0, 0);
+	    }
+	});
+
+	resume.countDown();
+	assertSame(model, results.poll(5, TimeUnit.SECONDS));
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		assertFalse(panel.isLoading());
+		assertEquals(2, table.getRowCount());
+	    }
+	});
+    }
+
+    public void testLoaderFailureReported() throws Exception {
+	final Exception failure = new Exception("Broken source.");
+	loadModel(new ComposedProperty(), new ModelLoader() {
+	    @Override
+	    public void loadProperties(PropertyPublisher publisher) throws Exception {
+		publisher.addProperty(createProperty("loaded"));
+		throw failure;
+	    }
+	});
+
+	assertSame(failure, results.poll(5, TimeUnit.SECONDS));
+	waitForRows(1);
+    }
+
+    public void testCancelledLoadingIgnored() throws Exception {
+	assertLoadingAbandoned(new Runnable() {
+	    @Override
+	    public void run() {
+		panel.cancelLoading();
+	    }
+	}, 1);
+    }
+
+    public void testLoadingAbandonedBySetModel() throws Exception {
+	assertLoadingAbandoned(new Runnable() {
+	    @Override
+	    public void run() {
+		panel.setModel(new ComposedProperty());
+	    }
+	}, 0);
+    }
+
+    /**
+     * Interrupts a running loading and checks that properties published by
+     * the loader afterwards are not appended and listeners are not notified.
+     */
+    private void assertLoadingAbandoned(final Runnable interruption, final int rowCount)
+	    throws Exception {
+	final CountDownLatch published = new CountDownLatch(1);
+	final CountDownLatch resume = new CountDownLatch(1);
+	final CountDownLatch finished = new CountDownLatch(1);
+	final ComposedProperty model = new ComposedProperty();
+	loadModel(model, new ModelLoader() {
+	    @Override
+	    public void loadProperties(PropertyPublisher publisher) throws Exception {
+		try {
+		    publisher.addProperty(createProperty("first"));
+		    published.countDown();
+		    try {
+			resume.await();
+		    } catch (InterruptedException e) {
+			// the loader ignores cancellation and continues
+		    }
+		    publisher.addProperty(createProperty("late"));
+		} finally {
+		    finished.countDown();
+		}
+	    }
+	});
+
+	assertTrue(published.await(5, TimeUnit.SECONDS));
+	waitForRows(1);
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		interruption.run();
+		assertFalse(panel.isLoading());
+	    }
+	});
+
+	resume.countDown();
+	assertTrue(finished.await(5, TimeUnit.SECONDS));
+
+	// Published chunks are processed with a delay
+	assertNull(results.poll(500, TimeUnit.MILLISECONDS));
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		assertFalse(panel.isLoading());
+		assertEquals(1, model.getSubproperties().size());
+		assertEquals(rowCount, table.getRowCount());
+	    }
+	});
+    }
+
+    private void loadModel(final ComposedProperty model, final ModelLoader loader)
+	    throws Exception {
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		panel.loadModel(model, loader);
+	    }
+	});
+    }
+
+    private void waitForRows(final int rowCount) throws Exception {
+	final int[] actual = new int[1];
+	for (int i = 0; i < 500; i++) {
+	    SwingUtilities.invokeAndWait(new Runnable() {
+		@Override
+		public void run() {
+		    actual[0] = table.getRowCount();
+		}
+	    });
+	    if (actual[0] == rowCount) {
+		return;
+	    }
+	    Thread.sleep(10);
+	}
+	assertEquals(rowCount, actual[0]);
+    }
+
+    private static Property createProperty(String name) {
+	SimpleProperty result = new SimpleProperty(new StringType(), "");
+	result.setName(name);
+	result.setLabel(name);
+	return result;
+    }
+
+    static JTable findTable(Container container) {
+	for (Component component : container.getComponents()) {
+	    if (component instanceof JTable) {
+		return (JTable) component;
+	    }
+	    if (component instanceof Container) {
+		JTable result = findTable((Container) component);
+		if (result != null) {
+		    return result;
+		}
+	    }
+	}
+	return null;
+    }
+}
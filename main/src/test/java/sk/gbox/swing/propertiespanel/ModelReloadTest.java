@@ -0,0 +1,132 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+
+import junit.framework.TestCase;
+import sk.gbox.swing.propertiespanel.BinaryPropertyFormat.PropertyTypeDescriber;
+import sk.gbox.swing.propertiespanel.types.StringType;
+
+/**
+ * Tests of reloading models by {@link PropertiesPanel}.
+ */
+public class ModelReloadTest extends TestCase {
+
+    private static final int PROPERTY_COUNT = 6;
+
+    private static final StringType TYPE = new StringType();
+
+    private final List<TableModelEvent> events = new ArrayList<TableModelEvent>();
+
+    public void testOnlyChangedRowsReported() throws Exception {
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		PropertiesPanel panel = new PropertiesPanel();
+		JTable table = ModelLoadingTest.findTable(panel);
+		ComposedProperty model = createModel();
+		panel.setModel(model);
+		Property kept = model.getSubproperties().get(0);
+		table.getModel().addTableModelListener(new TableModelListener() {
+		    @Override
+		    public void tableChanged(TableModelEvent e) {
+			events.add(e);
+		    }
+		});
+
+		ComposedProperty definition = createModel();
+		definition.getSubproperties().get(3).setLabel("changed");
+		definition.getSubproperties().add(createProperty("added"));
+		panel.reloadModel(definition);
+
+		assertSame(kept, model.getSubproperties().get(0));
+		assertEquals(PROPERTY_COUNT + 1, table.getRowCount());
+	    }
+	});
+
+	assertEquals(2, events.size());
+	assertEvent(events.get(0), TableModelEvent.INSERT, PROPERTY_COUNT, PROPERTY_COUNT);
+	assertEvent(events.get(1), TableModelEvent.UPDATE, 3, 3);
+    }
+
+    public void testRowsUpdatedAfterFailedMerge() throws Exception {
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		PropertiesPanel panel = new PropertiesPanel();
+		JTable table = ModelLoadingTest.findTable(panel);
+		ComposedProperty model = createGroupedModel("kept");
+		panel.setModel(model);
+		assertEquals(3, table.getRowCount());
+
+		// The group is merged before the comparison of types fails
+		ComposedProperty definition = createGroupedModel("added1");
+		ComposedProperty group = (ComposedProperty) definition.getSubproperties().get(0);
+		group.getSubproperties().add(createProperty("added2"));
+		try {
+		    panel.reloadModel(definition, new PropertyTypeDescriber() {
+			@Override
+			public String describePropertyType(PropertyType type,
+				Map<String, Object> parameters) {
+			    throw new IllegalStateException();
+			}
+		    });
+		    fail("Failure of merging was not reported.");
+		} catch (IllegalStateException expected) {
+		    // thrown by the describer
+		}
+
+		assertEquals(2, ((ComposedProperty) model.getSubproperties().get(0))
+			.getSubproperties().size());
+		assertEquals(4, table.getRowCount());
+	    }
+	});
+    }
+
+    private static void assertEvent(TableModelEvent event, int type, int firstRow, int lastRow) {
+	assertEquals(type, event.getType());
+	assertEquals(firstRow, event.getFirstRow());
+	assertEquals(lastRow, event.getLastRow());
+    }
+
+    private static ComposedProperty createModel() {
+	ComposedProperty result = new ComposedProperty();
+	for (int i = 0; i < PROPERTY_COUNT; i++) {
+	    result.getSubproperties().add(createProperty("property" + i));
+	}
+	return result;
+    }
+
+    /**
+     * Creates a model with a group containing a property and a property whose
+     * type differs in each model.
+     */
+    private static ComposedProperty createGroupedModel(String name) {
+	ComposedProperty group = new ComposedProperty();
+	group.setName("group");
+	group.setLabel("group");
+	group.getSubproperties().add(createProperty(name));
+
+	SimpleProperty last = new SimpleProperty(new StringType(), "");
+	last.setName("last");
+	last.setLabel("last");
+
+	ComposedProperty result = new ComposedProperty();
+	result.getSubproperties().add(group);
+	result.getSubproperties().add(last);
+	return result;
+    }
+
+    private static Property createProperty(String name) {
+	SimpleProperty result = new SimpleProperty(TYPE, "");
+	result.setName(name);
+	result.setLabel(name);
+	return result;
+    }
+}
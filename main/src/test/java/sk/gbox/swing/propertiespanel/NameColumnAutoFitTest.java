@@ -0,0 +1,135 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.awt.FontMetrics;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.table.TableColumn;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests of automatic fitting of the name column of {@link PropertiesPanel}.
+ */
+public class NameColumnAutoFitTest extends TestCase {
+
+    private PropertiesPanel panel;
+
+    private ComposedProperty model;
+
+    private JTable table;
+
+    private int nameColumnWidth;
+
+    public void testNameColumnFitsLabels() throws Exception {
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		model = PanelImages.createNestedModel(4);
+		panel = new PropertiesPanel();
+		panel.setModel(model);
+		panel.setSize(600, 400);
+		PanelImages.layout(panel);
+		table = ModelLoadingTest.findTable(panel);
+		panel.setNameColumnAutoFit(true);
+	    }
+	});
+
+	// The fit is scheduled after the pending events
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		int width = getNameColumn().getWidth();
+		assertLabelsFit(width);
+		assertTrue(width < table.getWidth() / 2);
+		assertEquals(table.getWidth(), table.getColumnModel().getTotalColumnWidth());
+
+		getDeepestProperty().setLabel("Property with a considerably longer label");
+	    }
+	});
+
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		assertLabelsFit(getNameColumn().getWidth());
+
+		StringBuilder label = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+		    label.append("Long label ");
+		}
+		getDeepestProperty().setLabel(label.toString());
+	    }
+	});
+
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		// Extremely long labels do not hide the value column
+		assertEquals(table.getWidth() * 2 / 3, getNameColumn().getWidth());
+	    }
+	});
+    }
+
+    public void testNameColumnKeptWithoutAutoFit() throws Exception {
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		model = PanelImages.createNestedModel(4);
+		panel = new PropertiesPanel();
+		panel.setModel(model);
+		panel.setSize(600, 400);
+		PanelImages.layout(panel);
+		table = ModelLoadingTest.findTable(panel);
+		assertFalse(panel.isNameColumnAutoFit());
+		nameColumnWidth = getNameColumn().getWidth();
+		getDeepestProperty().setLabel("Property with a considerably longer label");
+	    }
+	});
+
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		assertEquals(nameColumnWidth, getNameColumn().getWidth());
+	    }
+	});
+    }
+
+    private TableColumn getNameColumn() {
+	return table.getColumnModel().getColumn(0);
+    }
+
+    /**
+     * Returns the string property of the most nested group of the model.
+     */
+    private Property getDeepestProperty() {
+	List<Property> properties = new ArrayList<Property>();
+	collectTypedProperties(model, properties);
+	return properties.get(properties.size() - 1);
+    }
+
+    /**
+     * Checks that labels of all typed properties fit into the name column.
+     * Labels of groups span both columns and do not constrain it.
+     */
+    private void assertLabelsFit(int width) {
+	FontMetrics metrics = table.getFontMetrics(table.getFont());
+	List<Property> properties = new ArrayList<Property>();
+	collectTypedProperties(model, properties);
+	for (Property property : properties) {
+	    String label = property.getLabel();
+	    assertTrue(label, metrics.stringWidth(label) < width);
+	}
+    }
+
+    private static void collectTypedProperties(ComposedProperty group, List<Property> result) {
+	for (Property property : group.getSubproperties()) {
+	    if (property instanceof ComposedProperty) {
+		collectTypedProperties((ComposedProperty) property, result);
+	    } else {
+		result.add(property);
+	    }
+	}
+    }
+}
@@ -0,0 +1,72 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import javax.swing.JComponent;
+
+import sk.gbox.swing.propertiespanel.types.StringType;
+
+/**
+ * Helpers of tests comparing painted images of panels.
+ */
+final class PanelImages {
+
+    private PanelImages() {
+
+    }
+
+    /**
+     * Lays out a container and all its descendants.
+     */
+    static void layout(Container container) {
+	container.doLayout();
+	for (Component component : container.getComponents()) {
+	    if (component instanceof Container) {
+		layout((Container) component);
+	    }
+	}
+    }
+
+    /**
+     * Paints a component and returns the hash code of painted pixels.
+     */
+    static int paintHash(JComponent component) {
+	int width = component.getWidth();
+	int height = component.getHeight();
+	BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+	Graphics2D g = image.createGraphics();
+	try {
+	    component.paint(g);
+	} finally {
+	    g.dispose();
+	}
+	return Arrays.hashCode(image.getRGB(0, 0, width, height, null, 0, width));
+    }
+
+    /**
+     * Creates a model with a chain of nested groups, each group contains a
+     * string property.
+     */
+    static ComposedProperty createNestedModel(int depth) {
+	StringType type = new StringType();
+	ComposedProperty result = new ComposedProperty();
+	ComposedProperty parent = result;
+	for (int i = 0; i < depth; i++) {
+	    ComposedProperty group = new ComposedProperty();
+	    group.setName("group" + i);
+	    group.setLabel("Group " + i);
+	    parent.getSubproperties().add(group);
+
+	    SimpleProperty property = new SimpleProperty(type, "value " + i);
+	    property.setName("property" + i);
+	    property.setLabel("Property " + i);
+	    group.getSubproperties().add(property);
+	    parent = group;
+	}
+	return result;
+    }
+}
@@ -0,0 +1,57 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests of the optional row image cache of {@link PropertiesPanel}.
+ */
+public class RowImageCacheTest extends TestCase {
+
+    public void testCachedRowsPaintedAsUncached() throws Exception {
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		List<Integer> uncached = paintSequence(false);
+		List<Integer> cached = paintSequence(true);
+		assertEquals(uncached, cached);
+	    }
+	});
+    }
+
+    /**
+     * Paints a panel after a sequence of changes and returns hashes of
+     * painted images.
+     */
+    private static List<Integer> paintSequence(boolean rowImageCacheEnabled) {
+	ComposedProperty model = PanelImages.createNestedModel(6);
+	PropertiesPanel panel = new PropertiesPanel();
+	panel.setRowImageCacheEnabled(rowImageCacheEnabled);
+	panel.setModel(model);
+	panel.setSize(400, 400);
+	PanelImages.layout(panel);
+	JTable table = ModelLoadingTest.findTable(panel);
+	ComposedProperty group = (ComposedProperty) model.getSubproperties().get(0);
+
+	List<Integer> result = new ArrayList<Integer>();
+	result.add(PanelImages.paintHash(panel));
+	result.add(PanelImages.paintHash(panel));
+	table.setRowSelectionInterval(1, 1);
+	result.add(PanelImages.paintHash(panel));
+	group.setLabel("Changed label");
+	result.add(PanelImages.paintHash(panel));
+	group.getSubproperties().get(0).setValue("changed value");
+	result.add(PanelImages.paintHash(panel));
+	table.setRowSelectionInterval(3, 3);
+	result.add(PanelImages.paintHash(panel));
+	panel.setGroupNameBackground(Color.ORANGE);
+	result.add(PanelImages.paintHash(panel));
+	return result;
+    }
+}
@@ -0,0 +1,116 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.awt.ComponentOrientation;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.MouseEvent;
+
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.table.TableColumn;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests of {@link TableColumnResizer}.
+ */
+public class TableColumnResizerTest extends TestCase {
+
+    public void testResizeCursorAtDividers() throws Exception {
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		JTable table = createTable();
+		TableColumnResizer resizer = new TableColumnResizer(table);
+		resizer.setEnabled(true);
+		assertResizeCursor(table, resizer);
+
+		// Cached dividers follow changes of column widths
+		table.getColumnModel().getColumn(0).setPreferredWidth(40);
+		table.doLayout();
+		assertResizeCursor(table, resizer);
+
+		// and orientation of the table
+		table.setComponentOrientation(ComponentOrientation.RIGHT_TO_LEFT);
+		table.getTableHeader().setComponentOrientation(ComponentOrientation.RIGHT_TO_LEFT);
+		assertResizeCursor(table, resizer);
+	    }
+	});
+    }
+
+    public void testDraggingResizesColumn() throws Exception {
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		JTable table = createTable();
+		TableColumnResizer resizer = new TableColumnResizer(table);
+		resizer.setEnabled(true);
+		TableColumn column = table.getColumnModel().getColumn(0);
+		int width = column.getWidth();
+		int y = table.getRowHeight() / 2;
+
+		resizer.mousePressed(createEvent(table, MouseEvent.MOUSE_PRESSED, width + 1, y));
+		assertSame(column, table.getTableHeader().getResizingColumn());
+
+		// Drags following the first one are coalesced until the release
+		for (int delta = 10; delta <= 40; delta += 10) {
+		    resizer.mouseDragged(createEvent(table, MouseEvent.MOUSE_DRAGGED, width + 1
+			    + delta, y));
+		    assertEquals(width + 10, column.getWidth());
+		}
+
+		resizer.mouseReleased(createEvent(table, MouseEvent.MOUSE_RELEASED, width + 41, y));
+		assertEquals(width + 40, column.getWidth());
+		assertNull(table.getTableHeader().getResizingColumn());
+	    }
+	});
+    }
+
+    private static JTable createTable() {
+	JTable table = new JTable(3, 3);
+	table.setSize(300, table.getRowHeight() * 3);
+	table.doLayout();
+	return table;
+    }
+
+    private static MouseEvent createEvent(JTable table, int id, int x, int y) {
+	return new MouseEvent(table, id, 0, 0, x, y, 1, false);
+    }
+
+    /**
+     * Moves mouse over all x-positions of a row and compares the cursor with
+     * the result of the exact test of all cells.
+     */
+    private static void assertResizeCursor(JTable table, TableColumnResizer resizer) {
+	int y = table.getRowHeight() * 3 / 2;
+	for (int x = -5; x < table.getWidth() + 5; x++) {
+	    resizer.mouseMoved(createEvent(table, MouseEvent.MOUSE_MOVED, x, y));
+	    assertEquals("x = " + x, isResizingPoint(table, new Point(x, y)),
+		    table.getCursor() == TableColumnResizer.resizeCursor);
+	}
+    }
+
+    /**
+     * Returns whether a column can be resized at a point, without using cached
+     * positions of dividers.
+     */
+    private static boolean isResizingPoint(JTable table, Point p) {
+	int column = table.columnAtPoint(p);
+	if ((column == -1) || (table.rowAtPoint(p) == -1)) {
+	    return false;
+	}
+
+	Rectangle r = table.getCellRect(table.rowAtPoint(p), column, true);
+	r.grow(-3, 0);
+	if (r.contains(p)) {
+	    return false;
+	}
+
+	int midPoint = r.x + r.width / 2;
+	if (table.getTableHeader().getComponentOrientation().isLeftToRight()) {
+	    return (p.x < midPoint) ? column > 0 : true;
+	} else {
+	    return (p.x < midPoint) ? true : column > 0;
+	}
+    }
+}
@@ -0,0 +1,43 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.awt.Color;
+
+import javax.swing.SwingUtilities;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests of cached tree line stamps of {@link PropertiesPanel}.
+ */
+public class TreeStampTest extends TestCase {
+
+    public void testStampsInvalidatedBySettings() throws Exception {
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		PropertiesPanel panel = new PropertiesPanel();
+		panel.setModel(PanelImages.createNestedModel(8));
+		panel.setSize(400, 400);
+		PanelImages.layout(panel);
+
+		int original = PanelImages.paintHash(panel);
+		assertEquals(original, PanelImages.paintHash(panel));
+
+		Color lineColor = panel.getLineColorOfTree();
+		panel.setLineColorOfTree(Color.RED);
+		int recolored = PanelImages.paintHash(panel);
+		assertFalse(original == recolored);
+		panel.setLineColorOfTree(lineColor);
+		assertEquals(original, PanelImages.paintHash(panel));
+
+		int shift = panel.getIndentationLevelShift();
+		panel.setIndentationLevelShift(shift + 1);
+		PanelImages.layout(panel);
+		assertFalse(original == PanelImages.paintHash(panel));
+		panel.setIndentationLevelShift(shift);
+		PanelImages.layout(panel);
+		assertEquals(original, PanelImages.paintHash(panel));
+	    }
+	});
+    }
+}
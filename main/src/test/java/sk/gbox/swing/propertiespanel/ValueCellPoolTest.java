@@ -0,0 +1,72 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.util.Arrays;
+
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+
+import junit.framework.TestCase;
+import sk.gbox.swing.propertiespanel.types.*;
+
+/**
+ * Tests of pooling of value renderers and editors per panel and type.
+ */
+public class ValueCellPoolTest extends TestCase {
+
+    public void testRenderersAndEditorsBoundToPanelAndType() throws Exception {
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		IntegerType small = new IntegerType(0, 10);
+		IntegerType large = new IntegerType(0, 1000);
+		JTable first = createTable(small, large);
+		JTable second = createTable(small, large);
+
+		assertSame(first.getCellRenderer(0, 1), first.getCellRenderer(0, 1));
+		assertSame(first.getCellEditor(0, 1), first.getCellEditor(0, 1));
+		assertNotSame(first.getCellEditor(0, 1), first.getCellEditor(1, 1));
+		assertNotSame(first.getCellRenderer(0, 1), second.getCellRenderer(0, 1));
+		assertNotSame(first.getCellEditor(0, 1), second.getCellEditor(0, 1));
+	    }
+	});
+    }
+
+    public void testBuiltInTypesPooledOnlyByPanels() throws Exception {
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		SimplePropertyType[] types = { new StringType(), new BooleanType(),
+			new IntegerType(), new DecimalType(),
+			new EnumerationType<String>(Arrays.asList("a", "b")) };
+		PropertiesPanel panel = new PropertiesPanel();
+		for (SimplePropertyType type : types) {
+		    // Delegates create new instances on each request
+		    PropertyTypeUI ui = PropertyTypeUI.getDefaultUI(type.getClass());
+		    String typeName = type.getClass().getSimpleName();
+		    assertNotSame(typeName, ui.getValueRenderer(type, panel),
+			    ui.getValueRenderer(type, panel));
+		    assertNotSame(typeName, ui.getValueEditor(type, panel),
+			    ui.getValueEditor(type, panel));
+
+		    // Panels reuse them for cells of the same type
+		    JTable table = createTable(type, type);
+		    assertSame(typeName, table.getCellRenderer(0, 1), table.getCellRenderer(1, 1));
+		    assertSame(typeName, table.getCellEditor(0, 1), table.getCellEditor(1, 1));
+		}
+	    }
+	});
+    }
+
+    private static JTable createTable(SimplePropertyType... types) {
+	ComposedProperty model = new ComposedProperty();
+	for (int i = 0; i < types.length; i++) {
+	    SimpleProperty property = new SimpleProperty(types[i], types[i].getDefaultValue());
+	    property.setName("property" + i);
+	    model.getSubproperties().add(property);
+	}
+
+	PropertiesPanel panel = new PropertiesPanel();
+	panel.setModel(model);
+	return ModelLoadingTest.findTable(panel);
+    }
+}
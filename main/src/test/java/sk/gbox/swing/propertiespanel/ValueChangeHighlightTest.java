@@ -0,0 +1,62 @@
+package sk.gbox.swing.propertiespanel;
+
+import java.awt.Color;
+
+import javax.swing.SwingUtilities;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests of highlighting of changed values by {@link PropertiesPanel}.
+ */
+public class ValueChangeHighlightTest extends TestCase {
+
+    private static final int HIGHLIGHT_DURATION = 200;
+
+    private PropertiesPanel highlighted;
+
+    private PropertiesPanel plain;
+
+    private final int[] hashes = new int[3];
+
+    public void testHighlightFadesOut() throws Exception {
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		highlighted = createPanel();
+		highlighted.setValueChangeHighlight(new Color(255, 0, 0, 160));
+		highlighted.setValueChangeHighlightDuration(HIGHLIGHT_DURATION);
+		highlighted.setMaxFrameRate(50);
+		plain = createPanel();
+
+		changeValue(highlighted);
+		changeValue(plain);
+		hashes[0] = PanelImages.paintHash(highlighted);
+		hashes[1] = PanelImages.paintHash(plain);
+	    }
+	});
+	assertFalse("Changed value is not highlighted.", hashes[0] == hashes[1]);
+
+	Thread.sleep(5 * HIGHLIGHT_DURATION);
+	SwingUtilities.invokeAndWait(new Runnable() {
+	    @Override
+	    public void run() {
+		hashes[2] = PanelImages.paintHash(highlighted);
+	    }
+	});
+	assertEquals("Highlight did not fade out.", hashes[1], hashes[2]);
+    }
+
+    private static PropertiesPanel createPanel() {
+	PropertiesPanel result = new PropertiesPanel();
+	result.setModel(PanelImages.createNestedModel(3));
+	result.setSize(400, 300);
+	PanelImages.layout(result);
+	return result;
+    }
+
+    private static void changeValue(PropertiesPanel panel) {
+	ComposedProperty group = (ComposedProperty) panel.getModel().getSubproperties().get(0);
+	group.getSubproperties().get(0).setValue("changed");
+    }
+}